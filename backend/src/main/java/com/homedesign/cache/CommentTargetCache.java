@@ -0,0 +1,448 @@
+package com.homedesign.cache;
+
+import com.homedesign.dto.CommentTreeNode;
+import com.homedesign.entity.Comment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按评论目标（案例、文章等）缓存的评论数据
+ * 每个目标一项：评论总数、顶级评论数、评论树第一页和最新评论第一页，按目标LRU淘汰。
+ * 发表、回复、删除、修改和点赞评论时直接改写缓存中的对应目标，而不是整体失效；
+ * 删除了第一页上的顶级评论等无法就地补齐的情况只丢弃该目标的页面数据，下次访问时重新加载。
+ * 所有操作在同一把锁内完成，读取时返回副本。
+ * 加载前取得版本号，放入缓存时版本号有变化说明加载期间有写入，结果不再放入；点赞只推进所在目标的版本号，
+ * 热门目标的点赞不会让其他目标的页面放不进缓存
+ */
+@Component
+public class CommentTargetCache {
+
+    @Value("${comment.cache.capacity:2000}")
+    private int capacity;
+
+    @Value("${comment.cache.page-size:10}")
+    private int pageSize;
+
+    @Value("${comment.tree.reply-limit:3}")
+    private int replyLimit;
+
+    @Value("${comment.tree.max-depth:3}")
+    private int maxDepth;
+
+    private final LinkedHashMap<String, TargetEntry> entries = new LinkedHashMap<String, TargetEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TargetEntry> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    // 所有写入共用的递增序号
+    private long sequence;
+
+    // 最近一次非点赞写入的序号
+    private long lastWrite;
+
+    // 目标 -> 最近一次点赞的序号；淘汰的最大序号记入likeFloor，未记录的目标按likeFloor计，淘汰后版本号只会变大
+    private final LinkedHashMap<String, Long> likeSequences = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            if (size() > capacity) {
+                likeFloor = Math.max(likeFloor, eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private long likeFloor;
+
+    private long hits;
+
+    private long misses;
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 开始从数据库加载评论数前取得的版本号，放入缓存时原样传回；评论数不受点赞影响
+     */
+    public synchronized long stamp() {
+        return lastWrite;
+    }
+
+    /**
+     * 开始从数据库加载目标的评论页前取得的版本号，放入缓存时原样传回
+     */
+    public synchronized long stamp(String targetType, Long targetId) {
+        return pageStamp(key(targetType, targetId));
+    }
+
+    /**
+     * 评论树第一页的副本，未缓存时返回null
+     */
+    public synchronized List<CommentTreeNode> getTree(String targetType, Long targetId) {
+        TargetEntry entry = entries.get(key(targetType, targetId));
+        if (entry == null || entry.tree == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        List<CommentTreeNode> copy = new ArrayList<>();
+        for (CommentTreeNode node : entry.tree) {
+            copy.add(copy(node));
+        }
+        return copy;
+    }
+
+    public synchronized Long getTopTotal(String targetType, Long targetId) {
+        TargetEntry entry = entries.get(key(targetType, targetId));
+        return entry != null ? entry.topTotal : null;
+    }
+
+    public synchronized void putTree(String targetType, Long targetId, List<CommentTreeNode> tree, long topTotal, long stamp) {
+        String key = key(targetType, targetId);
+        if (stamp != pageStamp(key)) {
+            return;
+        }
+        TargetEntry entry = entries.computeIfAbsent(key, k -> new TargetEntry());
+        entry.tree = new ArrayList<>();
+        for (CommentTreeNode node : tree) {
+            entry.tree.add(copy(node));
+        }
+        entry.topTotal = topTotal;
+    }
+
+    /**
+     * 最新评论第一页（不分层级，按时间倒序）的副本，未缓存时返回null
+     */
+    public synchronized List<Comment> getLatest(String targetType, Long targetId) {
+        TargetEntry entry = entries.get(key(targetType, targetId));
+        if (entry == null || entry.latest == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        List<Comment> copy = new ArrayList<>();
+        for (Comment comment : entry.latest) {
+            copy.add(copy(comment));
+        }
+        return copy;
+    }
+
+    public synchronized void putLatest(String targetType, Long targetId, List<Comment> latest, long total, long stamp) {
+        String key = key(targetType, targetId);
+        if (stamp != pageStamp(key)) {
+            return;
+        }
+        TargetEntry entry = entries.computeIfAbsent(key, k -> new TargetEntry());
+        entry.latest = new ArrayList<>();
+        for (Comment comment : latest) {
+            entry.latest.add(copy(comment));
+        }
+        entry.total = total;
+    }
+
+    /**
+     * 目标的评论总数（含回复），未缓存时返回null
+     */
+    public synchronized Long getTotal(String targetType, Long targetId) {
+        TargetEntry entry = entries.get(key(targetType, targetId));
+        if (entry == null || entry.total == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.total;
+    }
+
+    public synchronized void putTotal(String targetType, Long targetId, long total, long stamp) {
+        if (stamp != lastWrite) {
+            return;
+        }
+        entries.computeIfAbsent(key(targetType, targetId), k -> new TargetEntry()).total = total;
+    }
+
+    /**
+     * 新评论或回复已保存（线程信息已写入）
+     */
+    public synchronized void onCreate(Comment comment) {
+        lastWrite = ++sequence;
+        TargetEntry entry = entries.get(key(comment.getTargetType(), comment.getTargetId()));
+        if (entry == null) {
+            return;
+        }
+        if (entry.total != null) {
+            entry.total++;
+        }
+        if (entry.latest != null) {
+            entry.latest.add(0, copy(comment));
+            trim(entry.latest);
+        }
+
+        boolean topLevel = comment.getParentId() == null || comment.getParentId() == 0;
+        if (topLevel) {
+            if (entry.topTotal != null) {
+                entry.topTotal++;
+            }
+            if (entry.tree != null) {
+                CommentTreeNode node = CommentTreeNode.fromEntity(comment);
+                node.setThreadCount(0);
+                entry.tree.add(0, node);
+                trim(entry.tree);
+            }
+            return;
+        }
+        if (entry.tree == null) {
+            return;
+        }
+
+        CommentTreeNode root = comment.getRootId() != null ? find(entry.tree, comment.getRootId()) : null;
+        if (root != null && root.getThreadCount() != null) {
+            root.setThreadCount(root.getThreadCount() + 1);
+        }
+        CommentTreeNode parent = find(entry.tree, comment.getParentId());
+        if (parent == null) {
+            return;
+        }
+        parent.setReplyCount(parent.getReplyCount() + 1);
+        // 与批量加载的规则一致：未超出展开层数、未达到条数上限时直接挂到父评论下
+        int level = parent.getDepth() != null ? parent.getDepth() + 1 : maxDepth + 1;
+        if (level <= maxDepth && !parent.getHasMoreReplies() && parent.getReplies().size() < replyLimit) {
+            parent.getReplies().add(CommentTreeNode.fromEntity(comment));
+        } else {
+            parent.setHasMoreReplies(true);
+            List<CommentTreeNode> replies = parent.getReplies();
+            parent.setNextCursor(replies.isEmpty() ? null : replies.get(replies.size() - 1).getId());
+        }
+    }
+
+    /**
+     * 评论及其子树已删除，deleted为实际删除的行数
+     */
+    public synchronized void onDelete(Comment comment, int deleted) {
+        lastWrite = ++sequence;
+        TargetEntry entry = entries.get(key(comment.getTargetType(), comment.getTargetId()));
+        if (entry == null) {
+            return;
+        }
+        if (entry.total != null) {
+            entry.total = Math.max(0, entry.total - deleted);
+        }
+        if (entry.latest != null && removeSubtree(entry.latest, comment)) {
+            // 页面出现空位，需要从数据库补齐
+            entry.latest = null;
+        }
+
+        boolean topLevel = comment.getParentId() == null || comment.getParentId() == 0;
+        if (topLevel) {
+            if (entry.topTotal != null) {
+                entry.topTotal = Math.max(0, entry.topTotal - 1);
+            }
+            if (entry.tree != null && find(entry.tree, comment.getId()) != null) {
+                entry.tree = null;
+            }
+            return;
+        }
+        if (entry.tree == null) {
+            return;
+        }
+
+        CommentTreeNode root = comment.getRootId() != null ? find(entry.tree, comment.getRootId()) : null;
+        if (root != null && root.getThreadCount() != null) {
+            root.setThreadCount(Math.max(0, root.getThreadCount() - deleted));
+        }
+        CommentTreeNode parent = find(entry.tree, comment.getParentId());
+        if (parent == null) {
+            return;
+        }
+        parent.setReplyCount(Math.max(0, parent.getReplyCount() - 1));
+        Iterator<CommentTreeNode> iterator = parent.getReplies().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getId().equals(comment.getId())) {
+                iterator.remove();
+                if (parent.getHasMoreReplies()) {
+                    // 已加载的回复少了一条，后面的回复需要补进来，交给下次加载
+                    entry.tree = null;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 评论内容已修改
+     */
+    public synchronized void onUpdate(Comment comment) {
+        lastWrite = ++sequence;
+        TargetEntry entry = entries.get(key(comment.getTargetType(), comment.getTargetId()));
+        if (entry == null) {
+            return;
+        }
+        if (entry.latest != null) {
+            for (Comment cached : entry.latest) {
+                if (cached.getId().equals(comment.getId())) {
+                    cached.setContent(comment.getContent());
+                    cached.setUpdateTime(comment.getUpdateTime());
+                }
+            }
+        }
+        CommentTreeNode node = entry.tree != null ? find(entry.tree, comment.getId()) : null;
+        if (node != null) {
+            node.setContent(comment.getContent());
+            node.setUpdateTime(comment.getUpdateTime());
+        }
+    }
+
+    /**
+     * 评论点赞数变化
+     */
+    public synchronized void onLike(Comment comment, int delta) {
+        // 只推进该目标的版本号：加载期间的点赞可能未反映在加载结果中
+        String key = key(comment.getTargetType(), comment.getTargetId());
+        likeSequences.put(key, ++sequence);
+        TargetEntry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        if (entry.latest != null) {
+            for (Comment cached : entry.latest) {
+                if (cached.getId().equals(comment.getId())) {
+                    cached.setLikes(Math.max(0, (cached.getLikes() != null ? cached.getLikes() : 0) + delta));
+                }
+            }
+        }
+        CommentTreeNode node = entry.tree != null ? find(entry.tree, comment.getId()) : null;
+        if (node != null) {
+            node.setLikes(Math.max(0, (node.getLikes() != null ? node.getLikes() : 0) + delta));
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long requests = hits + misses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", requests > 0 ? (double) hits / requests : 0D);
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    private static String key(String targetType, Long targetId) {
+        return targetType + ":" + targetId;
+    }
+
+    /**
+     * 目标评论页的版本号：最近一次非点赞写入与该目标最近一次点赞中较新的序号
+     */
+    private long pageStamp(String key) {
+        Long like = likeSequences.get(key);
+        return Math.max(lastWrite, like != null ? like : likeFloor);
+    }
+
+    private void trim(List<?> page) {
+        while (page.size() > pageSize) {
+            page.remove(page.size() - 1);
+        }
+    }
+
+    private static CommentTreeNode find(List<CommentTreeNode> nodes, Long id) {
+        for (CommentTreeNode node : nodes) {
+            if (node.getId().equals(id)) {
+                return node;
+            }
+            CommentTreeNode found = find(node.getReplies(), id);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从最新评论页中移除被删除的评论及其回复，返回是否有移除
+     */
+    private static boolean removeSubtree(List<Comment> latest, Comment deleted) {
+        boolean removed = false;
+        Iterator<Comment> iterator = latest.iterator();
+        while (iterator.hasNext()) {
+            Comment cached = iterator.next();
+            boolean inSubtree = deleted.getPath() != null && cached.getPath() != null
+                    ? cached.getPath().startsWith(deleted.getPath())
+                    : cached.getId().equals(deleted.getId()) || deleted.getId().equals(cached.getParentId());
+            if (inSubtree) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private static CommentTreeNode copy(CommentTreeNode node) {
+        CommentTreeNode copy = new CommentTreeNode();
+        copy.setId(node.getId());
+        copy.setTargetType(node.getTargetType());
+        copy.setTargetId(node.getTargetId());
+        copy.setUserId(node.getUserId());
+        copy.setUsername(node.getUsername());
+        copy.setAvatar(node.getAvatar());
+        copy.setContent(node.getContent());
+        copy.setLikes(node.getLikes());
+        copy.setParentId(node.getParentId());
+        copy.setReplyTo(node.getReplyTo());
+        copy.setRootId(node.getRootId());
+        copy.setDepth(node.getDepth());
+        copy.setCreateTime(node.getCreateTime());
+        copy.setUpdateTime(node.getUpdateTime());
+        copy.setReplyCount(node.getReplyCount());
+        copy.setThreadCount(node.getThreadCount());
+        copy.setHasMoreReplies(node.getHasMoreReplies());
+        copy.setNextCursor(node.getNextCursor());
+        for (CommentTreeNode reply : node.getReplies()) {
+            copy.getReplies().add(copy(reply));
+        }
+        return copy;
+    }
+
+    private static Comment copy(Comment comment) {
+        Comment copy = new Comment();
+        copy.setId(comment.getId());
+        copy.setTargetType(comment.getTargetType());
+        copy.setTargetId(comment.getTargetId());
+        copy.setUserId(comment.getUserId());
+        copy.setUsername(comment.getUsername());
+        copy.setAvatar(comment.getAvatar());
+        copy.setContent(comment.getContent());
+        copy.setLikes(comment.getLikes());
+        copy.setParentId(comment.getParentId());
+        copy.setReplyTo(comment.getReplyTo());
+        copy.setRootId(comment.getRootId());
+        copy.setDepth(comment.getDepth());
+        copy.setPath(comment.getPath());
+        copy.setCreateTime(comment.getCreateTime());
+        copy.setUpdateTime(comment.getUpdateTime());
+        copy.setDeleted(comment.getDeleted());
+        return copy;
+    }
+
+    private static class TargetEntry {
+
+        // 评论总数（含回复）
+        private Long total;
+
+        // 顶级评论数，即评论树的分页总数
+        private Long topTotal;
+
+        private List<CommentTreeNode> tree;
+
+        private List<Comment> latest;
+    }
+}
@@ -0,0 +1,117 @@
+package com.homedesign.cache;
+
+import com.homedesign.event.ArticleChangeEvent;
+import com.homedesign.event.CaseChangeEvent;
+import com.homedesign.event.DesignerChangeEvent;
+import com.homedesign.search.SearchEntityType;
+import com.homedesign.search.SearchTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 搜索结果缓存
+ * 每种实体类型一个W-TinyLFU缓存，键为归一化后的查询条件；
+ * 某类实体变更时只清空该类型的缓存，例如发布案例只影响案例搜索结果
+ */
+@Component
+public class SearchResultCache {
+
+    private static final char SEPARATOR = '\u0001';
+
+    @Value("${search.cache.capacity:2000}")
+    private int capacity;
+
+    @Value("${search.cache.expire-after-write:60000}")
+    private long expireAfterWrite;
+
+    private final Map<SearchEntityType, WTinyLfuCache<String, Object>> caches = new EnumMap<>(SearchEntityType.class);
+
+    // 每次失效递增，加载期间发生失效的结果不再写入缓存
+    private final Map<SearchEntityType, AtomicLong> generations = new EnumMap<>(SearchEntityType.class);
+
+    private final Map<SearchEntityType, AtomicLong> invalidations = new EnumMap<>(SearchEntityType.class);
+
+    @PostConstruct
+    public void init() {
+        for (SearchEntityType type : SearchEntityType.values()) {
+            caches.put(type, new WTinyLfuCache<>(capacity, expireAfterWrite));
+            generations.put(type, new AtomicLong());
+            invalidations.put(type, new AtomicLong());
+        }
+    }
+
+    /**
+     * 归一化查询键：关键词去首尾空白、合并连续空白、全角转半角并统一小写，其余条件原样拼接
+     */
+    public static String key(String keyword, Object... conditions) {
+        StringBuilder sb = new StringBuilder(SearchTokenizer.normalize(keyword).trim().replaceAll("\\s+", " "));
+        for (Object condition : conditions) {
+            sb.append(SEPARATOR).append(condition != null ? condition : "");
+        }
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(SearchEntityType type, String key, Supplier<T> loader) {
+        WTinyLfuCache<String, Object> cache = caches.get(type);
+        Object cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        long generation = generations.get(type).get();
+        T value = loader.get();
+        if (value != null && generations.get(type).get() == generation) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    public void invalidate(SearchEntityType type) {
+        generations.get(type).incrementAndGet();
+        invalidations.get(type).incrementAndGet();
+        caches.get(type).invalidateAll();
+    }
+
+    public void invalidateAll() {
+        for (SearchEntityType type : SearchEntityType.values()) {
+            invalidate(type);
+        }
+    }
+
+    @EventListener
+    public void onCaseChange(CaseChangeEvent event) {
+        invalidate(SearchEntityType.CASE);
+    }
+
+    @EventListener
+    public void onDesignerChange(DesignerChangeEvent event) {
+        invalidate(SearchEntityType.DESIGNER);
+    }
+
+    @EventListener
+    public void onArticleChange(ArticleChangeEvent event) {
+        invalidate(SearchEntityType.ARTICLE);
+    }
+
+    /**
+     * 各类型缓存的命中率、驱逐和失效统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (SearchEntityType type : SearchEntityType.values()) {
+            Map<String, Object> typeStats = caches.get(type).stats();
+            typeStats.put("invalidations", invalidations.get(type).get());
+            stats.put(type.name().toLowerCase(), typeStats);
+        }
+        return stats;
+    }
+}
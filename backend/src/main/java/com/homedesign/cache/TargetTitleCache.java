@@ -0,0 +1,166 @@
+package com.homedesign.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.homedesign.counter.CounterTarget;
+import com.homedesign.entity.Article;
+import com.homedesign.entity.Case;
+import com.homedesign.entity.Designer;
+import com.homedesign.event.ArticleChangeEvent;
+import com.homedesign.event.CaseChangeEvent;
+import com.homedesign.event.DesignerChangeEvent;
+import com.homedesign.mapper.ArticleMapper;
+import com.homedesign.mapper.CaseMapper;
+import com.homedesign.mapper.DesignerMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 评论目标标题缓存
+ * 一页评论的目标按类型分组，未命中的每种类型只发一条 SELECT id, title 投影查询；
+ * 标题带过期时间，对应实体变更时按ID失效，查不到的目标缓存占位标题，避免反复查询
+ */
+@Component
+public class TargetTitleCache {
+
+    @Autowired
+    private CaseMapper caseMapper;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private DesignerMapper designerMapper;
+
+    @Value("${comment.title-cache.capacity:5000}")
+    private int capacity;
+
+    @Value("${comment.title-cache.expire-after-write:300000}")
+    private long expireAfterWrite;
+
+    private WTinyLfuCache<String, String> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new WTinyLfuCache<>(capacity, expireAfterWrite);
+    }
+
+    public String getTitle(String targetType, Long targetId) {
+        return getTitles(targetType, Collections.singletonList(targetId)).get(targetId);
+    }
+
+    /**
+     * 批量获取同一类型目标的标题，返回 targetId -> 标题
+     */
+    public Map<Long, String> getTitles(String targetType, Collection<Long> targetIds) {
+        Map<Long, String> titles = new HashMap<>();
+        CounterTarget target = CounterTarget.fromCode(targetType);
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : targetIds) {
+            if (id == null) {
+                continue;
+            }
+            String title = target != null ? cache.get(key(target, id)) : null;
+            if (title != null) {
+                titles.put(id, title);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return titles;
+        }
+
+        Map<Long, String> loaded = load(target, missing);
+        for (Long id : missing) {
+            String title = loaded != null ? loaded.get(id) : null;
+            if (title == null) {
+                title = placeholder(target);
+            }
+            titles.put(id, title);
+            // 查询失败时不缓存占位标题
+            if (target != null && loaded != null) {
+                cache.put(key(target, id), title);
+            }
+        }
+        return titles;
+    }
+
+    @EventListener
+    public void onCaseChange(CaseChangeEvent event) {
+        cache.invalidate(key(CounterTarget.CASE, event.getEntityId()));
+    }
+
+    @EventListener
+    public void onArticleChange(ArticleChangeEvent event) {
+        cache.invalidate(key(CounterTarget.ARTICLE, event.getEntityId()));
+    }
+
+    @EventListener
+    public void onDesignerChange(DesignerChangeEvent event) {
+        cache.invalidate(key(CounterTarget.DESIGNER, event.getEntityId()));
+    }
+
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+
+    // 私有辅助方法
+
+    private Map<Long, String> load(CounterTarget target, Collection<Long> ids) {
+        Map<Long, String> titles = new HashMap<>();
+        if (target == null) {
+            return titles;
+        }
+        try {
+            switch (target) {
+                case CASE:
+                    for (Case row : caseMapper.selectList(new QueryWrapper<Case>().select("id", "title").in("id", ids))) {
+                        titles.put(row.getId(), row.getTitle());
+                    }
+                    break;
+                case ARTICLE:
+                    for (Article row : articleMapper.selectList(new QueryWrapper<Article>().select("id", "title").in("id", ids))) {
+                        titles.put(row.getId(), row.getTitle());
+                    }
+                    break;
+                case DESIGNER:
+                    // 设计师的title列是职称，展示用姓名
+                    for (Designer row : designerMapper.selectList(new QueryWrapper<Designer>().select("id", "name").in("id", ids))) {
+                        titles.put(row.getId(), row.getName());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception e) {
+            System.out.println("查询评论目标标题失败: " + e.getMessage());
+            return null;
+        }
+        return titles;
+    }
+
+    private static String placeholder(CounterTarget target) {
+        if (target == CounterTarget.CASE) {
+            return "设计案例";
+        } else if (target == CounterTarget.ARTICLE) {
+            return "文章";
+        } else if (target == CounterTarget.DESIGNER) {
+            return "设计师";
+        }
+        return "未知对象";
+    }
+
+    private static String key(CounterTarget target, Long id) {
+        return target.getCode() + ":" + id;
+    }
+}
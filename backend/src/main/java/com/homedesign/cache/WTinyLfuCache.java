@@ -0,0 +1,209 @@
+package com.homedesign.cache;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 有界W-TinyLFU缓存
+ * 新条目先进入约占1%容量的窗口LRU；被挤出窗口时，与主区（SLRU：试用段 + 保护段）试用段最久未用的条目比较近期访问频率，
+ * 频率更高者留下。这样偶发的一次性查询进不了主区，反复出现的热门查询能长期驻留。
+ * 条目写入后超过expireAfterWrite毫秒视为过期。所有操作在同一把锁内完成
+ */
+public class WTinyLfuCache<K, V> {
+
+    private static final double WINDOW_RATIO = 0.01;
+
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final int windowMax;
+
+    private final int mainMax;
+
+    private final int protectedMax;
+
+    private final long expireAfterWrite;
+
+    private final FrequencySketch sketch;
+
+    // 按访问顺序排列，头部为最久未使用
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>();
+
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>();
+
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>();
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private long rejections;
+
+    public WTinyLfuCache(int capacity, long expireAfterWrite) {
+        int maximum = Math.max(capacity, 2);
+        this.windowMax = Math.max(1, (int) (maximum * WINDOW_RATIO));
+        this.mainMax = maximum - windowMax;
+        this.protectedMax = Math.max(1, (int) (mainMax * PROTECTED_RATIO));
+        this.expireAfterWrite = expireAfterWrite;
+        this.sketch = new FrequencySketch(maximum);
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key);
+
+        Entry<V> entry = window.remove(key);
+        if (entry != null) {
+            return hit(key, entry, window);
+        }
+        entry = protectedSegment.remove(key);
+        if (entry != null) {
+            return hit(key, entry, protectedSegment);
+        }
+        entry = probation.remove(key);
+        if (entry != null) {
+            if (isExpired(entry)) {
+                misses++;
+                return null;
+            }
+            // 试用段再次命中，晋升到保护段
+            hits++;
+            protectedSegment.put(key, entry);
+            demoteProtected();
+            return entry.value;
+        }
+
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.currentTimeMillis());
+        if (window.containsKey(key)) {
+            window.remove(key);
+            window.put(key, entry);
+            return;
+        }
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.remove(key);
+            protectedSegment.put(key, entry);
+            return;
+        }
+        if (probation.containsKey(key)) {
+            probation.remove(key);
+            probation.put(key, entry);
+            return;
+        }
+
+        window.put(key, entry);
+        if (window.size() > windowMax) {
+            admitFromWindow();
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * 命中率、驱逐次数等统计
+     */
+    public synchronized Map<String, Object> stats() {
+        long requests = hits + misses;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", requests > 0 ? (double) hits / requests : 0D);
+        stats.put("evictions", evictions);
+        stats.put("admissionRejections", rejections);
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    private V hit(K key, Entry<V> entry, LinkedHashMap<K, Entry<V>> segment) {
+        if (isExpired(entry)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        segment.put(key, entry);
+        return entry.value;
+    }
+
+    private void admitFromWindow() {
+        Map.Entry<K, Entry<V>> candidate = removeEldest(window);
+        if (probation.size() + protectedSegment.size() < mainMax) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+
+        Map.Entry<K, Entry<V>> victim = eldest(probation);
+        if (victim == null) {
+            // 主区全部是保护段，先降级一个再比较
+            Map.Entry<K, Entry<V>> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+            victim = eldest(probation);
+        }
+
+        evictions++;
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            probation.remove(victim.getKey());
+            probation.put(candidate.getKey(), candidate.getValue());
+        } else {
+            rejections++;
+        }
+    }
+
+    private void demoteProtected() {
+        while (protectedSegment.size() > protectedMax) {
+            Map.Entry<K, Entry<V>> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return expireAfterWrite > 0 && System.currentTimeMillis() - entry.writeTime > expireAfterWrite;
+    }
+
+    private static <K, E> Map.Entry<K, E> eldest(LinkedHashMap<K, E> segment) {
+        Iterator<Map.Entry<K, E>> iterator = segment.entrySet().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static <K, E> Map.Entry<K, E> removeEldest(LinkedHashMap<K, E> segment) {
+        Iterator<Map.Entry<K, E>> iterator = segment.entrySet().iterator();
+        Map.Entry<K, E> eldest = iterator.next();
+        Map.Entry<K, E> copy = new AbstractMap.SimpleImmutableEntry<>(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return copy;
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private final long writeTime;
+
+        Entry(V value, long writeTime) {
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+}
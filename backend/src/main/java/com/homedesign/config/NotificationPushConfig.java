@@ -0,0 +1,33 @@
+package com.homedesign.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class NotificationPushConfig {
+
+    @Value("${notification.push.pool-size:4}")
+    private int poolSize;
+
+    @Value("${notification.push.queue-capacity:1000}")
+    private int queueCapacity;
+
+    /**
+     * 通知推送发送消息的专用线程池
+     */
+    @Bean(name = "pushExecutor")
+    public ThreadPoolTaskExecutor pushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("push-");
+        // 队列满时直接拒绝，消息留在连接缓冲区稍后发送，不占用写通知的线程
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,10 @@
+package com.homedesign.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // 定时任务线程池大小见 spring.task.scheduling.pool.size
+}
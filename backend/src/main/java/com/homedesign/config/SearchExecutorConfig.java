@@ -0,0 +1,33 @@
+package com.homedesign.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class SearchExecutorConfig {
+
+    @Value("${search.fanout.pool-size:8}")
+    private int poolSize;
+
+    @Value("${search.fanout.queue-capacity:200}")
+    private int queueCapacity;
+
+    /**
+     * 综合搜索并行执行各子查询的专用线程池
+     */
+    @Bean(name = "searchExecutor")
+    public ThreadPoolTaskExecutor searchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("search-");
+        // 队列满时直接拒绝，由SearchFanout把该分支降级，避免在请求线程上串行执行绕过超时
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
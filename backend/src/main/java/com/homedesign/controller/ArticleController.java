@@ -4,12 +4,17 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.homedesign.common.Result;
+import com.homedesign.counter.CounterEngine;
 import com.homedesign.entity.Article;
+import com.homedesign.event.ArticleChangeEvent;
 import com.homedesign.service.ArticleService;
+import com.homedesign.util.RequestUtil;
 import com.homedesign.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 @RestController
@@ -20,6 +25,12 @@ public class ArticleController {
     @Autowired
     private ArticleService articleService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CounterEngine counterEngine;
+
     @GetMapping
     public Result<IPage<Article>> getArticles(
             @RequestParam(defaultValue = "1") Integer page,
@@ -56,35 +67,55 @@ public class ArticleController {
         queryWrapper.eq("status", "APPROVED");
         
         IPage<Article> result = articleService.page(pageInfo, queryWrapper);
+        result.getRecords().forEach(counterEngine::overlay);
         return Result.success(result);
     }
 
     @GetMapping("/{id}")
-    public Result<Article> getArticleById(@PathVariable Long id) {
+    public Result<Article> getArticleById(@PathVariable Long id, HttpServletRequest request) {
         Article article = articleService.getById(id);
         if (article == null) {
             return Result.error("文章不存在");
         }
         
         // 增加浏览量
-        article.setViews(article.getViews() + 1);
-        articleService.updateById(article);
+        articleService.increaseViews(id, RequestUtil.getVisitorKey(request));
         
-        return Result.success(article);
+        return Result.success(counterEngine.overlay(article));
     }
 
     @PostMapping("/{id}/like")
     public Result<String> likeArticle(@PathVariable Long id) {
-        Article article = articleService.getById(id);
-        if (article == null) {
-            return Result.error("文章不存在");
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId == null) {
+            return Result.error("请先登录");
         }
         
-        // 增加点赞数
-        article.setLikes(article.getLikes() + 1);
-        articleService.updateById(article);
+        try {
+            if (!articleService.likeArticle(id, userId)) {
+                return Result.error("已经点过赞了");
+            }
+            return Result.success("点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/like")
+    public Result<String> unlikeArticle(@PathVariable Long id) {
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId == null) {
+            return Result.error("请先登录");
+        }
         
-        return Result.success("点赞成功");
+        try {
+            if (!articleService.unlikeArticle(id, userId)) {
+                return Result.error("尚未点赞");
+            }
+            return Result.success("取消点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
     }
 
     @PostMapping
@@ -97,6 +128,7 @@ public class ArticleController {
         
         boolean success = articleService.save(article);
         if (success) {
+            eventPublisher.publishEvent(ArticleChangeEvent.saved(article.getId()));
             return Result.success("文章创建成功");
         } else {
             return Result.error("文章创建失败");
@@ -117,6 +149,7 @@ public class ArticleController {
         article.setId(id);
         boolean success = articleService.updateById(article);
         if (success) {
+            eventPublisher.publishEvent(ArticleChangeEvent.saved(id));
             return Result.success("文章更新成功");
         } else {
             return Result.error("文章更新失败");
@@ -136,6 +169,7 @@ public class ArticleController {
         
         boolean success = articleService.removeById(id);
         if (success) {
+            eventPublisher.publishEvent(ArticleChangeEvent.deleted(id));
             return Result.success("文章删除成功");
         } else {
             return Result.error("文章删除失败");
@@ -152,6 +186,7 @@ public class ArticleController {
         existingArticle.setStatus("APPROVED");
         boolean success = articleService.updateById(existingArticle);
         if (success) {
+            eventPublisher.publishEvent(ArticleChangeEvent.saved(id));
             return Result.success("文章发布成功");
         } else {
             return Result.error("文章发布失败");
@@ -4,11 +4,17 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.homedesign.common.Result;
+import com.homedesign.counter.CounterEngine;
 import com.homedesign.entity.Case;
+import com.homedesign.event.CaseChangeEvent;
 import com.homedesign.service.CaseService;
+import com.homedesign.util.RequestUtil;
+import com.homedesign.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 @RestController
@@ -19,6 +25,12 @@ public class CaseController {
     @Autowired
     private CaseService caseService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CounterEngine counterEngine;
+
     @GetMapping
     public Result<IPage<Case>> getCases(
             @RequestParam(defaultValue = "1") Integer page,
@@ -70,35 +82,55 @@ public class CaseController {
         queryWrapper.eq("status", "APPROVED");
         
         IPage<Case> result = caseService.page(pageInfo, queryWrapper);
+        result.getRecords().forEach(counterEngine::overlay);
         return Result.success(result);
     }
 
     @GetMapping("/{id}")
-    public Result<Case> getCaseById(@PathVariable Long id) {
+    public Result<Case> getCaseById(@PathVariable Long id, HttpServletRequest request) {
         Case designCase = caseService.getById(id);
         if (designCase == null) {
             return Result.error("案例不存在");
         }
         
         // 增加浏览量
-        designCase.setViews(designCase.getViews() + 1);
-        caseService.updateById(designCase);
+        caseService.increaseViews(id, RequestUtil.getVisitorKey(request));
         
-        return Result.success(designCase);
+        return Result.success(counterEngine.overlay(designCase));
     }
 
     @PostMapping("/{id}/like")
     public Result<String> likeCase(@PathVariable Long id) {
-        Case designCase = caseService.getById(id);
-        if (designCase == null) {
-            return Result.error("案例不存在");
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId == null) {
+            return Result.error("请先登录");
         }
         
-        // 增加点赞数
-        designCase.setLikes(designCase.getLikes() + 1);
-        caseService.updateById(designCase);
+        try {
+            if (!caseService.likeCase(id, userId)) {
+                return Result.error("已经点过赞了");
+            }
+            return Result.success("点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/like")
+    public Result<String> unlikeCase(@PathVariable Long id) {
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId == null) {
+            return Result.error("请先登录");
+        }
         
-        return Result.success("点赞成功");
+        try {
+            if (!caseService.unlikeCase(id, userId)) {
+                return Result.error("尚未点赞");
+            }
+            return Result.success("取消点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
     }
 
     @GetMapping("/my")
@@ -128,6 +160,7 @@ public class CaseController {
         
         boolean success = caseService.save(designCase);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(designCase.getId()));
             return Result.success("案例创建成功");
         } else {
             return Result.error("案例创建失败");
@@ -148,6 +181,7 @@ public class CaseController {
         designCase.setId(id);
         boolean success = caseService.updateById(designCase);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(id));
             return Result.success("案例更新成功");
         } else {
             return Result.error("案例更新失败");
@@ -167,6 +201,7 @@ public class CaseController {
         
         boolean success = caseService.removeById(id);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.deleted(id));
             return Result.success("案例删除成功");
         } else {
             return Result.error("案例删除失败");
@@ -183,6 +218,7 @@ public class CaseController {
         existingCase.setStatus("APPROVED");
         boolean success = caseService.updateById(existingCase);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(id));
             return Result.success("案例审核通过成功");
         } else {
             return Result.error("案例审核通过失败");
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.homedesign.common.Result;
 import com.homedesign.dto.CommentDTO;
+import com.homedesign.dto.CommentTreeNode;
 import com.homedesign.entity.Comment;
 import com.homedesign.service.CommentService;
 import com.homedesign.service.UserService;
@@ -60,13 +61,7 @@ public class CommentController {
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size) {
         
-        Page<Comment> pageInfo = new Page<>(page, size);
-        QueryWrapper<Comment> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("target_type", "case")
-                   .eq("target_id", caseId)
-                   .orderByDesc("create_time");
-        
-        IPage<Comment> result = commentService.page(pageInfo, queryWrapper);
+        IPage<Comment> result = commentService.getLatestComments("case", caseId, page, size);
         return Result.success(result);
     }
 
@@ -76,16 +71,16 @@ public class CommentController {
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size) {
         
-        Page<Comment> pageInfo = new Page<>(page, size);
-        QueryWrapper<Comment> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("target_type", "article")
-                   .eq("target_id", articleId)
-                   .orderByDesc("create_time");
-        
-        IPage<Comment> result = commentService.page(pageInfo, queryWrapper);
+        IPage<Comment> result = commentService.getLatestComments("article", articleId, page, size);
         return Result.success(result);
     }
 
+    // 批量获取评论数（案例、文章卡片使用）
+    @GetMapping("/counts")
+    public Result<Map<Long, Long>> getCommentCounts(@RequestParam String targetType, @RequestParam java.util.List<Long> targetIds) {
+        return Result.success(commentService.getCommentCounts(targetType, targetIds));
+    }
+
     // 获取评论树（支持多级评论）
     @GetMapping("/tree")
     public Result<Map<String, Object>> getCommentTree(
@@ -128,8 +123,12 @@ public class CommentController {
         
         System.out.println("处理后的Comment对象: " + comment);
         
-        Comment createdComment = commentService.createComment(comment);
-        return Result.success(createdComment);
+        try {
+            Comment createdComment = commentService.createComment(comment);
+            return Result.success(createdComment);
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
     }
 
     // 回复评论
@@ -158,8 +157,12 @@ public class CommentController {
         reply.setReplyTo(parentComment.getUsername());
         reply.setContent(content);
         
-        Comment createdReply = commentService.createComment(reply);
-        return Result.success(createdReply);
+        try {
+            Comment createdReply = commentService.createComment(reply);
+            return Result.success(createdReply);
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
     }
 
     // 点赞评论
@@ -168,17 +171,58 @@ public class CommentController {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         Long userId = userService.findByUsername(username).getId();
         
-        commentService.likeComment(id, userId);
-        return Result.success("点赞成功");
+        try {
+            if (!commentService.likeComment(id, userId)) {
+                return Result.error("已经点过赞了");
+            }
+            return Result.success("点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    // 取消点赞评论
+    @DeleteMapping("/{id}/like")
+    public Result<String> unlikeComment(@PathVariable Long id) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long userId = userService.findByUsername(username).getId();
+        
+        try {
+            if (!commentService.unlikeComment(id, userId)) {
+                return Result.error("尚未点赞");
+            }
+            return Result.success("取消点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
     }
 
-    // 获取子评论
+    // 获取子评论，传size时按游标分页（从id大于cursor的回复开始）
     @GetMapping("/{parentId}/replies")
-    public Result<java.util.List<Comment>> getChildComments(@PathVariable Long parentId) {
+    public Result<?> getChildComments(
+            @PathVariable Long parentId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        if (size != null) {
+            return Result.success(commentService.getChildComments(parentId, cursor, size));
+        }
         java.util.List<Comment> replies = commentService.getChildComments(parentId);
         return Result.success(replies);
     }
 
+    // 获取整棵回复子树（先序，带层级），用cursor继续加载
+    @GetMapping("/{id}/thread")
+    public Result<java.util.List<CommentTreeNode>> getThread(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        try {
+            return Result.success(commentService.getThread(id, cursor, size));
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
     // 删除评论（级联删除子评论）
     @DeleteMapping("/{id}/delete")
     public Result<String> deleteComment(@PathVariable Long id) {
@@ -186,8 +230,8 @@ public class CommentController {
         Long userId = userService.findByUsername(username).getId();
         
         try {
-            commentService.deleteComment(id, userId);
-            return Result.success("删除成功");
+            int deleted = commentService.deleteComment(id, userId);
+            return Result.success("删除成功，共删除" + deleted + "条评论");
         } catch (RuntimeException e) {
             return Result.error(e.getMessage());
         }
@@ -276,8 +320,8 @@ public class CommentController {
     @DeleteMapping("/{id}")
     public Result<String> deleteCommentById(@PathVariable Long id) {
         try {
-            commentService.deleteCommentById(id);
-            return Result.success("删除成功");
+            int deleted = commentService.deleteCommentById(id);
+            return Result.success("删除成功，共删除" + deleted + "条评论");
         } catch (RuntimeException e) {
             return Result.error(e.getMessage());
         }
@@ -4,13 +4,21 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.homedesign.common.Result;
+import com.homedesign.counter.CounterEngine;
+import com.homedesign.counter.CounterTarget;
 import com.homedesign.entity.Designer;
+import com.homedesign.event.DesignerChangeEvent;
+import com.homedesign.event.ViewEvent;
 import com.homedesign.service.DesignerService;
+import com.homedesign.util.RequestUtil;
 import com.homedesign.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/designers")
@@ -20,6 +28,12 @@ public class DesignerController {
     @Autowired
     private DesignerService designerService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CounterEngine counterEngine;
+
     @GetMapping
     public Result<IPage<Designer>> getDesigners(
             @RequestParam(defaultValue = "1") Integer page,
@@ -57,35 +71,55 @@ public class DesignerController {
         }
         
         IPage<Designer> result = designerService.page(pageInfo, queryWrapper);
+        result.getRecords().forEach(counterEngine::overlay);
         return Result.success(result);
     }
 
     @GetMapping("/{id}")
-    public Result<Designer> getDesignerById(@PathVariable Long id) {
-        Designer designer = designerService.getById(id);
+    public Result<Designer> getDesignerById(@PathVariable Long id, HttpServletRequest request) {
+        Designer designer = designerService.getDesignerDetail(id);
         if (designer == null) {
             return Result.error("设计师不存在");
         }
         
-        // 移除views字段相关逻辑，因为数据库表中没有views字段
-        // designer.setViews(designer.getViews() + 1);
-        // designerService.updateById(designer);
+        // 数据库表中没有views字段，只记录独立访客
+        eventPublisher.publishEvent(new ViewEvent(CounterTarget.DESIGNER, id, RequestUtil.getVisitorKey(request)));
         
         return Result.success(designer);
     }
 
     @PostMapping("/{id}/like")
     public Result<String> likeDesigner(@PathVariable Long id) {
-        Designer designer = designerService.getById(id);
-        if (designer == null) {
-            return Result.error("设计师不存在");
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId == null) {
+            return Result.error("请先登录");
         }
         
-        // 增加点赞数
-        designer.setLikes(designer.getLikes() + 1);
-        designerService.updateById(designer);
+        try {
+            if (!designerService.likeDesigner(id, userId)) {
+                return Result.error("已经点过赞了");
+            }
+            return Result.success("点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/like")
+    public Result<String> unlikeDesigner(@PathVariable Long id) {
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId == null) {
+            return Result.error("请先登录");
+        }
         
-        return Result.success("点赞成功");
+        try {
+            if (!designerService.unlikeDesigner(id, userId)) {
+                return Result.error("尚未点赞");
+            }
+            return Result.success("取消点赞成功");
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
     }
 
     @PostMapping
@@ -97,6 +131,7 @@ public class DesignerController {
         
         boolean success = designerService.save(designer);
         if (success) {
+            eventPublisher.publishEvent(DesignerChangeEvent.saved(designer.getId()));
             return Result.success("设计师信息创建成功");
         } else {
             return Result.error("设计师信息创建失败");
@@ -155,6 +190,7 @@ public class DesignerController {
         boolean success = designerService.updateById(designer);
         
         if (success) {
+            eventPublisher.publishEvent(DesignerChangeEvent.saved(designer.getId()));
             return Result.success("个人信息更新成功");
         } else {
             return Result.error("个人信息更新失败");
@@ -170,4 +206,13 @@ public class DesignerController {
         List<Designer> designers = designerService.list(queryWrapper);
         return Result.success(designers);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/stats")
+    public Result<Map<String, Object>> getDesignerStats(@PathVariable Long id) {
+        Map<String, Object> stats = designerService.getDesignerStats(id);
+        if (stats.isEmpty()) {
+            return Result.error("设计师不存在");
+        }
+        return Result.success(stats);
+    }
+}
@@ -6,10 +6,12 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.homedesign.common.Result;
 import com.homedesign.entity.Case;
 import com.homedesign.entity.Appointment;
+import com.homedesign.event.CaseChangeEvent;
 import com.homedesign.service.CaseService;
 import com.homedesign.service.AppointmentService;
 import com.homedesign.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -30,6 +32,9 @@ public class DesignerDashboardController {
     @Autowired
     private com.homedesign.service.DesignerService designerService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping("/stats")
     public Result<Map<String, Object>> getStats() {
         // 从SecurityContext获取当前用户ID
@@ -113,6 +118,7 @@ public class DesignerDashboardController {
         
         boolean success = caseService.save(designCase);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(designCase.getId()));
             return Result.success("案例创建成功");
         } else {
             return Result.error("案例创建失败");
@@ -139,6 +145,7 @@ public class DesignerDashboardController {
         
         boolean success = caseService.updateById(designCase);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(id));
             return Result.success("案例更新成功");
         } else {
             return Result.error("案例更新失败");
@@ -158,6 +165,7 @@ public class DesignerDashboardController {
         
         boolean success = caseService.removeById(id);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.deleted(id));
             return Result.success("案例删除成功");
         } else {
             return Result.error("案例删除失败");
@@ -174,6 +182,7 @@ public class DesignerDashboardController {
         existingCase.setStatus("APPROVED");
         boolean success = caseService.updateById(existingCase);
         if (success) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(id));
             return Result.success("案例发布成功");
         } else {
             return Result.error("案例发布失败");
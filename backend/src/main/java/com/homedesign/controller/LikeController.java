@@ -0,0 +1,49 @@
+package com.homedesign.controller;
+
+import com.homedesign.common.Result;
+import com.homedesign.counter.CounterTarget;
+import com.homedesign.counter.LikeStore;
+import com.homedesign.util.SecurityUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/likes")
+@CrossOrigin(origins = "*")
+public class LikeController {
+
+    @Autowired
+    private LikeStore likeStore;
+
+    @GetMapping("/check")
+    public Result<Map<String, Object>> checkLike(@RequestParam String targetType, @RequestParam Long targetId) {
+        CounterTarget target = CounterTarget.fromCode(targetType);
+        if (target == null) {
+            return Result.error("不支持的点赞类型");
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("isLiked", likeStore.hasLiked(target, targetId, SecurityUtil.getCurrentUserId()));
+        return Result.success(result);
+    }
+
+    /**
+     * 批量检查列表页中哪些目标已点赞，未登录时返回空列表
+     */
+    @GetMapping("/batch-check")
+    public Result<Map<String, Object>> batchCheckLikes(@RequestParam String targetType, @RequestParam List<Long> targetIds) {
+        CounterTarget target = CounterTarget.fromCode(targetType);
+        if (target == null) {
+            return Result.error("不支持的点赞类型");
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("likedIds", new ArrayList<>(likeStore.likedAmong(target, targetIds, SecurityUtil.getCurrentUserId())));
+        return Result.success(result);
+    }
+}
@@ -3,11 +3,18 @@ package com.homedesign.controller;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.homedesign.common.Result;
 import com.homedesign.entity.Notification;
+import com.homedesign.entity.User;
+import com.homedesign.notification.BroadcastDelivery;
+import com.homedesign.notification.NotificationPushHub;
 import com.homedesign.service.NotificationService;
 import com.homedesign.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -23,6 +30,12 @@ public class NotificationController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private NotificationPushHub pushHub;
+
+    @Autowired
+    private BroadcastDelivery broadcastDelivery;
+
     // 基础通知操作
 
     @GetMapping
@@ -47,6 +60,23 @@ public class NotificationController {
         return Result.success(count);
     }
 
+    /**
+     * 订阅通知推送（SSE），连接后先推送一次当前未读数，之后有新通知或未读数变化时推送
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.findByUsername(username);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = user.getId();
+        SseEmitter emitter = pushHub.connect(userId);
+        pushHub.push(userId, "unread-count", null, () -> notificationService.getUnreadCount(userId));
+        return ResponseEntity.ok(emitter);
+    }
+
     @PutMapping("/{id}/read")
     public Result<String> markAsRead(@PathVariable Long id) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -228,6 +258,16 @@ public class NotificationController {
         }
     }
 
+    @GetMapping("/admin/push-stats")
+    public Result<Map<String, Object>> getPushStats() {
+        return Result.success(pushHub.stats());
+    }
+
+    @GetMapping("/admin/broadcast-stats")
+    public Result<Map<String, Object>> getBroadcastStats() {
+        return Result.success(broadcastDelivery.stats());
+    }
+
     @GetMapping("/admin/stats")
     public Result<Map<String, Object>> getAdminNotificationStats() {
         // 管理员可以查看全局通知统计
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.homedesign.common.Result;
 import com.homedesign.entity.Case;
 import com.homedesign.entity.Article;
+import com.homedesign.moderation.SensitiveWordFilter;
 import com.homedesign.service.ReviewService;
 import com.homedesign.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class ReviewController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SensitiveWordFilter sensitiveWordFilter;
+
     // 案例审核相关
 
     @GetMapping("/cases/pending")
@@ -243,6 +247,28 @@ public class ReviewController {
         return Result.success(stats);
     }
 
+    // 敏感词库
+
+    @GetMapping("/sensitive-words/stats")
+    public Result<Map<String, Object>> getSensitiveWordStats() {
+        return Result.success(sensitiveWordFilter.stats());
+    }
+
+    @PostMapping("/sensitive-words/reload")
+    public Result<String> reloadSensitiveWords() {
+        int words = sensitiveWordFilter.reload();
+        return Result.success("敏感词库已重新加载，共" + words + "个词条");
+    }
+
+    @PostMapping("/sensitive-words/check")
+    public Result<Map<String, Object>> checkSensitiveWords(@RequestBody Map<String, String> params) {
+        String text = params.get("text");
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("words", sensitiveWordFilter.findWords(text));
+        result.put("masked", sensitiveWordFilter.mask(text));
+        return Result.success(result);
+    }
+
     // 通知测试
     @PostMapping("/test-notification")
     public Result<String> testNotification(@RequestBody Map<String, Object> params) {
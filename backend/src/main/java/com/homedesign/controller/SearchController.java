@@ -1,14 +1,11 @@
 package com.homedesign.controller;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.homedesign.common.Result;
 import com.homedesign.entity.Case;
 import com.homedesign.entity.Designer;
 import com.homedesign.entity.Article;
 import com.homedesign.entity.SearchHistory;
-import com.homedesign.service.CaseService;
-import com.homedesign.service.DesignerService;
-import com.homedesign.service.ArticleService;
 import com.homedesign.service.SearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -20,15 +17,6 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class SearchController {
 
-    @Autowired
-    private CaseService caseService;
-
-    @Autowired
-    private DesignerService designerService;
-
-    @Autowired
-    private ArticleService articleService;
-
     @Autowired
     private SearchService searchService;
 
@@ -40,78 +28,10 @@ public class SearchController {
             @RequestParam(required = false) String style,
             @RequestParam(required = false) String sortBy) {
         
-        // 记录搜索历史
-        searchService.recordSearchHistory(keyword, "ALL");
-        
-        Map<String, Object> result = new HashMap<>();
-        
-        // 搜索案例
-        QueryWrapper<Case> caseQuery = new QueryWrapper<>();
-        caseQuery.like("title", keyword)
-                 .or()
-                 .like("description", keyword)
-                 .or()
-                 .like("design_concept", keyword)
-                 .eq("status", "PUBLISHED");
+        Map<String, Object> result = searchService.searchAll(keyword, style, sortBy, page, size);
         
-        if (style != null && !style.isEmpty()) {
-            caseQuery.eq("style", style);
-        }
-        
-        // 排序
-        if ("views".equals(sortBy)) {
-            caseQuery.orderByDesc("views");
-        } else if ("likes".equals(sortBy)) {
-            caseQuery.orderByDesc("likes");
-        } else {
-            caseQuery.orderByDesc("create_time");
-        }
-        
-        caseQuery.last("LIMIT " + size);
-        List<Case> cases = caseService.list(caseQuery);
-        result.put("cases", cases);
-        
-        // 搜索设计师
-        QueryWrapper<Designer> designerQuery = new QueryWrapper<>();
-        designerQuery.like("name", keyword)
-                     .or()
-                     .like("bio", keyword)
-                     .or()
-                     .like("style", keyword)
-                     .eq("status", "ACTIVE");
-        
-        if ("rating".equals(sortBy)) {
-            designerQuery.orderByDesc("rating");
-        } else if ("experience".equals(sortBy)) {
-            designerQuery.orderByDesc("experience");
-        } else {
-            designerQuery.orderByDesc("create_time");
-        }
-        
-        designerQuery.last("LIMIT " + size);
-        List<Designer> designers = designerService.list(designerQuery);
-        result.put("designers", designers);
-        
-        // 搜索文章
-        QueryWrapper<Article> articleQuery = new QueryWrapper<>();
-        articleQuery.like("title", keyword)
-                   .or()
-                   .like("summary", keyword)
-                   .or()
-                   .like("content", keyword)
-                   .eq("status", "PUBLISHED");
-        
-        if ("views".equals(sortBy)) {
-            articleQuery.orderByDesc("views");
-        } else if ("likes".equals(sortBy)) {
-            articleQuery.orderByDesc("likes");
-        } else {
-            articleQuery.orderByDesc("publish_time");
-        }
-        
-        articleQuery.last("LIMIT " + size);
-        List<Article> articles = articleService.list(articleQuery);
-        result.put("articles", articles);
+        // 记录搜索历史
+        searchService.recordSearchHistory(keyword, "ALL", searchService.countResults(result));
         
         return Result.success(result);
     }
@@ -125,37 +45,12 @@ public class SearchController {
             @RequestParam(required = false) String layout,
             @RequestParam(required = false) String sortBy) {
         
-        // 记录搜索历史
-        searchService.recordSearchHistory(keyword, "CASE");
-        
-        QueryWrapper<Case> queryWrapper = new QueryWrapper<>();
-        queryWrapper.like("title", keyword)
-                   .or()
-                   .like("description", keyword)
-                   .or()
-                   .like("design_concept", keyword)
-                   .eq("status", "PUBLISHED");
-        
-        if (style != null && !style.isEmpty()) {
-            queryWrapper.eq("style", style);
-        }
+        IPage<Case> result = searchService.searchCases(keyword, style, layout, sortBy, page, size);
         
-        if (layout != null && !layout.isEmpty()) {
-            queryWrapper.eq("layout", layout);
-        }
-        
-        // 排序
-        if ("views".equals(sortBy)) {
-            queryWrapper.orderByDesc("views");
-        } else if ("likes".equals(sortBy)) {
-            queryWrapper.orderByDesc("likes");
-        } else if ("createTime".equals(sortBy)) {
-            queryWrapper.orderByDesc("create_time");
-        } else {
-            queryWrapper.orderByDesc("publish_time");
-        }
+        // 记录搜索历史
+        searchService.recordSearchHistory(keyword, "CASE", result.getTotal());
         
-        return Result.success(caseService.list(queryWrapper));
+        return Result.success(result.getRecords());
     }
 
     @GetMapping("/designers")
@@ -167,37 +62,12 @@ public class SearchController {
             @RequestParam(required = false) String serviceArea,
             @RequestParam(required = false) String sortBy) {
         
-        // 记录搜索历史
-        searchService.recordSearchHistory(keyword, "DESIGNER");
-        
-        QueryWrapper<Designer> queryWrapper = new QueryWrapper<>();
-        queryWrapper.like("name", keyword)
-                   .or()
-                   .like("bio", keyword)
-                   .or()
-                   .like("style", keyword)
-                   .eq("status", "ACTIVE");
-        
-        if (style != null && !style.isEmpty()) {
-            queryWrapper.like("style", style);
-        }
-        
-        if (serviceArea != null && !serviceArea.isEmpty()) {
-            queryWrapper.like("service_area", serviceArea);
-        }
+        IPage<Designer> result = searchService.searchDesigners(keyword, style, serviceArea, sortBy, page, size);
         
-        // 排序
-        if ("rating".equals(sortBy)) {
-            queryWrapper.orderByDesc("rating");
-        } else if ("experience".equals(sortBy)) {
-            queryWrapper.orderByDesc("experience");
-        } else if ("cases".equals(sortBy)) {
-            queryWrapper.orderByDesc("completed_cases");
-        } else {
-            queryWrapper.orderByDesc("create_time");
-        }
+        // 记录搜索历史
+        searchService.recordSearchHistory(keyword, "DESIGNER", result.getTotal());
         
-        return Result.success(designerService.list(queryWrapper));
+        return Result.success(result.getRecords());
     }
 
     @GetMapping("/articles")
@@ -208,33 +78,12 @@ public class SearchController {
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String sortBy) {
         
-        // 记录搜索历史
-        searchService.recordSearchHistory(keyword, "ARTICLE");
-        
-        QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
-        queryWrapper.like("title", keyword)
-                   .or()
-                   .like("summary", keyword)
-                   .or()
-                   .like("content", keyword)
-                   .eq("status", "PUBLISHED");
+        IPage<Article> result = searchService.searchArticles(keyword, category, sortBy, page, size);
         
-        if (category != null && !category.isEmpty()) {
-            queryWrapper.eq("category", category);
-        }
-        
-        // 排序
-        if ("views".equals(sortBy)) {
-            queryWrapper.orderByDesc("views");
-        } else if ("likes".equals(sortBy)) {
-            queryWrapper.orderByDesc("likes");
-        } else if ("createTime".equals(sortBy)) {
-            queryWrapper.orderByDesc("create_time");
-        } else {
-            queryWrapper.orderByDesc("publish_time");
-        }
+        // 记录搜索历史
+        searchService.recordSearchHistory(keyword, "ARTICLE", result.getTotal());
         
-        return Result.success(articleService.list(queryWrapper));
+        return Result.success(result.getRecords());
     }
 
     @GetMapping("/suggestions")
@@ -244,8 +93,10 @@ public class SearchController {
     }
 
     @GetMapping("/hot")
-    public Result<List<String>> getHotKeywords() {
-        List<String> hotKeywords = searchService.getHotKeywords();
+    public Result<List<String>> getHotKeywords(
+            @RequestParam(defaultValue = "week") String window,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        List<String> hotKeywords = searchService.getHotKeywords(window, limit);
         return Result.success(hotKeywords);
     }
 
@@ -272,4 +123,10 @@ public class SearchController {
         Map<String, Object> stats = searchService.getSearchStats();
         return Result.success(stats);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cache-stats")
+    public Result<Map<String, Object>> getSearchCacheStats() {
+        Map<String, Object> stats = searchService.getSearchCacheStats();
+        return Result.success(stats);
+    }
+}
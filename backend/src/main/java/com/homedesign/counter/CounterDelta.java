@@ -0,0 +1,24 @@
+package com.homedesign.counter;
+
+/**
+ * 一行待写入的计数增量
+ */
+public class CounterDelta {
+
+    private final Long id;
+
+    private final long delta;
+
+    public CounterDelta(Long id, long delta) {
+        this.id = id;
+        this.delta = delta;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getDelta() {
+        return delta;
+    }
+}
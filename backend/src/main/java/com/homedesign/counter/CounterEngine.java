@@ -0,0 +1,234 @@
+package com.homedesign.counter;
+
+import com.homedesign.entity.Article;
+import com.homedesign.entity.Case;
+import com.homedesign.entity.Designer;
+import com.homedesign.mapper.CounterMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 浏览量、点赞数的延迟写入计数器
+ * 请求线程只在内存中累加增量：累加器按线程分片，热点实体的并发累加落在不同分片上，互不争用；
+ * 定时任务取走全部增量，按（实体类型、计数字段）分组，以 SET col = col + ? 的批量UPDATE写回，
+ * 不再对整行先读后写。接口返回实体前叠加尚未落库的增量，保证用户能看到自己刚产生的计数。
+ * 实体上的计数字段都标注 updateStrategy = FieldStrategy.NEVER，updateById不写回计数，
+ * 避免用读出时的旧值覆盖其间累加的增量
+ */
+@Component
+public class CounterEngine {
+
+    @Autowired
+    private CounterMapper counterMapper;
+
+    // 分片数，0表示按CPU核数自动计算
+    @Value("${counter.stripes:0}")
+    private int stripeCount;
+
+    @Value("${counter.batch-size:500}")
+    private int batchSize;
+
+    private Map<CounterKey, Long>[] stripes;
+
+    // 已从分片取出、正在写库的增量，写库完成前仍计入叠加值
+    private final Map<CounterKey, Long> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int count = stripeCount > 0 ? stripeCount : Runtime.getRuntime().availableProcessors() * 2;
+        stripes = newStripes(count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * 累加计数，delta可以为负（如取消点赞）
+     */
+    public void add(CounterTarget target, Long id, CounterField field, long delta) {
+        if (id == null || delta == 0) {
+            return;
+        }
+        if (!target.supports(field)) {
+            throw new IllegalArgumentException(target + "不支持计数字段" + field);
+        }
+        stripe().merge(new CounterKey(target, id, field), delta, Long::sum);
+    }
+
+    public void increment(CounterTarget target, Long id, CounterField field) {
+        add(target, id, field, 1);
+    }
+
+    /**
+     * 尚未落库的增量
+     */
+    public long pending(CounterTarget target, Long id, CounterField field) {
+        CounterKey key = new CounterKey(target, id, field);
+        long sum = 0;
+        // 先读分片再读inFlight，与flush的转移顺序相反，最多短暂多算不会少算
+        for (Map<CounterKey, Long> stripe : stripes) {
+            sum += stripe.getOrDefault(key, 0L);
+        }
+        return sum + inFlight.getOrDefault(key, 0L);
+    }
+
+    /**
+     * 在实体上叠加未落库的增量，返回同一对象
+     */
+    public Case overlay(Case designCase) {
+        if (designCase != null) {
+            designCase.setViews(withPending(designCase.getViews(), CounterTarget.CASE, designCase.getId(), CounterField.VIEWS));
+            designCase.setLikes(withPending(designCase.getLikes(), CounterTarget.CASE, designCase.getId(), CounterField.LIKES));
+        }
+        return designCase;
+    }
+
+    public Article overlay(Article article) {
+        if (article != null) {
+            article.setViews(withPending(article.getViews(), CounterTarget.ARTICLE, article.getId(), CounterField.VIEWS));
+            article.setLikes(withPending(article.getLikes(), CounterTarget.ARTICLE, article.getId(), CounterField.LIKES));
+        }
+        return article;
+    }
+
+    public Designer overlay(Designer designer) {
+        if (designer != null) {
+            designer.setLikes(withPending(designer.getLikes(), CounterTarget.DESIGNER, designer.getId(), CounterField.LIKES));
+        }
+        return designer;
+    }
+
+    /**
+     * 将积压的增量批量写回数据库，写库失败的增量放回分片等待下一轮
+     */
+    @Scheduled(fixedDelayString = "${counter.flush-interval:1000}")
+    public synchronized void flush() {
+        Map<CounterKey, Long> drained = new HashMap<>();
+        for (Map<CounterKey, Long> stripe : stripes) {
+            for (CounterKey key : stripe.keySet()) {
+                // 与merge对同一键互斥，取出后到达的增量会留在分片中；先计入inFlight再从分片移除，读取方不会漏算
+                stripe.computeIfPresent(key, (k, delta) -> {
+                    if (delta != 0) {
+                        inFlight.merge(k, delta, Long::sum);
+                        drained.merge(k, delta, Long::sum);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        Map<CounterTarget, Map<CounterField, List<CounterKey>>> groups = new EnumMap<>(CounterTarget.class);
+        for (Map.Entry<CounterKey, Long> entry : drained.entrySet()) {
+            CounterKey key = entry.getKey();
+            groups.computeIfAbsent(key.target, k -> new EnumMap<>(CounterField.class))
+                    .computeIfAbsent(key.field, k -> new ArrayList<>())
+                    .add(key);
+        }
+
+        for (Map.Entry<CounterTarget, Map<CounterField, List<CounterKey>>> byTarget : groups.entrySet()) {
+            for (Map.Entry<CounterField, List<CounterKey>> byField : byTarget.getValue().entrySet()) {
+                List<CounterKey> keys = byField.getValue();
+                for (int from = 0; from < keys.size(); from += batchSize) {
+                    write(byTarget.getKey(), byField.getKey(), keys.subList(from, Math.min(from + batchSize, keys.size())), drained);
+                }
+            }
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        flush();
+    }
+
+    public int getPendingCount() {
+        int count = inFlight.size();
+        for (Map<CounterKey, Long> stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    // 私有辅助方法
+
+    @SuppressWarnings("unchecked")
+    private static Map<CounterKey, Long>[] newStripes(int count) {
+        return (Map<CounterKey, Long>[]) new Map<?, ?>[count];
+    }
+
+    private Map<CounterKey, Long> stripe() {
+        long threadId = Thread.currentThread().getId();
+        return stripes[(int) ((threadId ^ (threadId >>> 16)) % stripes.length)];
+    }
+
+    private Integer withPending(Integer stored, CounterTarget target, Long id, CounterField field) {
+        long value = (stored != null ? stored : 0) + pending(target, id, field);
+        return (int) Math.max(0, Math.min(value, Integer.MAX_VALUE));
+    }
+
+    private void write(CounterTarget target, CounterField field, List<CounterKey> keys, Map<CounterKey, Long> drained) {
+        List<CounterDelta> deltas = new ArrayList<>(keys.size());
+        for (CounterKey key : keys) {
+            deltas.add(new CounterDelta(key.id, drained.get(key)));
+        }
+        try {
+            counterMapper.addCounters(target.getTable(), field.getColumn(), deltas);
+        } catch (Exception e) {
+            System.err.println("计数写入失败，将在下一轮重试: " + e.getMessage());
+            // 先放回分片再移出inFlight，叠加值只会短暂偏大而不会偏小
+            Map<CounterKey, Long> stripe = stripe();
+            for (CounterKey key : keys) {
+                stripe.merge(key, drained.get(key), Long::sum);
+            }
+        } finally {
+            for (CounterKey key : keys) {
+                long delta = drained.get(key);
+                inFlight.computeIfPresent(key, (k, v) -> v - delta == 0 ? null : v - delta);
+            }
+        }
+    }
+
+    private static class CounterKey {
+
+        private final CounterTarget target;
+
+        private final Long id;
+
+        private final CounterField field;
+
+        CounterKey(CounterTarget target, Long id, CounterField field) {
+            this.target = target;
+            this.id = id;
+            this.field = field;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CounterKey)) {
+                return false;
+            }
+            CounterKey other = (CounterKey) o;
+            return target == other.target && field == other.field && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, id, field);
+        }
+    }
+}
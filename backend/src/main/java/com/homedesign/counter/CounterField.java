@@ -0,0 +1,19 @@
+package com.homedesign.counter;
+
+/**
+ * 计数字段，column为数据库列名
+ */
+public enum CounterField {
+    VIEWS("views"),
+    LIKES("likes");
+
+    private final String column;
+
+    CounterField(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
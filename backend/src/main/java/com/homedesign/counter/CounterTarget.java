@@ -0,0 +1,51 @@
+package com.homedesign.counter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 计数器所属的实体类型、表名及其支持的计数字段，code与favorite、user_like等表的target_type一致
+ */
+public enum CounterTarget {
+    CASE("case", "design_case", EnumSet.of(CounterField.VIEWS, CounterField.LIKES)),
+    ARTICLE("article", "article", EnumSet.of(CounterField.VIEWS, CounterField.LIKES)),
+    // designer表没有views字段
+    DESIGNER("designer", "designer", EnumSet.of(CounterField.LIKES)),
+    COMMENT("comment", "comment", EnumSet.of(CounterField.LIKES));
+
+    private final String code;
+
+    private final String table;
+
+    private final Set<CounterField> fields;
+
+    CounterTarget(String code, String table, Set<CounterField> fields) {
+        this.code = code;
+        this.table = table;
+        this.fields = fields;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public boolean supports(CounterField field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * 按target_type查找，不区分大小写，未知类型返回null
+     */
+    public static CounterTarget fromCode(String code) {
+        for (CounterTarget target : values()) {
+            if (target.code.equalsIgnoreCase(code)) {
+                return target;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.homedesign.counter;
+
+/**
+ * HyperLogLog基数估计
+ * 2048个6位寄存器紧凑存放（每4个寄存器占3字节，共1536字节），标准误差约2.3%；
+ * 两个草图按寄存器取最大值即可合并，合并结果等价于对两个集合的并集计数，适合把按天的草图合并成周、月数据。
+ * 非线程安全，由调用方加锁
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 11;
+
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+
+    public static final int SIZE_IN_BYTES = REGISTER_COUNT / 4 * 3;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[SIZE_IN_BYTES];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * 从持久化的字节恢复，长度不符时视为空草图
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != SIZE_IN_BYTES) {
+            return new HyperLogLog();
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    public void add(String value) {
+        addHash(hash(value));
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // 剩余位的前导零个数 + 1，末尾补1保证不超过 64 - PRECISION + 1
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > get(index)) {
+            set(index, rank);
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            int value = other.get(i);
+            if (value > get(i)) {
+                set(i, value);
+            }
+        }
+    }
+
+    public long cardinality() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            int value = get(i);
+            sum += 1.0 / (1L << value);
+            if (value == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // 小基数时改用线性计数
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /**
+     * 64位字符串哈希（FNV-1a加murmur3的终混合），保证高位分布均匀
+     */
+    public static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // 私有辅助方法
+
+    private int get(int index) {
+        int offset = (index >> 2) * 3;
+        int group = (registers[offset] & 0xff) | (registers[offset + 1] & 0xff) << 8 | (registers[offset + 2] & 0xff) << 16;
+        return (group >>> ((index & 3) * 6)) & 0x3f;
+    }
+
+    private void set(int index, int value) {
+        int offset = (index >> 2) * 3;
+        int shift = (index & 3) * 6;
+        int group = (registers[offset] & 0xff) | (registers[offset + 1] & 0xff) << 8 | (registers[offset + 2] & 0xff) << 16;
+        group = (group & ~(0x3f << shift)) | (value << shift);
+        registers[offset] = (byte) group;
+        registers[offset + 1] = (byte) (group >>> 8);
+        registers[offset + 2] = (byte) (group >>> 16);
+    }
+}
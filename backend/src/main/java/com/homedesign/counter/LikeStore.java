@@ -0,0 +1,204 @@
+package com.homedesign.counter;
+
+import com.homedesign.entity.UserLike;
+import com.homedesign.mapper.UserLikeMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 点赞关系存储
+ * 每个点赞目标在内存中保存一份点赞用户ID的压缩位图，"是否已点赞"和批量检查都不访问数据库；
+ * 状态变化追加写入user_like表，启动时按id顺序重放恢复。
+ * 同一用户对同一目标的操作经分段锁串行化，保证日志顺序与内存状态一致
+ */
+@Component
+public class LikeStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private UserLikeMapper userLikeMapper;
+
+    @Value("${counter.like-load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final Map<TargetKey, RoaringBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private volatile boolean loaded = false;
+
+    public LikeStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            load();
+        } catch (Exception e) {
+            System.err.println("加载点赞记录失败，将在首次使用时重试: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 点赞，返回是否发生了变化（已点过赞返回false）
+     */
+    public boolean like(CounterTarget target, Long targetId, Long userId) {
+        return change(target, targetId, userId, true);
+    }
+
+    /**
+     * 取消点赞，返回是否发生了变化（未点过赞返回false）
+     */
+    public boolean unlike(CounterTarget target, Long targetId, Long userId) {
+        return change(target, targetId, userId, false);
+    }
+
+    public boolean hasLiked(CounterTarget target, Long targetId, Long userId) {
+        if (targetId == null || userId == null) {
+            return false;
+        }
+        ensureLoaded();
+        RoaringBitmap bitmap = bitmaps.get(new TargetKey(target, targetId));
+        if (bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            return bitmap.contains(userId);
+        }
+    }
+
+    /**
+     * 批量检查：返回targetIds中当前用户已点赞的部分，保持传入顺序
+     */
+    public Set<Long> likedAmong(CounterTarget target, Collection<Long> targetIds, Long userId) {
+        Set<Long> liked = new LinkedHashSet<>();
+        if (userId == null || targetIds == null) {
+            return liked;
+        }
+        for (Long targetId : targetIds) {
+            if (hasLiked(target, targetId, userId)) {
+                liked.add(targetId);
+            }
+        }
+        return liked;
+    }
+
+    // 私有辅助方法
+
+    private boolean change(CounterTarget target, Long targetId, Long userId, boolean liked) {
+        if (targetId == null || userId == null) {
+            throw new IllegalArgumentException("点赞目标和用户不能为空");
+        }
+        ensureLoaded();
+        TargetKey key = new TargetKey(target, targetId);
+        synchronized (locks[Math.floorMod(Objects.hash(key, userId), LOCK_STRIPES)]) {
+            if (hasLiked(target, targetId, userId) == liked) {
+                return false;
+            }
+
+            // 先落日志再改内存，写库失败时内存状态不变
+            UserLike record = new UserLike();
+            record.setUserId(userId);
+            record.setTargetType(target.getCode());
+            record.setTargetId(targetId);
+            record.setLiked(liked ? 1 : 0);
+            record.setCreateTime(LocalDateTime.now());
+            userLikeMapper.insert(record);
+
+            apply(key, userId, liked);
+            return true;
+        }
+    }
+
+    private void apply(TargetKey key, long userId, boolean liked) {
+        RoaringBitmap bitmap = bitmaps.computeIfAbsent(key, k -> new RoaringBitmap());
+        synchronized (bitmap) {
+            if (liked) {
+                bitmap.add(userId);
+            } else {
+                bitmap.remove(userId);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    /**
+     * 按id顺序重放全部点赞记录
+     */
+    private synchronized void load() {
+        bitmaps.clear();
+        long afterId = 0;
+        long rows = 0;
+        List<UserLike> batch;
+        do {
+            batch = userLikeMapper.selectAfter(afterId, loadBatchSize);
+            for (UserLike record : batch) {
+                afterId = record.getId();
+                CounterTarget target = CounterTarget.fromCode(record.getTargetType());
+                if (target != null && record.getTargetId() != null && record.getUserId() != null) {
+                    apply(new TargetKey(target, record.getTargetId()), record.getUserId(),
+                            record.getLiked() != null && record.getLiked() == 1);
+                }
+            }
+            rows += batch.size();
+        } while (batch.size() == loadBatchSize);
+
+        // 取消点赞后变空的位图不再保留
+        bitmaps.values().removeIf(RoaringBitmap::isEmpty);
+        loaded = true;
+        System.out.println("点赞记录加载完成，共重放 " + rows + " 条，涉及 " + bitmaps.size() + " 个目标");
+    }
+
+    private static class TargetKey {
+
+        private final CounterTarget target;
+
+        private final Long id;
+
+        TargetKey(CounterTarget target, Long id) {
+            this.target = target;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TargetKey)) {
+                return false;
+            }
+            TargetKey other = (TargetKey) o;
+            return target == other.target && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, id);
+        }
+    }
+}
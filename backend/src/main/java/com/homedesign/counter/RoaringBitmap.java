@@ -0,0 +1,252 @@
+package com.homedesign.counter;
+
+import java.util.Arrays;
+
+/**
+ * 压缩位图（Roaring结构）
+ * 按值的高位分块，每块管理低16位：元素不超过4096个时用有序char数组，超过后改用8KB的位图，
+ * 稀疏和稠密的用户集合都只占很少内存；查询、插入、删除只需在块索引和块内各做一次定位。
+ * 非线程安全，由调用方加锁
+ */
+public class RoaringBitmap {
+
+    // 支持的最大值（不含），高位块号需能放进非负int
+    public static final long MAX_VALUE = 1L << 47;
+
+    private static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private int[] keys = new int[4];
+
+    private Container[] containers = new Container[4];
+
+    private int size;
+
+    public boolean contains(long value) {
+        checkRange(value);
+        int index = Arrays.binarySearch(keys, 0, size, high(value));
+        return index >= 0 && containers[index].contains(low(value));
+    }
+
+    /**
+     * 加入一个值，返回是否原先不存在
+     */
+    public boolean add(long value) {
+        checkRange(value);
+        int key = high(value);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new ArrayContainer());
+        }
+        Container container = containers[index];
+        if (!container.add(low(value))) {
+            return false;
+        }
+        if (container instanceof ArrayContainer && container.cardinality > ARRAY_MAX) {
+            containers[index] = ((ArrayContainer) container).toBitmap();
+        }
+        return true;
+    }
+
+    /**
+     * 移除一个值，返回是否原先存在
+     */
+    public boolean remove(long value) {
+        checkRange(value);
+        int index = Arrays.binarySearch(keys, 0, size, high(value));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        if (!container.remove(low(value))) {
+            return false;
+        }
+        if (container.cardinality == 0) {
+            removeContainer(index);
+        } else if (container instanceof BitmapContainer && container.cardinality <= ARRAY_MAX) {
+            containers[index] = ((BitmapContainer) container).toArray();
+        }
+        return true;
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality;
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 估算占用的字节数
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 4L + containers.length * 8L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    // 私有辅助方法
+
+    private static int high(long value) {
+        return (int) (value >>> 16);
+    }
+
+    private static char low(long value) {
+        return (char) value;
+    }
+
+    private static void checkRange(long value) {
+        if (value < 0 || value >= MAX_VALUE) {
+            throw new IllegalArgumentException("位图不支持的值: " + value);
+        }
+    }
+
+    private void insertContainer(int index, int key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private abstract static class Container {
+
+        int cardinality;
+
+        abstract boolean contains(char value);
+
+        abstract boolean add(char value);
+
+        abstract boolean remove(char value);
+
+        abstract long sizeInBytes();
+    }
+
+    /**
+     * 稀疏块：有序数组
+     */
+    private static class ArrayContainer extends Container {
+
+        private char[] values = new char[4];
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        boolean add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_MAX + 1));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return values.length * 2L;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * 稠密块：65536位的位图
+     */
+    private static class BitmapContainer extends Container {
+
+        private final long[] words = new long[BITMAP_WORDS];
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        boolean add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before == after) {
+                return false;
+            }
+            words[value >>> 6] = after;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before == after) {
+                return false;
+            }
+            words[value >>> 6] = after;
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return BITMAP_WORDS * 8L;
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(cardinality, 4)];
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array.values[array.cardinality++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
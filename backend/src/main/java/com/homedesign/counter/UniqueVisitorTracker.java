@@ -0,0 +1,230 @@
+package com.homedesign.counter;
+
+import com.homedesign.entity.VisitorSketch;
+import com.homedesign.mapper.VisitorSketchMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 独立访客统计
+ * 每个实体每天一个HyperLogLog草图，详情页访问时以用户ID（未登录时为IP + UA指纹）更新；
+ * 当天的草图在内存中累积并定时整块写回，查询区间内的按天草图合并后得到周、月独立访客数。
+ * 草图合并是幂等的并集运算，重启后把库中当天的草图合并回内存即可继续累积
+ */
+@Component
+public class UniqueVisitorTracker {
+
+    @Autowired
+    private VisitorSketchMapper visitorSketchMapper;
+
+    @Value("${counter.visitor.batch-size:200}")
+    private int batchSize;
+
+    @Value("${counter.visitor.retention-days:400}")
+    private int retentionDays;
+
+    private final Map<SketchKey, HyperLogLog> live = new ConcurrentHashMap<>();
+
+    // 有新访客、尚未写回的草图
+    private final Set<SketchKey> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 记录一次访问，visitorKey见RequestUtil.getVisitorKey
+     */
+    public void record(CounterTarget target, Long targetId, String visitorKey) {
+        if (targetId == null || visitorKey == null) {
+            return;
+        }
+        SketchKey key = new SketchKey(target, targetId, LocalDate.now());
+        HyperLogLog sketch = live.computeIfAbsent(key, k -> new HyperLogLog());
+        synchronized (sketch) {
+            sketch.add(visitorKey);
+        }
+        dirty.add(key);
+    }
+
+    /**
+     * 一批实体在最近days天（含今天）的独立访客数，同一访客访问多个实体只计一次
+     */
+    public long uniqueVisitors(CounterTarget target, Collection<Long> targetIds, int days) {
+        LocalDate to = LocalDate.now();
+        return merge(target, targetIds, to.minusDays(days - 1L), to).cardinality();
+    }
+
+    public long uniqueVisitors(CounterTarget target, Long targetId, int days) {
+        return uniqueVisitors(target, Collections.singletonList(targetId), days);
+    }
+
+    /**
+     * 合并 [from, to] 内的草图，可与其他实体类型的结果继续合并
+     */
+    public HyperLogLog merge(CounterTarget target, Collection<Long> targetIds, LocalDate from, LocalDate to) {
+        return mergeWindows(target, targetIds, to, (int) ChronoUnit.DAYS.between(from, to) + 1)[0];
+    }
+
+    /**
+     * 按最长的窗口查一次草图，同时合并出截止到to的多个窗口，第i个结果对应最近days[i]天
+     */
+    public HyperLogLog[] mergeWindows(CounterTarget target, Collection<Long> targetIds, LocalDate to, int... days) {
+        HyperLogLog[] merged = new HyperLogLog[days.length];
+        LocalDate[] starts = new LocalDate[days.length];
+        LocalDate from = to;
+        for (int i = 0; i < days.length; i++) {
+            merged[i] = new HyperLogLog();
+            starts[i] = to.minusDays(days[i] - 1L);
+            from = starts[i].isBefore(from) ? starts[i] : from;
+        }
+        if (targetIds == null || targetIds.isEmpty()) {
+            return merged;
+        }
+        Set<Long> ids = new HashSet<>(targetIds);
+        for (VisitorSketch row : visitorSketchMapper.selectRange(target.getCode(), targetIds, from, to)) {
+            mergeInto(merged, starts, row.getStatDate(), HyperLogLog.fromBytes(row.getRegisters()));
+        }
+        // 内存中的草图包含库中已有的内容，重复合并不影响结果
+        for (Map.Entry<SketchKey, HyperLogLog> entry : live.entrySet()) {
+            SketchKey key = entry.getKey();
+            if (key.target == target && ids.contains(key.id)
+                    && !key.date.isBefore(from) && !key.date.isAfter(to)) {
+                synchronized (entry.getValue()) {
+                    mergeInto(merged, starts, key.date, entry.getValue());
+                }
+            }
+        }
+        return merged;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            for (VisitorSketch row : visitorSketchMapper.selectByDate(LocalDate.now())) {
+                CounterTarget target = CounterTarget.fromCode(row.getTargetType());
+                if (target == null) {
+                    continue;
+                }
+                HyperLogLog sketch = live.computeIfAbsent(new SketchKey(target, row.getTargetId(), row.getStatDate()), k -> new HyperLogLog());
+                synchronized (sketch) {
+                    sketch.merge(HyperLogLog.fromBytes(row.getRegisters()));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("加载独立访客草图失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 写回有变化的草图，并释放已过去日期的草图
+     */
+    @Scheduled(fixedDelayString = "${counter.visitor.persist-interval:60000}")
+    public synchronized void persist() {
+        List<SketchKey> keys = new ArrayList<>(dirty);
+        List<VisitorSketch> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (SketchKey key : keys) {
+            // 先移出脏集合再序列化，期间到达的访问会重新标记
+            dirty.remove(key);
+            HyperLogLog sketch = live.get(key);
+            if (sketch == null) {
+                continue;
+            }
+            VisitorSketch row = new VisitorSketch();
+            row.setTargetType(key.target.getCode());
+            row.setTargetId(key.id);
+            row.setStatDate(key.date);
+            synchronized (sketch) {
+                row.setRegisters(sketch.toBytes());
+            }
+            row.setUpdateTime(now);
+            rows.add(row);
+        }
+
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<VisitorSketch> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            try {
+                visitorSketchMapper.upsertBatch(batch);
+            } catch (Exception e) {
+                System.err.println("写入独立访客草图失败，将在下一轮重试: " + e.getMessage());
+                for (VisitorSketch row : batch) {
+                    dirty.add(new SketchKey(CounterTarget.fromCode(row.getTargetType()), row.getTargetId(), row.getStatDate()));
+                }
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        live.keySet().removeIf(key -> key.date.isBefore(today) && !dirty.contains(key));
+    }
+
+    @Scheduled(cron = "${counter.visitor.cleanup-cron:0 30 3 * * ?}")
+    public void cleanup() {
+        try {
+            visitorSketchMapper.deleteBefore(LocalDate.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            System.err.println("清理独立访客草图失败: " + e.getMessage());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        persist();
+    }
+
+    // 私有辅助方法
+
+    private static void mergeInto(HyperLogLog[] merged, LocalDate[] starts, LocalDate date, HyperLogLog sketch) {
+        for (int i = 0; i < merged.length; i++) {
+            if (!date.isBefore(starts[i])) {
+                merged[i].merge(sketch);
+            }
+        }
+    }
+
+    private static class SketchKey {
+
+        private final CounterTarget target;
+
+        private final Long id;
+
+        private final LocalDate date;
+
+        SketchKey(CounterTarget target, Long id, LocalDate date) {
+            this.target = target;
+            this.id = id;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SketchKey)) {
+                return false;
+            }
+            SketchKey other = (SketchKey) o;
+            return target == other.target && id.equals(other.id) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, id, date);
+        }
+    }
+}
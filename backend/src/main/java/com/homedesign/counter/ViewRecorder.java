@@ -0,0 +1,81 @@
+package com.homedesign.counter;
+
+import com.homedesign.event.ViewEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 浏览记录器
+ * 详情页只把浏览事件放入有界队列即返回，后台定时取出后累加浏览量并更新独立访客草图，
+ * 读请求不产生任何数据库写入；队列满时丢弃并计数，浏览统计允许少量误差
+ */
+@Component
+public class ViewRecorder {
+
+    @Autowired
+    private CounterEngine counterEngine;
+
+    @Autowired
+    private UniqueVisitorTracker uniqueVisitorTracker;
+
+    @Value("${counter.view.queue-capacity:50000}")
+    private int queueCapacity;
+
+    private BlockingQueue<ViewEvent> queue;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @EventListener
+    public void onView(ViewEvent event) {
+        if (event.getTargetId() == null) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${counter.view.drain-interval:200}")
+    public synchronized void drain() {
+        ViewEvent event;
+        while ((event = queue.poll()) != null) {
+            try {
+                if (event.getTarget().supports(CounterField.VIEWS)) {
+                    counterEngine.increment(event.getTarget(), event.getTargetId(), CounterField.VIEWS);
+                }
+                uniqueVisitorTracker.record(event.getTarget(), event.getTargetId(), event.getVisitorKey());
+            } catch (Exception e) {
+                System.err.println("记录浏览失败: " + e.getMessage());
+            }
+        }
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            System.err.println("浏览队列已满，丢弃 " + lost + " 条浏览记录");
+        }
+    }
+
+    /**
+     * 先于计数器和访客草图的关闭写回执行，把队列中剩余的浏览交给它们
+     */
+    @EventListener(ContextClosedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onShutdown() {
+        drain();
+    }
+}
@@ -0,0 +1,58 @@
+package com.homedesign.dto;
+
+import com.homedesign.entity.Comment;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 评论树节点：评论本身加上已加载的回复
+ * replies最多包含每层上限条数，hasMoreReplies为true时用nextCursor继续分页加载
+ */
+@Data
+public class CommentTreeNode {
+    private Long id;
+    private String targetType;
+    private Long targetId;
+    private Long userId;
+    private String username;
+    private String avatar;
+    private String content;
+    private Integer likes;
+    private Long parentId;
+    private String replyTo;
+    private Long rootId;
+    private Integer depth;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+    
+    // 直接回复总数
+    private Integer replyCount = 0;
+    // 整个线程的回复总数（仅顶级评论）
+    private Integer threadCount;
+    private Boolean hasMoreReplies = false;
+    // 加载更多回复的游标：最后一条已加载回复的ID
+    private Long nextCursor;
+    private List<CommentTreeNode> replies = new ArrayList<>();
+    
+    public static CommentTreeNode fromEntity(Comment comment) {
+        CommentTreeNode node = new CommentTreeNode();
+        node.setId(comment.getId());
+        node.setTargetType(comment.getTargetType());
+        node.setTargetId(comment.getTargetId());
+        node.setUserId(comment.getUserId());
+        node.setUsername(comment.getUsername());
+        node.setAvatar(comment.getAvatar());
+        node.setContent(comment.getContent());
+        node.setLikes(comment.getLikes());
+        node.setParentId(comment.getParentId());
+        node.setReplyTo(comment.getReplyTo());
+        node.setRootId(comment.getRootId());
+        node.setDepth(comment.getDepth());
+        node.setCreateTime(comment.getCreateTime());
+        node.setUpdateTime(comment.getUpdateTime());
+        return node;
+    }
+}
@@ -45,10 +45,10 @@ public class Article {
     @TableField("tags")
     private String tags;
     
-    @TableField("views")
+    @TableField(value = "views", updateStrategy = FieldStrategy.NEVER)
     private Integer views;
     
-    @TableField("likes")
+    @TableField(value = "likes", updateStrategy = FieldStrategy.NEVER)
     private Integer likes;
     
     @TableField("status")
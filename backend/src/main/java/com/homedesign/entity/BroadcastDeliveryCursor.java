@@ -0,0 +1,24 @@
+package com.homedesign.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 广播通知投递游标实体类
+ * 每个用户一行，ID不大于deliveredUpTo的广播已投递到该用户的个人通知
+ */
+@Data
+@TableName("broadcast_delivery_cursor")
+public class BroadcastDeliveryCursor {
+
+    @TableId(value = "user_id", type = IdType.INPUT)
+    private Long userId;
+
+    @TableField("delivered_up_to")
+    private Long deliveredUpTo;
+
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,34 @@
+package com.homedesign.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 广播通知实体类
+ * 面向全部用户的公告只存一行，用户读取通知时再投递到个人通知
+ */
+@Data
+@TableName("broadcast_notification")
+public class BroadcastNotification {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    @TableField("title")
+    private String title;
+
+    @TableField("content")
+    private String content;
+
+    @TableField("type")
+    private String type;
+
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(value = "deleted", fill = FieldFill.INSERT)
+    @TableLogic
+    private Integer deleted;
+}
@@ -42,10 +42,10 @@ public class Case {
     @TableField("materials")
     private String materials;
     
-    @TableField("views")
+    @TableField(value = "views", updateStrategy = FieldStrategy.NEVER)
     private Integer views;
     
-    @TableField("likes")
+    @TableField(value = "likes", updateStrategy = FieldStrategy.NEVER)
     private Integer likes;
     
     @TableField("favorites")
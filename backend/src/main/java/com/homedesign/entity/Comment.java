@@ -30,7 +30,7 @@ public class Comment {
     @TableField("content")
     private String content;
     
-    @TableField("likes")
+    @TableField(value = "likes", updateStrategy = FieldStrategy.NEVER)
     private Integer likes;
     
     @TableField("parent_id")
@@ -39,6 +39,16 @@ public class Comment {
     @TableField("reply_to")
     private String replyTo;
     
+    @TableField("root_id")
+    private Long rootId;
+    
+    @TableField("depth")
+    private Integer depth;
+    
+    // 物化路径，如 0000000012/0000000035/，同一线程的子树是一段连续的索引范围
+    @TableField("path")
+    private String path;
+    
     @TableField("create_time")
     private LocalDateTime createTime;
     
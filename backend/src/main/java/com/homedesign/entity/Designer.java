@@ -42,7 +42,7 @@ public class Designer {
     @TableField("completed_cases")
     private Integer completedCases;
     
-    @TableField("likes")
+    @TableField(value = "likes", updateStrategy = FieldStrategy.NEVER)
     private Integer likes;
     
     @TableField("bio")
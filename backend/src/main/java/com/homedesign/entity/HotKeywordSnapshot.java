@@ -0,0 +1,33 @@
+package com.homedesign.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 热门关键词快照实体类
+ * 保存各时间窗口每个分桶的候选关键词及估计次数，重启后据此恢复热门关键词统计
+ */
+@Data
+@TableName("hot_keyword_snapshot")
+public class HotKeywordSnapshot {
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @TableField("window_name")
+    private String windowName;
+
+    @TableField("bucket_start")
+    private LocalDateTime bucketStart;
+
+    @TableField("keyword")
+    private String keyword;
+
+    @TableField("hit_count")
+    private Long hitCount;
+
+    @TableField("snapshot_time")
+    private LocalDateTime snapshotTime;
+}
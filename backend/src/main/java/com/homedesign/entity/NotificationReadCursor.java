@@ -0,0 +1,27 @@
+package com.homedesign.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知已读游标实体类
+ * 每个用户一行，ID不大于readUpTo的通知都视为已读；compactedUpTo以内的is_read标记已同步
+ */
+@Data
+@TableName("notification_read_cursor")
+public class NotificationReadCursor {
+
+    @TableId(value = "user_id", type = IdType.INPUT)
+    private Long userId;
+
+    @TableField("read_up_to")
+    private Long readUpTo;
+
+    @TableField("compacted_up_to")
+    private Long compactedUpTo;
+
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,36 @@
+package com.homedesign.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 搜索统计汇总实体类
+ * 每行是一个时间桶（分钟/小时/天）的汇总结果，按类型计数和热门关键词以JSON保存
+ */
+@Data
+@TableName("search_stat_rollup")
+public class SearchStatRollup {
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @TableField("granularity")
+    private String granularity;
+
+    @TableField("bucket_start")
+    private LocalDateTime bucketStart;
+
+    @TableField("total_searches")
+    private Long totalSearches;
+
+    @TableField("zero_result_searches")
+    private Long zeroResultSearches;
+
+    @TableField("type_counts")
+    private String typeCounts;
+
+    @TableField("top_keywords")
+    private String topKeywords;
+}
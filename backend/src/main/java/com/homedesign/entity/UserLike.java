@@ -0,0 +1,34 @@
+package com.homedesign.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 点赞记录实体类
+ * 只追加不修改：每次点赞或取消点赞各写一行，按id顺序重放即可得到当前点赞状态
+ */
+@Data
+@TableName("user_like")
+public class UserLike {
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @TableField("user_id")
+    private Long userId;
+
+    @TableField("target_type")
+    private String targetType;
+
+    @TableField("target_id")
+    private Long targetId;
+
+    // 1点赞，0取消点赞
+    @TableField("liked")
+    private Integer liked;
+
+    @TableField("create_time")
+    private LocalDateTime createTime;
+}
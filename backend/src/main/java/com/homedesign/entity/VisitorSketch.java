@@ -0,0 +1,34 @@
+package com.homedesign.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 独立访客草图实体类
+ * 每个实体每天一行，registers为HyperLogLog寄存器的紧凑字节
+ */
+@Data
+@TableName("visitor_sketch")
+public class VisitorSketch {
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @TableField("target_type")
+    private String targetType;
+
+    @TableField("target_id")
+    private Long targetId;
+
+    @TableField("stat_date")
+    private LocalDate statDate;
+
+    @TableField("registers")
+    private byte[] registers;
+
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
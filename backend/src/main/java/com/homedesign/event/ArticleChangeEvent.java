@@ -0,0 +1,19 @@
+package com.homedesign.event;
+
+/**
+ * 文章变更事件
+ */
+public class ArticleChangeEvent extends EntityChangeEvent {
+
+    public ArticleChangeEvent(Long entityId, ChangeType changeType) {
+        super(entityId, changeType);
+    }
+
+    public static ArticleChangeEvent saved(Long id) {
+        return new ArticleChangeEvent(id, ChangeType.SAVED);
+    }
+
+    public static ArticleChangeEvent deleted(Long id) {
+        return new ArticleChangeEvent(id, ChangeType.DELETED);
+    }
+}
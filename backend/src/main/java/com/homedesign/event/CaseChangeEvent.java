@@ -0,0 +1,19 @@
+package com.homedesign.event;
+
+/**
+ * 案例变更事件
+ */
+public class CaseChangeEvent extends EntityChangeEvent {
+
+    public CaseChangeEvent(Long entityId, ChangeType changeType) {
+        super(entityId, changeType);
+    }
+
+    public static CaseChangeEvent saved(Long id) {
+        return new CaseChangeEvent(id, ChangeType.SAVED);
+    }
+
+    public static CaseChangeEvent deleted(Long id) {
+        return new CaseChangeEvent(id, ChangeType.DELETED);
+    }
+}
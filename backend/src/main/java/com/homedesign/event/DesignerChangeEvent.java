@@ -0,0 +1,19 @@
+package com.homedesign.event;
+
+/**
+ * 设计师变更事件
+ */
+public class DesignerChangeEvent extends EntityChangeEvent {
+
+    public DesignerChangeEvent(Long entityId, ChangeType changeType) {
+        super(entityId, changeType);
+    }
+
+    public static DesignerChangeEvent saved(Long id) {
+        return new DesignerChangeEvent(id, ChangeType.SAVED);
+    }
+
+    public static DesignerChangeEvent deleted(Long id) {
+        return new DesignerChangeEvent(id, ChangeType.DELETED);
+    }
+}
@@ -0,0 +1,27 @@
+package com.homedesign.event;
+
+import lombok.Getter;
+
+/**
+ * 实体变更事件基类
+ * 写操作完成后发布，由搜索索引等内存结构异步消费
+ */
+@Getter
+public abstract class EntityChangeEvent {
+
+    public enum ChangeType {
+        // 新增或修改
+        SAVED,
+        // 删除
+        DELETED
+    }
+
+    private final Long entityId;
+
+    private final ChangeType changeType;
+
+    protected EntityChangeEvent(Long entityId, ChangeType changeType) {
+        this.entityId = entityId;
+        this.changeType = changeType;
+    }
+}
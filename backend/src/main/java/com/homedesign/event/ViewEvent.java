@@ -0,0 +1,25 @@
+package com.homedesign.event;
+
+import com.homedesign.counter.CounterTarget;
+import lombok.Getter;
+
+/**
+ * 详情页浏览事件
+ * 读接口只发布事件，浏览量和独立访客由ViewRecorder在后台批量记录
+ */
+@Getter
+public class ViewEvent {
+
+    private final CounterTarget target;
+
+    private final Long targetId;
+
+    // 访客标识，见RequestUtil.getVisitorKey
+    private final String visitorKey;
+
+    public ViewEvent(CounterTarget target, Long targetId, String visitorKey) {
+        this.target = target;
+        this.targetId = targetId;
+        this.visitorKey = visitorKey;
+    }
+}
@@ -19,6 +19,8 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -36,6 +38,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
+        } else if (STREAM_PATH.equals(request.getRequestURI())) {
+            // 浏览器的EventSource不能设置请求头，通知推送连接允许通过查询参数传token
+            jwtToken = request.getParameter("token");
+        }
+
+        if (jwtToken != null) {
             try {
                 username = jwtUtil.getUsernameFromToken(jwtToken);
                 logger.debug("JWT Token parsed successfully for user: " + username);
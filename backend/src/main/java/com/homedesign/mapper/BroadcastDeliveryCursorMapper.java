@@ -0,0 +1,29 @@
+package com.homedesign.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.homedesign.entity.BroadcastDeliveryCursor;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * 广播通知投递游标Mapper接口
+ */
+@Mapper
+public interface BroadcastDeliveryCursorMapper extends BaseMapper<BroadcastDeliveryCursor> {
+
+    @Insert("INSERT IGNORE INTO broadcast_delivery_cursor (user_id, delivered_up_to, update_time) " +
+            "VALUES (#{userId}, 0, #{updateTime})")
+    int insertIfAbsent(@Param("userId") Long userId, @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 游标仍在from时推进到to，返回0表示已被其他请求推进
+     */
+    @Update("UPDATE broadcast_delivery_cursor SET delivered_up_to = #{to}, update_time = #{updateTime} " +
+            "WHERE user_id = #{userId} AND delivered_up_to = #{from}")
+    int advance(@Param("userId") Long userId, @Param("from") Long from, @Param("to") Long to,
+                @Param("updateTime") LocalDateTime updateTime);
+}
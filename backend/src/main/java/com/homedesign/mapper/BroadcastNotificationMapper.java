@@ -0,0 +1,29 @@
+package com.homedesign.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.homedesign.entity.BroadcastNotification;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 广播通知Mapper接口
+ */
+@Mapper
+public interface BroadcastNotificationMapper extends BaseMapper<BroadcastNotification> {
+
+    @Select("SELECT MAX(id) FROM broadcast_notification WHERE deleted = 0")
+    Long selectMaxId();
+
+    /**
+     * 按ID顺序获取某个位置之后、不早于since发布的广播
+     */
+    @Select("SELECT id, title, content, type, create_time FROM broadcast_notification " +
+            "WHERE id > #{afterId} AND create_time >= #{since} AND deleted = 0 ORDER BY id LIMIT #{limit}")
+    List<BroadcastNotification> selectAfter(@Param("afterId") Long afterId,
+                                            @Param("since") LocalDateTime since,
+                                            @Param("limit") int limit);
+}
@@ -3,7 +3,113 @@ package com.homedesign.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.homedesign.entity.Comment;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface CommentMapper extends BaseMapper<Comment> {
-}
\ No newline at end of file
+
+    /**
+     * 批量获取一批父评论的回复，每个父评论按id顺序最多取limit条
+     */
+    @Select("<script>" +
+            "SELECT id, target_type, target_id, user_id, username, avatar, content, likes, parent_id, reply_to, root_id, depth, path, create_time, update_time FROM (" +
+            "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.parent_id ORDER BY c.id) AS rn FROM comment c " +
+            "WHERE c.deleted = 0 AND c.parent_id IN " +
+            "<foreach collection='parentIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            ") t WHERE t.rn &lt;= #{limit} ORDER BY t.parent_id, t.id" +
+            "</script>")
+    List<Comment> selectRepliesCapped(@Param("parentIds") Collection<Long> parentIds, @Param("limit") int limit);
+
+    /**
+     * 批量统计一批父评论的直接回复数
+     */
+    @Select("<script>" +
+            "SELECT parent_id AS parentId, COUNT(*) AS replyCount FROM comment " +
+            "WHERE deleted = 0 AND parent_id IN " +
+            "<foreach collection='parentIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " GROUP BY parent_id" +
+            "</script>")
+    List<Map<String, Object>> countReplies(@Param("parentIds") Collection<Long> parentIds);
+
+    /**
+     * 批量统计同一类型多个目标的评论总数（含回复）
+     */
+    @Select("<script>" +
+            "SELECT target_id AS targetId, COUNT(*) AS total FROM comment " +
+            "WHERE deleted = 0 AND target_type = #{targetType} AND target_id IN " +
+            "<foreach collection='targetIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " GROUP BY target_id" +
+            "</script>")
+    List<Map<String, Object>> countByTargets(@Param("targetType") String targetType, @Param("targetIds") Collection<Long> targetIds);
+
+    /**
+     * 新评论插入后写入线程信息（路径依赖自增ID）
+     */
+    @Update("UPDATE comment SET root_id = #{rootId}, depth = #{depth}, path = #{path}, update_time = update_time WHERE id = #{id}")
+    int initThread(@Param("id") Long id, @Param("rootId") Long rootId, @Param("depth") Integer depth, @Param("path") String path);
+
+    /**
+     * 按先序获取子树中路径位于 (afterPath, pathEnd) 的评论，即path索引上的一段范围扫描
+     */
+    @Select("SELECT * FROM comment WHERE deleted = 0 AND path > #{afterPath} AND path < #{pathEnd} " +
+            "ORDER BY path LIMIT #{limit}")
+    List<Comment> selectSubtree(@Param("afterPath") String afterPath, @Param("pathEnd") String pathEnd, @Param("limit") int limit);
+
+    /**
+     * 批量统计一批顶级评论所在线程的回复总数（不含顶级评论自身）
+     */
+    @Select("<script>" +
+            "SELECT root_id AS rootId, COUNT(*) AS threadCount FROM comment " +
+            "WHERE deleted = 0 AND depth &gt; 0 AND root_id IN " +
+            "<foreach collection='rootIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " GROUP BY root_id" +
+            "</script>")
+    List<Map<String, Object>> countThreads(@Param("rootIds") Collection<Long> rootIds);
+
+    /**
+     * 按路径顺序取子树中位于 (afterPath, pathEnd) 的一批评论，只查id和path，走path索引
+     */
+    @Select("SELECT id, path FROM comment WHERE deleted = 0 AND path > #{afterPath} AND path < #{pathEnd} " +
+            "ORDER BY path LIMIT #{limit}")
+    List<Comment> selectSubtreeKeys(@Param("afterPath") String afterPath, @Param("pathEnd") String pathEnd, @Param("limit") int limit);
+
+    /**
+     * 一批父评论的全部直接回复ID
+     */
+    @Select("<script>" +
+            "SELECT id FROM comment WHERE deleted = 0 AND parent_id IN " +
+            "<foreach collection='parentIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<Long> selectChildIds(@Param("parentIds") Collection<Long> parentIds);
+
+    /**
+     * 批量逻辑删除，返回实际删除的行数
+     */
+    @Update("<script>" +
+            "UPDATE comment SET deleted = 1 WHERE deleted = 0 AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int softDeleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 补全历史数据：父评论不存在的评论作为线程根
+     */
+    @Update("UPDATE comment c LEFT JOIN comment p ON c.parent_id = p.id " +
+            "SET c.root_id = c.id, c.depth = 0, c.path = CONCAT(LPAD(c.id, 10, '0'), '/'), c.update_time = c.update_time " +
+            "WHERE c.path IS NULL AND p.id IS NULL")
+    int initRootPaths();
+
+    /**
+     * 补全历史数据：父评论已有路径的评论接到父路径之后，每次至少推进一层
+     */
+    @Update("UPDATE comment c JOIN comment p ON c.parent_id = p.id " +
+            "SET c.root_id = p.root_id, c.depth = p.depth + 1, c.path = CONCAT(p.path, LPAD(c.id, 10, '0'), '/'), c.update_time = c.update_time " +
+            "WHERE c.path IS NULL AND p.path IS NOT NULL")
+    int extendChildPaths();
+}
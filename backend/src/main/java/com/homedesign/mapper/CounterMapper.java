@@ -0,0 +1,24 @@
+package com.homedesign.mapper;
+
+import com.homedesign.counter.CounterDelta;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 计数字段批量累加Mapper接口，各实体表共用
+ */
+@Mapper
+public interface CounterMapper {
+
+    /**
+     * 批量累加计数字段，table、column只接受CounterTarget、CounterField中的表名和列名；结果不小于0
+     * 显式保留update_time，避免ON UPDATE把计数变化当成内容修改
+     */
+    @Update("<script>UPDATE ${table} SET ${column} = GREATEST(COALESCE(${column}, 0) + CASE id " +
+            "<foreach collection='list' item='item'>WHEN #{item.id} THEN #{item.delta} </foreach>END, 0), update_time = update_time " +
+            "WHERE id IN <foreach collection='list' item='item' open='(' separator=',' close=')'>#{item.id}</foreach></script>")
+    int addCounters(@Param("table") String table, @Param("column") String column, @Param("list") List<CounterDelta> deltas);
+}
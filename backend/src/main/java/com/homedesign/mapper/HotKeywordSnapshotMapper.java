@@ -0,0 +1,42 @@
+package com.homedesign.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.homedesign.entity.HotKeywordSnapshot;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 热门关键词快照Mapper接口
+ */
+@Mapper
+public interface HotKeywordSnapshotMapper extends BaseMapper<HotKeywordSnapshot> {
+
+    /**
+     * 获取最近一次快照
+     */
+    @Select("SELECT * FROM hot_keyword_snapshot WHERE snapshot_time = (SELECT MAX(snapshot_time) FROM hot_keyword_snapshot)")
+    List<HotKeywordSnapshot> selectLatest();
+
+    /**
+     * 删除指定时间之前的旧快照
+     */
+    @Delete("DELETE FROM hot_keyword_snapshot WHERE snapshot_time < #{before}")
+    int deleteBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 批量写入快照
+     */
+    @Insert("<script>" +
+            "INSERT INTO hot_keyword_snapshot (window_name, bucket_start, keyword, hit_count, snapshot_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.windowName}, #{item.bucketStart}, #{item.keyword}, #{item.hitCount}, #{item.snapshotTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<HotKeywordSnapshot> snapshots);
+}
@@ -2,8 +2,71 @@ package com.homedesign.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.homedesign.entity.Notification;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface NotificationMapper extends BaseMapper<Notification> {
-}
\ No newline at end of file
+
+    /**
+     * 多行插入一批通知并回填ID
+     */
+    @Insert("<script>" +
+            "INSERT INTO notification (user_id, title, content, type, target_type, target_id, is_read, create_time, update_time, deleted) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.userId}, #{item.title}, #{item.content}, #{item.type}, #{item.targetType}, #{item.targetId}, " +
+            "#{item.isRead}, #{item.createTime}, #{item.updateTime}, 0)" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
+    int insertBatch(@Param("list") List<Notification> notifications);
+
+    /**
+     * 仅当通知仍未读时标记为已读，返回实际更新的行数
+     */
+    @Update("UPDATE notification SET is_read = 1, read_time = #{readTime}, update_time = #{readTime} " +
+            "WHERE id = #{id} AND is_read = 0 AND deleted = 0")
+    int markReadIfUnread(@Param("id") Long id, @Param("readTime") LocalDateTime readTime);
+
+    /**
+     * 批量统计一批用户的未读通知数，已读游标以内的通知不计入
+     */
+    @Select("<script>" +
+            "SELECT n.user_id AS userId, COUNT(*) AS unread FROM notification n " +
+            "LEFT JOIN notification_read_cursor c ON c.user_id = n.user_id " +
+            "WHERE n.deleted = 0 AND n.is_read = 0 AND n.id &gt; IFNULL(c.read_up_to, 0) AND n.user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " GROUP BY n.user_id" +
+            "</script>")
+    List<Map<String, Object>> countUnreadByUsers(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 用户最新一条通知的ID（包括已删除的），用于推进已读游标
+     */
+    @Select("SELECT MAX(id) FROM notification WHERE user_id = #{userId}")
+    Long selectMaxId(@Param("userId") Long userId);
+
+    /**
+     * 把已读游标以内仍标记为未读的通知补标为已读，每次最多limit条
+     */
+    @Update("UPDATE notification SET is_read = 1, read_time = #{readTime}, update_time = #{readTime} " +
+            "WHERE user_id = #{userId} AND is_read = 0 AND id <= #{upTo} AND deleted = 0 LIMIT #{limit}")
+    int compactRead(@Param("userId") Long userId, @Param("upTo") Long upTo,
+                    @Param("readTime") LocalDateTime readTime, @Param("limit") int limit);
+
+    /**
+     * 按类型和已读状态统计用户的通知数，afterCursor为其中ID在已读游标之后的条数
+     */
+    @Select("SELECT type, is_read AS isRead, COUNT(*) AS total, SUM(id > #{cursor}) AS afterCursor FROM notification " +
+            "WHERE user_id = #{userId} AND deleted = 0 GROUP BY type, is_read")
+    List<Map<String, Object>> countByTypeAndRead(@Param("userId") Long userId, @Param("cursor") long cursor);
+}
@@ -0,0 +1,38 @@
+package com.homedesign.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.homedesign.entity.NotificationReadCursor;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 通知已读游标Mapper接口
+ */
+@Mapper
+public interface NotificationReadCursorMapper extends BaseMapper<NotificationReadCursor> {
+
+    /**
+     * 推进已读游标，游标只前进不后退
+     */
+    @Insert("INSERT INTO notification_read_cursor (user_id, read_up_to, compacted_up_to, update_time) " +
+            "VALUES (#{userId}, #{upTo}, 0, #{updateTime}) " +
+            "ON DUPLICATE KEY UPDATE read_up_to = GREATEST(read_up_to, VALUES(read_up_to)), update_time = VALUES(update_time)")
+    int advance(@Param("userId") Long userId, @Param("upTo") Long upTo, @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 获取一批is_read标记尚未同步到游标位置的用户
+     */
+    @Select("SELECT user_id, read_up_to, compacted_up_to, update_time FROM notification_read_cursor " +
+            "WHERE compacted_up_to < read_up_to LIMIT #{limit}")
+    List<NotificationReadCursor> selectUncompacted(@Param("limit") int limit);
+
+    @Update("UPDATE notification_read_cursor SET compacted_up_to = #{upTo} " +
+            "WHERE user_id = #{userId} AND compacted_up_to < #{upTo}")
+    int markCompacted(@Param("userId") Long userId, @Param("upTo") Long upTo);
+}
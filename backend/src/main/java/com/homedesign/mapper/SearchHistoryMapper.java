@@ -2,7 +2,9 @@ package com.homedesign.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.homedesign.entity.SearchHistory;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
@@ -24,4 +26,21 @@ public interface SearchHistoryMapper extends BaseMapper<SearchHistory> {
      */
     @Select("SELECT keyword, COUNT(*) as count FROM search_history WHERE deleted = 0 GROUP BY keyword ORDER BY count DESC LIMIT 10")
     List<SearchHistory> getHotKeywords();
+    
+    /**
+     * 按累计搜索次数获取关键词，用于构建搜索建议
+     */
+    @Select("SELECT keyword, SUM(IFNULL(frequency, 1)) AS frequency FROM search_history WHERE deleted = 0 GROUP BY keyword ORDER BY frequency DESC LIMIT #{limit}")
+    List<SearchHistory> getKeywordFrequencies(int limit);
+    
+    /**
+     * 批量写入搜索历史
+     */
+    @Insert("<script>" +
+            "INSERT INTO search_history (keyword, search_type, user_id, search_time, frequency) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.keyword}, #{item.searchType}, #{item.userId}, #{item.searchTime}, #{item.frequency})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<SearchHistory> histories);
 }
\ No newline at end of file
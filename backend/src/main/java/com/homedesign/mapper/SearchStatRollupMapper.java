@@ -0,0 +1,68 @@
+package com.homedesign.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.homedesign.entity.SearchStatRollup;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 搜索统计汇总Mapper接口
+ */
+@Mapper
+public interface SearchStatRollupMapper extends BaseMapper<SearchStatRollup> {
+
+    /**
+     * 写入或覆盖一个时间桶的汇总；需要累加到已有汇总时先用selectBucket读出合并
+     */
+    @Insert("INSERT INTO search_stat_rollup (granularity, bucket_start, total_searches, zero_result_searches, type_counts, top_keywords) " +
+            "VALUES (#{granularity}, #{bucketStart}, #{totalSearches}, #{zeroResultSearches}, #{typeCounts}, #{topKeywords}) " +
+            "ON DUPLICATE KEY UPDATE total_searches = VALUES(total_searches), zero_result_searches = VALUES(zero_result_searches), " +
+            "type_counts = VALUES(type_counts), top_keywords = VALUES(top_keywords)")
+    int upsert(SearchStatRollup rollup);
+
+    /**
+     * 获取一个时间桶的汇总，不存在时返回null
+     */
+    @Select("SELECT * FROM search_stat_rollup WHERE granularity = #{granularity} AND bucket_start = #{bucketStart}")
+    SearchStatRollup selectBucket(@Param("granularity") String granularity, @Param("bucketStart") LocalDateTime bucketStart);
+
+    /**
+     * 指定粒度最新的时间桶，没有汇总时返回null
+     */
+    @Select("SELECT MAX(bucket_start) FROM search_stat_rollup WHERE granularity = #{granularity}")
+    LocalDateTime selectLatestBucketStart(@Param("granularity") String granularity);
+
+    /**
+     * 指定粒度在 [from, to) 内最早的时间桶，没有汇总时返回null
+     */
+    @Select("SELECT MIN(bucket_start) FROM search_stat_rollup WHERE granularity = #{granularity} AND bucket_start >= #{from} AND bucket_start < #{to}")
+    LocalDateTime selectEarliestBucketStart(@Param("granularity") String granularity,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    /**
+     * 获取指定粒度在 [from, to) 内的汇总
+     */
+    @Select("SELECT * FROM search_stat_rollup WHERE granularity = #{granularity} AND bucket_start >= #{from} AND bucket_start < #{to} ORDER BY bucket_start")
+    List<SearchStatRollup> selectRange(@Param("granularity") String granularity,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    /**
+     * 指定时间之前按天汇总的搜索总数
+     */
+    @Select("SELECT COALESCE(SUM(total_searches), 0) FROM search_stat_rollup WHERE granularity = 'DAY' AND bucket_start < #{before}")
+    long sumDailyTotalBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 清理过期的细粒度汇总
+     */
+    @Delete("DELETE FROM search_stat_rollup WHERE granularity = #{granularity} AND bucket_start < #{before}")
+    int deleteBefore(@Param("granularity") String granularity, @Param("before") LocalDateTime before);
+}
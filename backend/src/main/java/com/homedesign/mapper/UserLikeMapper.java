@@ -0,0 +1,22 @@
+package com.homedesign.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.homedesign.entity.UserLike;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 点赞记录Mapper接口
+ */
+@Mapper
+public interface UserLikeMapper extends BaseMapper<UserLike> {
+
+    /**
+     * 按id顺序分批读取点赞记录，用于启动时重放
+     */
+    @Select("SELECT id, user_id, target_type, target_id, liked FROM user_like WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<UserLike> selectAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+}
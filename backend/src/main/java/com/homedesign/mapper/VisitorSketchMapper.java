@@ -0,0 +1,57 @@
+package com.homedesign.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.homedesign.entity.VisitorSketch;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 独立访客草图Mapper接口
+ */
+@Mapper
+public interface VisitorSketchMapper extends BaseMapper<VisitorSketch> {
+
+    /**
+     * 批量写入或覆盖草图（草图只增不减，直接覆盖即可）
+     */
+    @Insert("<script>" +
+            "INSERT INTO visitor_sketch (target_type, target_id, stat_date, registers, update_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.targetType}, #{item.targetId}, #{item.statDate}, #{item.registers}, #{item.updateTime})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE registers = VALUES(registers), update_time = VALUES(update_time)" +
+            "</script>")
+    int upsertBatch(@Param("list") List<VisitorSketch> sketches);
+
+    /**
+     * 获取一批实体在 [from, to] 内的草图
+     */
+    @Select("<script>" +
+            "SELECT target_type, target_id, stat_date, registers FROM visitor_sketch " +
+            "WHERE target_type = #{targetType} AND stat_date BETWEEN #{from} AND #{to} AND target_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<VisitorSketch> selectRange(@Param("targetType") String targetType,
+                                    @Param("ids") Collection<Long> ids,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    /**
+     * 获取某一天的全部草图
+     */
+    @Select("SELECT target_type, target_id, stat_date, registers FROM visitor_sketch WHERE stat_date = #{date}")
+    List<VisitorSketch> selectByDate(@Param("date") LocalDate date);
+
+    /**
+     * 清理过期草图
+     */
+    @Delete("DELETE FROM visitor_sketch WHERE stat_date < #{before}")
+    int deleteBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,215 @@
+package com.homedesign.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick多模式匹配自动机
+ * 由已归一化的词条一次构建，构建后不可变，可被多个线程同时使用；
+ * 扫描时每个字符只做一次状态转移（失配沿失败链回退，均摊常数），总耗时与文本长度加命中数成正比，与词条数量无关。
+ * 每个状态的出边按字符排序存放在数组中，转移时二分查找
+ */
+public class AhoCorasick {
+
+    private static final char[] NO_KEYS = new char[0];
+
+    private static final int[] NO_TARGETS = new int[0];
+
+    // 每个状态的出边字符和目标状态
+    private final char[][] keys;
+
+    private final int[][] targets;
+
+    private final int[] fail;
+
+    // 在该状态结束的词条下标，-1表示没有
+    private final int[] word;
+
+    // 沿失败链最近的、有词条结束的状态，-1表示没有
+    private final int[] outputLink;
+
+    // 词条长度（归一化后的字符数）
+    private final int[] wordLength;
+
+    private AhoCorasick(char[][] keys, int[][] targets, int[] fail, int[] word, int[] outputLink, int[] wordLength) {
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.word = word;
+        this.outputLink = outputLink;
+        this.wordLength = wordLength;
+    }
+
+    /**
+     * 构建自动机，第i个词条命中时回报下标i；空词条被忽略
+     */
+    public static AhoCorasick build(List<String> words) {
+        List<Map<Character, Integer>> edges = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        edges.add(new HashMap<>());
+        terminal.add(-1);
+        int[] wordLength = new int[words.size()];
+
+        for (int w = 0; w < words.size(); w++) {
+            String text = words.get(w);
+            wordLength[w] = text.length();
+            if (text.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                Integer next = edges.get(state).get(text.charAt(i));
+                if (next == null) {
+                    next = edges.size();
+                    edges.add(new HashMap<>());
+                    terminal.add(-1);
+                    edges.get(state).put(text.charAt(i), next);
+                }
+                state = next;
+            }
+            if (terminal.get(state) < 0) {
+                terminal.set(state, w);
+            }
+        }
+
+        int size = edges.size();
+        char[][] keys = new char[size][];
+        int[][] targets = new int[size][];
+        int[] word = new int[size];
+        for (int s = 0; s < size; s++) {
+            Map<Character, Integer> out = edges.get(s);
+            if (out.isEmpty()) {
+                keys[s] = NO_KEYS;
+                targets[s] = NO_TARGETS;
+            } else {
+                keys[s] = new char[out.size()];
+                int i = 0;
+                for (Character c : out.keySet()) {
+                    keys[s][i++] = c;
+                }
+                Arrays.sort(keys[s]);
+                targets[s] = new int[keys[s].length];
+                for (i = 0; i < keys[s].length; i++) {
+                    targets[s][i] = out.get(keys[s][i]);
+                }
+            }
+            word[s] = terminal.get(s);
+        }
+
+        // 按层次计算失败链：子状态的失败状态是父状态失败链上第一个有同字符出边的状态
+        int[] fail = new int[size];
+        int[] outputLink = new int[size];
+        outputLink[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            outputLink[child] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int child = targets[state][i];
+                int f = fail[state];
+                int next;
+                while ((next = step(keys, targets, f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = next >= 0 ? next : 0;
+                outputLink[child] = word[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new AhoCorasick(keys, targets, fail, word, outputLink, wordLength);
+    }
+
+    /**
+     * 找出全部命中（允许重叠），text为已归一化的字符，命中位置为text中的下标
+     */
+    public List<Match> findAll(char[] text, int length) {
+        List<Match> matches = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            state = transition(state, text[i]);
+            for (int s = word[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                int w = word[s];
+                matches.add(new Match(i - wordLength[w] + 1, i + 1, w));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 是否有任一命中，遇到第一个即返回
+     */
+    public boolean matches(char[] text, int length) {
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            state = transition(state, text[i]);
+            if (word[state] >= 0 || outputLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int stateCount() {
+        return fail.length;
+    }
+
+    // 私有辅助方法
+
+    private int transition(int state, char c) {
+        while (true) {
+            int next = step(keys, targets, state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private static int step(char[][] keys, int[][] targets, int state, char c) {
+        int index = Arrays.binarySearch(keys[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    /**
+     * 一次命中：[start, end) 为归一化文本中的范围
+     */
+    public static class Match {
+
+        private final int start;
+
+        private final int end;
+
+        private final int wordIndex;
+
+        Match(int start, int end, int wordIndex) {
+            this.start = start;
+            this.end = end;
+            this.wordIndex = wordIndex;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public int getWordIndex() {
+            return wordIndex;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.homedesign.moderation;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 内容审查用的逐字归一化
+ * 全角转半角、统一小写、繁体转简体，空白和标点等干扰字符返回0表示跳过；
+ * 每个字符独立映射，匹配位置可以直接对应回原文
+ */
+public final class ContentNormalizer {
+
+    private static final String TABLE = "/moderation/traditional-simplified.txt";
+
+    // 基本多文种平面内的繁简映射，未收录的字符为0
+    private static final char[] SIMPLIFIED = new char[0x10000];
+
+    static {
+        InputStream in = ContentNormalizer.class.getResourceAsStream(TABLE);
+        if (in == null) {
+            System.err.println("未找到繁简映射表: " + TABLE);
+        } else {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("#")) {
+                        continue;
+                    }
+                    for (int i = 0; i + 1 < line.length(); i += 2) {
+                        SIMPLIFIED[line.charAt(i)] = line.charAt(i + 1);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("加载繁简映射表失败: " + e.getMessage());
+            }
+        }
+    }
+
+    private ContentNormalizer() {
+    }
+
+    /**
+     * 归一化单个字符，干扰字符返回0
+     */
+    public static char normalize(char c) {
+        if (c == '　') {
+            return 0;
+        }
+        if (c >= '！' && c <= '～') {
+            c = (char) (c - 0xFEE0);
+        }
+        if (!Character.isLetterOrDigit(c)) {
+            return 0;
+        }
+        char simplified = SIMPLIFIED[c];
+        if (simplified != 0) {
+            return simplified;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * 归一化整段文本并去掉干扰字符，用于词库条目
+     */
+    public static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            if (c != 0) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,223 @@
+package com.homedesign.moderation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 敏感词过滤
+ * 内置词库加上可选的外部词库文件编译成一个Aho-Corasick自动机，每段文本只需线性扫描一遍；
+ * 文本与词条使用同样的逐字归一化，能识别全角、繁体和夹杂空白标点的变体。
+ * 外部词库文件修改后定时重新编译，新自动机整体替换旧的，扫描中的请求不受影响
+ */
+@Component
+public class SensitiveWordFilter {
+
+    private static final String BUILTIN_WORDS = "/moderation/sensitive-words.txt";
+
+    @Value("${moderation.words-file:}")
+    private String wordsFile;
+
+    private volatile Dictionary dictionary = new Dictionary(Collections.emptyList());
+
+    private volatile long loadedModified = -1;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * 重新加载词库，返回词条数
+     */
+    public synchronized int reload() {
+        Set<String> words = new LinkedHashSet<>();
+        try (InputStream in = SensitiveWordFilter.class.getResourceAsStream(BUILTIN_WORDS)) {
+            if (in != null) {
+                readWords(new InputStreamReader(in, StandardCharsets.UTF_8), words);
+            }
+        } catch (Exception e) {
+            System.err.println("加载内置敏感词库失败: " + e.getMessage());
+        }
+
+        File file = externalFile();
+        long modified = -1;
+        if (file != null) {
+            modified = file.lastModified();
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                readWords(reader, words);
+            } catch (Exception e) {
+                System.err.println("加载敏感词库文件失败，保留当前词库: " + e.getMessage());
+                return dictionary.words.size();
+            }
+        }
+
+        dictionary = new Dictionary(new ArrayList<>(words));
+        loadedModified = modified;
+        System.out.println("敏感词库加载完成，共 " + words.size() + " 个词条");
+        return words.size();
+    }
+
+    /**
+     * 外部词库文件有变化时重新加载
+     */
+    @Scheduled(fixedDelayString = "${moderation.reload-interval:30000}")
+    public void reloadIfModified() {
+        File file = externalFile();
+        long modified = file != null ? file.lastModified() : -1;
+        if (modified != loadedModified) {
+            reload();
+        }
+    }
+
+    public boolean containsSensitive(String... texts) {
+        Dictionary current = dictionary;
+        for (String text : texts) {
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            Normalized normalized = current.normalize(text);
+            if (current.automaton.matches(normalized.chars, normalized.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 命中的词条（词库中的原始写法），按首次出现顺序去重
+     */
+    public List<String> findWords(String... texts) {
+        Dictionary current = dictionary;
+        Set<String> found = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            Normalized normalized = current.normalize(text);
+            for (AhoCorasick.Match match : current.automaton.findAll(normalized.chars, normalized.length)) {
+                found.add(current.words.get(match.getWordIndex()));
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * 把命中部分在原文中的字符替换为*，夹在词中间的干扰字符一并替换
+     */
+    public String mask(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        Dictionary current = dictionary;
+        Normalized normalized = current.normalize(text);
+        List<AhoCorasick.Match> matches = current.automaton.findAll(normalized.chars, normalized.length);
+        if (matches.isEmpty()) {
+            return text;
+        }
+        char[] masked = text.toCharArray();
+        for (AhoCorasick.Match match : matches) {
+            int from = normalized.positions[match.getStart()];
+            int to = normalized.positions[match.getEnd() - 1];
+            for (int i = from; i <= to; i++) {
+                masked[i] = '*';
+            }
+        }
+        return new String(masked);
+    }
+
+    public Map<String, Object> stats() {
+        Dictionary current = dictionary;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("words", current.words.size());
+        stats.put("states", current.automaton.stateCount());
+        stats.put("wordsFile", wordsFile);
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    private File externalFile() {
+        if (wordsFile == null || wordsFile.trim().isEmpty()) {
+            return null;
+        }
+        File file = new File(wordsFile.trim());
+        return file.isFile() ? file : null;
+    }
+
+    private static void readWords(Reader source, Set<String> words) throws Exception {
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                words.add(line);
+            }
+        }
+    }
+
+    /**
+     * 一个版本的词库及其自动机，不可变
+     */
+    private static class Dictionary {
+
+        private final List<String> words;
+
+        private final AhoCorasick automaton;
+
+        Dictionary(List<String> words) {
+            this.words = words;
+            List<String> normalized = new ArrayList<>(words.size());
+            for (String word : words) {
+                normalized.add(ContentNormalizer.normalize(word));
+            }
+            this.automaton = AhoCorasick.build(normalized);
+        }
+
+        Normalized normalize(String text) {
+            Normalized normalized = new Normalized(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = ContentNormalizer.normalize(text.charAt(i));
+                if (c != 0) {
+                    normalized.chars[normalized.length] = c;
+                    normalized.positions[normalized.length] = i;
+                    normalized.length++;
+                }
+            }
+            return normalized;
+        }
+    }
+
+    /**
+     * 去掉干扰字符后的归一化文本，positions记录每个字符在原文中的下标
+     */
+    private static class Normalized {
+
+        private final char[] chars;
+
+        private final int[] positions;
+
+        private int length;
+
+        Normalized(int capacity) {
+            this.chars = new char[capacity];
+            this.positions = new int[capacity];
+        }
+    }
+}
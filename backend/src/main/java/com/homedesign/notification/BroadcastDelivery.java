@@ -0,0 +1,177 @@
+package com.homedesign.notification;
+
+import com.homedesign.entity.BroadcastDeliveryCursor;
+import com.homedesign.entity.BroadcastNotification;
+import com.homedesign.entity.Notification;
+import com.homedesign.mapper.BroadcastDeliveryCursorMapper;
+import com.homedesign.mapper.BroadcastNotificationMapper;
+import com.homedesign.mapper.NotificationMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 广播通知投递（读时扇出）
+ * 发布全局公告只写一行广播，不为每个用户插入通知；用户读取通知时，把投递游标之后的广播
+ * 写成该用户的个人通知，之后的分页、已读、删除都走个人通知的索引。不活跃的用户不产生任何数据。
+ * 最新广播ID和各用户的投递游标缓存在内存中，没有新广播时读取路径不访问数据库；
+ * 游标用条件更新推进，并发请求中只有一个会投递，同一条广播不会重复出现；
+ * 推进游标和写通知在同一事务中，写入失败时游标一并回滚，下次读取重新投递
+ */
+@Component
+public class BroadcastDelivery {
+
+    public static final String TARGET_TYPE = "BROADCAST";
+
+    @Autowired
+    private BroadcastNotificationMapper broadcastMapper;
+
+    @Autowired
+    private BroadcastDeliveryCursorMapper cursorMapper;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Value("${notification.broadcast.capacity:10000}")
+    private int capacity;
+
+    @Value("${notification.broadcast.max-age-days:30}")
+    private int maxAgeDays;
+
+    @Value("${notification.broadcast.batch-size:100}")
+    private int batchSize;
+
+    private final LinkedHashMap<Long, Long> cursors = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    // 最新广播ID，-1表示尚未加载
+    private volatile long latestId = -1;
+
+    private long delivered;
+
+    /**
+     * 发布一条广播
+     */
+    public BroadcastNotification publish(String title, String content, String type) {
+        BroadcastNotification broadcast = new BroadcastNotification();
+        broadcast.setTitle(title);
+        broadcast.setContent(content);
+        broadcast.setType(type != null && !type.trim().isEmpty() ? type : "SYSTEM");
+        broadcast.setCreateTime(LocalDateTime.now());
+        broadcastMapper.insert(broadcast);
+        synchronized (this) {
+            latestId = Math.max(latestId(), broadcast.getId());
+        }
+        return broadcast;
+    }
+
+    /**
+     * 把尚未投递给用户的广播写成个人通知，返回新写入的通知
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Notification> deliver(Long userId) {
+        long latest = latestId();
+        long after = cursor(userId);
+        if (after >= latest) {
+            return Collections.emptyList();
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusDays(maxAgeDays);
+        List<BroadcastNotification> broadcasts = broadcastMapper.selectAfter(after, since, batchSize);
+        // 取满一批时只推进到这批为止，剩下的下次读取时再投递
+        long to = latest;
+        if (!broadcasts.isEmpty()) {
+            long last = broadcasts.get(broadcasts.size() - 1).getId();
+            to = broadcasts.size() < batchSize ? Math.max(latest, last) : last;
+        }
+
+        // 条件更新锁住游标行，推进失败说明其他请求已经投递
+        if (cursorMapper.advance(userId, after, to, LocalDateTime.now()) == 0) {
+            synchronized (this) {
+                cursors.remove(userId);
+            }
+            return Collections.emptyList();
+        }
+
+        List<Notification> notifications = new ArrayList<>(broadcasts.size());
+        for (BroadcastNotification broadcast : broadcasts) {
+            Notification notification = new Notification();
+            notification.setUserId(userId);
+            notification.setTitle(broadcast.getTitle());
+            notification.setContent(broadcast.getContent());
+            notification.setType(broadcast.getType());
+            notification.setTargetType(TARGET_TYPE);
+            notification.setTargetId(broadcast.getId());
+            notification.setIsRead(false);
+            notification.setCreateTime(broadcast.getCreateTime());
+            notification.setUpdateTime(LocalDateTime.now());
+            notifications.add(notification);
+        }
+        if (!notifications.isEmpty()) {
+            notificationMapper.insertBatch(notifications);
+        }
+        remember(userId, to);
+        synchronized (this) {
+            delivered += notifications.size();
+        }
+        return notifications;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("latestId", latestId);
+        stats.put("cursors", cursors.size());
+        stats.put("delivered", delivered);
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    private long latestId() {
+        if (latestId < 0) {
+            Long max = broadcastMapper.selectMaxId();
+            synchronized (this) {
+                latestId = Math.max(latestId, max != null ? max : 0L);
+            }
+        }
+        return latestId;
+    }
+
+    /**
+     * 用户的投递游标，首次访问时创建
+     */
+    private long cursor(Long userId) {
+        synchronized (this) {
+            Long cursor = cursors.get(userId);
+            if (cursor != null) {
+                return cursor;
+            }
+        }
+        BroadcastDeliveryCursor row = cursorMapper.selectById(userId);
+        if (row == null) {
+            cursorMapper.insertIfAbsent(userId, LocalDateTime.now());
+            row = cursorMapper.selectById(userId);
+        }
+        long loaded = row != null && row.getDeliveredUpTo() != null ? row.getDeliveredUpTo() : 0L;
+        return remember(userId, loaded);
+    }
+
+    private synchronized long remember(Long userId, long cursor) {
+        Long current = cursors.get(userId);
+        long value = current != null ? Math.max(current, cursor) : cursor;
+        cursors.put(userId, value);
+        return value;
+    }
+}
@@ -0,0 +1,271 @@
+package com.homedesign.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 通知推送（Server-Sent Events）
+ * 连接建立后请求立即返回，空闲连接不占用Tomcat工作线程；每个连接有一个有界发送缓冲区，满时丢弃最旧的消息。
+ * 写通知的线程只把消息放入缓冲区，由推送线程池异步发送，慢客户端不会拖住写入方；
+ * 定时发送心跳注释保持连接，发送失败的连接直接移除，客户端EventSource会自动重连
+ */
+@Component
+public class NotificationPushHub {
+
+    @Autowired
+    @Qualifier("pushExecutor")
+    private Executor pushExecutor;
+
+    @Value("${notification.push.timeout:1800000}")
+    private long timeout;
+
+    @Value("${notification.push.buffer-size:100}")
+    private int bufferSize;
+
+    @Value("${notification.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    private final Map<Long, List<PushSession>> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 建立连接，超过单用户连接上限时关闭最早的连接
+     */
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        PushSession session = new PushSession(userId, emitter);
+        List<PushSession> userSessions = sessions.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>());
+        userSessions.add(session);
+        while (userSessions.size() > maxConnectionsPerUser) {
+            close(userSessions.get(0));
+        }
+
+        emitter.onCompletion(() -> remove(session));
+        emitter.onTimeout(() -> close(session));
+        emitter.onError(e -> remove(session));
+        return emitter;
+    }
+
+    public boolean isOnline(Long userId) {
+        List<PushSession> userSessions = sessions.get(userId);
+        return userSessions != null && !userSessions.isEmpty();
+    }
+
+    public Set<Long> onlineUsers() {
+        return new HashSet<>(sessions.keySet());
+    }
+
+    public void push(Long userId, String event, Object data) {
+        push(userId, event, null, () -> data);
+    }
+
+    /**
+     * 向用户的所有连接推送事件；用户不在线时直接返回，data在推送线程中才求值
+     */
+    public void push(Long userId, String event, String id, Supplier<?> data) {
+        List<PushSession> userSessions = userId != null ? sessions.get(userId) : null;
+        if (userSessions == null || userSessions.isEmpty()) {
+            return;
+        }
+        PushMessage message = new PushMessage(event, id, data);
+        for (PushSession session : userSessions) {
+            session.offer(message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.push.heartbeat-interval:25000}")
+    public void heartbeat() {
+        PushMessage message = new PushMessage(null, null, null);
+        for (List<PushSession> userSessions : sessions.values()) {
+            for (PushSession session : userSessions) {
+                session.offer(message);
+            }
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        for (List<PushSession> userSessions : sessions.values()) {
+            for (PushSession session : userSessions) {
+                close(session);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int connections = 0;
+        for (List<PushSession> userSessions : sessions.values()) {
+            connections += userSessions.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", sessions.size());
+        stats.put("connections", connections);
+        stats.put("sent", sent.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    private void remove(PushSession session) {
+        session.closed = true;
+        sessions.computeIfPresent(session.userId, (k, list) -> {
+            list.remove(session);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private void close(PushSession session) {
+        remove(session);
+        try {
+            session.emitter.complete();
+        } catch (Exception ignored) {
+            // 连接已断开
+        }
+    }
+
+    private static class PushMessage {
+
+        // 为null时表示心跳
+        private final String event;
+
+        private final String id;
+
+        private final Supplier<?> data;
+
+        PushMessage(String event, String id, Supplier<?> data) {
+            this.event = event;
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    private class PushSession {
+
+        private final Long userId;
+
+        private final SseEmitter emitter;
+
+        private final Deque<PushMessage> buffer = new ArrayDeque<>();
+
+        // 是否已有发送任务在排队或执行，保证同一连接同时只有一个线程在写
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        PushSession(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(PushMessage message) {
+            if (closed) {
+                return;
+            }
+            synchronized (buffer) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    dropped.incrementAndGet();
+                }
+                buffer.addLast(message);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                pushExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 线程池已满，消息留在缓冲区，下一条消息或心跳时再尝试
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                PushMessage message;
+                while (!closed && (message = poll()) != null) {
+                    send(message);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // 释放标记后可能有新消息进来，需要再调度一次
+            boolean pending;
+            synchronized (buffer) {
+                pending = !buffer.isEmpty();
+            }
+            if (pending && !closed) {
+                schedule();
+            }
+        }
+
+        private PushMessage poll() {
+            synchronized (buffer) {
+                return buffer.pollFirst();
+            }
+        }
+
+        private void send(PushMessage message) {
+            SseEmitter.SseEventBuilder builder;
+            if (message.event == null) {
+                builder = SseEmitter.event().comment("heartbeat");
+            } else {
+                // 数据求值失败（如查询未读数时数据库异常）只丢弃这条消息，连接本身仍然可用
+                Object data;
+                try {
+                    data = message.data.get();
+                } catch (Exception e) {
+                    dropped.incrementAndGet();
+                    System.err.println("推送数据生成失败，用户: " + userId + "，" + e.getMessage());
+                    return;
+                }
+                builder = SseEmitter.event().name(message.event).data(data);
+                if (message.id != null) {
+                    builder.id(message.id);
+                }
+            }
+            try {
+                emitter.send(builder);
+                sent.incrementAndGet();
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开或连接已结束
+                closed = true;
+                remove(this);
+                emitter.completeWithError(e);
+            } catch (RuntimeException e) {
+                // 消息序列化失败，只丢弃这条消息
+                dropped.incrementAndGet();
+                System.err.println("推送消息发送失败，用户: " + userId + "，" + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.homedesign.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 用户通知统计
+ * 按通知类型记录总数和未读数，首次查询时用一次分组聚合加载，此后由通知的写入、已读、删除路径增减，
+ * 活跃用户查询统计只读内存。按用户LRU淘汰；与未读数缓存一样按用户分段记录写入版本，
+ * 加载期间该段有写入时放弃结果，避免用旧值覆盖新的增减
+ */
+@Component
+public class NotificationStatsStore {
+
+    private static final int STRIPES = 64;
+
+    // 计数数组下标
+    public static final int TOTAL = 0;
+
+    public static final int UNREAD = 1;
+
+    @Value("${notification.stats.capacity:10000}")
+    private int capacity;
+
+    private final LinkedHashMap<Long, Map<String, int[]>> counts = new LinkedHashMap<Long, Map<String, int[]>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Map<String, int[]>> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private final long[] versions = new long[STRIPES];
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * 获取用户各类型的 [总数, 未读数]，未缓存时由loader从数据库聚合；返回副本
+     */
+    public Map<String, int[]> get(Long userId, Supplier<Map<String, int[]>> loader) {
+        long version;
+        synchronized (this) {
+            Map<String, int[]> cached = counts.get(userId);
+            if (cached != null) {
+                hits++;
+                return copy(cached);
+            }
+            misses++;
+            version = versions[stripe(userId)];
+        }
+        Map<String, int[]> loaded = loader.get();
+        synchronized (this) {
+            if (versions[stripe(userId)] == version) {
+                counts.put(userId, copy(loaded));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 某类型的总数和未读数增减，未缓存的用户只记录版本
+     */
+    public synchronized void add(Long userId, String type, int totalDelta, int unreadDelta) {
+        if (userId == null || (totalDelta == 0 && unreadDelta == 0)) {
+            return;
+        }
+        versions[stripe(userId)]++;
+        Map<String, int[]> cached = counts.get(userId);
+        if (cached != null) {
+            int[] count = cached.computeIfAbsent(typeKey(type), k -> new int[2]);
+            count[TOTAL] = Math.max(0, count[TOTAL] + totalDelta);
+            count[UNREAD] = Math.max(0, count[UNREAD] + unreadDelta);
+        }
+    }
+
+    public synchronized void invalidate(Long userId) {
+        versions[stripe(userId)]++;
+        counts.remove(userId);
+    }
+
+    /**
+     * 跨用户的批量变更后清空全部缓存
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions[i]++;
+        }
+        counts.clear();
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long requests = hits + misses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", counts.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", requests > 0 ? (double) hits / requests : 0D);
+        return stats;
+    }
+
+    /**
+     * 类型统一为大写，与通知写入时的类型写法无关
+     */
+    public static String typeKey(String type) {
+        return type != null ? type.toUpperCase() : "";
+    }
+
+    // 私有辅助方法
+
+    private static Map<String, int[]> copy(Map<String, int[]> source) {
+        Map<String, int[]> copy = new HashMap<>();
+        for (Map.Entry<String, int[]> entry : source.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().clone());
+        }
+        return copy;
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) STRIPES);
+    }
+}
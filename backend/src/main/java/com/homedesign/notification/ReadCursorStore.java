@@ -0,0 +1,141 @@
+package com.homedesign.notification;
+
+import com.homedesign.entity.NotificationReadCursor;
+import com.homedesign.mapper.NotificationMapper;
+import com.homedesign.mapper.NotificationReadCursorMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 通知已读游标
+ * 每个用户记录一个“已读到”的通知ID，全部已读只需推进游标、写一行，与未读通知数量无关；
+ * 通知是否已读由is_read标记和游标共同决定（ID不大于游标即为已读）。
+ * 游标以内残留的is_read=0由后台任务分批补标，补标前后读到的结果一致。
+ * 游标只前进不后退，按用户LRU缓存在内存中
+ */
+@Component
+public class ReadCursorStore {
+
+    @Autowired
+    private NotificationReadCursorMapper cursorMapper;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Value("${notification.read-cursor.capacity:10000}")
+    private int capacity;
+
+    @Value("${notification.read-cursor.compact-users:100}")
+    private int compactUsers;
+
+    @Value("${notification.read-cursor.compact-batch-size:1000}")
+    private int compactBatchSize;
+
+    private final LinkedHashMap<Long, Long> cursors = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private long hits;
+
+    private long misses;
+
+    private long compacted;
+
+    /**
+     * 获取用户的已读游标，没有游标时为0
+     */
+    public long get(Long userId) {
+        synchronized (this) {
+            Long cursor = cursors.get(userId);
+            if (cursor != null) {
+                hits++;
+                return cursor;
+            }
+            misses++;
+        }
+        NotificationReadCursor row = cursorMapper.selectById(userId);
+        long loaded = row != null && row.getReadUpTo() != null ? row.getReadUpTo() : 0L;
+        return remember(userId, loaded);
+    }
+
+    /**
+     * 把游标推进到用户当前最新的通知，返回新的游标
+     */
+    public long advance(Long userId) {
+        Long upTo = notificationMapper.selectMaxId(userId);
+        if (upTo == null) {
+            return get(userId);
+        }
+        cursorMapper.advance(userId, upTo, LocalDateTime.now());
+        return remember(userId, upTo);
+    }
+
+    /**
+     * 通知是否已读：已标记为已读，或在游标以内
+     */
+    public boolean isRead(Long userId, Long notificationId, Boolean isRead) {
+        return Boolean.TRUE.equals(isRead) || (notificationId != null && notificationId <= get(userId));
+    }
+
+    /**
+     * 分批把游标以内的通知补标为已读，补完后记录同步位置
+     */
+    @Scheduled(fixedDelayString = "${notification.read-cursor.compact-interval:60000}")
+    public void compact() {
+        List<NotificationReadCursor> pending;
+        try {
+            pending = cursorMapper.selectUncompacted(compactUsers);
+        } catch (Exception e) {
+            System.err.println("查询待同步的通知已读游标失败: " + e.getMessage());
+            return;
+        }
+        for (NotificationReadCursor cursor : pending) {
+            try {
+                int updated;
+                do {
+                    updated = notificationMapper.compactRead(cursor.getUserId(), cursor.getReadUpTo(),
+                            cursor.getUpdateTime(), compactBatchSize);
+                    synchronized (this) {
+                        compacted += updated;
+                    }
+                } while (updated >= compactBatchSize);
+                cursorMapper.markCompacted(cursor.getUserId(), cursor.getReadUpTo());
+            } catch (Exception e) {
+                System.err.println("同步通知已读标记失败，用户: " + cursor.getUserId() + "，" + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long requests = hits + misses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cursors.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", requests > 0 ? (double) hits / requests : 0D);
+        stats.put("compacted", compacted);
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    /**
+     * 记录游标，并发加载和推进时保留较大的值
+     */
+    private synchronized long remember(Long userId, long cursor) {
+        Long current = cursors.get(userId);
+        long value = current != null ? Math.max(current, cursor) : cursor;
+        cursors.put(userId, value);
+        return value;
+    }
+}
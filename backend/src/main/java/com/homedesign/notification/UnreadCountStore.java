@@ -0,0 +1,151 @@
+package com.homedesign.notification;
+
+import com.homedesign.mapper.NotificationMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 用户未读通知计数
+ * 首次查询时用一次COUNT加载，此后由通知的写入、已读、删除路径增减保持准确，轮询未读数不再访问数据库；
+ * 按用户LRU淘汰，并定时与数据库批量核对，修正并发写入等带来的偏差。
+ * 用户按ID分段记录写入版本，加载或核对期间该段有写入时放弃结果，避免用旧值覆盖新的增减
+ */
+@Component
+public class UnreadCountStore {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Value("${notification.unread.capacity:10000}")
+    private int capacity;
+
+    @Value("${notification.unread.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    private final LinkedHashMap<Long, Integer> counts = new LinkedHashMap<Long, Integer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private final long[] versions = new long[STRIPES];
+
+    private long hits;
+
+    private long misses;
+
+    private long corrections;
+
+    /**
+     * 获取未读数，未缓存时由loader从数据库计数
+     */
+    public int get(Long userId, Supplier<Integer> loader) {
+        long version;
+        synchronized (this) {
+            Integer count = counts.get(userId);
+            if (count != null) {
+                hits++;
+                return count;
+            }
+            misses++;
+            version = versions[stripe(userId)];
+        }
+        int loaded = loader.get();
+        synchronized (this) {
+            if (versions[stripe(userId)] == version) {
+                counts.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 未读数增减，未缓存的用户只记录版本，下次查询时从数据库加载
+     */
+    public synchronized void add(Long userId, int delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        versions[stripe(userId)]++;
+        Integer count = counts.get(userId);
+        if (count != null) {
+            counts.put(userId, Math.max(0, count + delta));
+        }
+    }
+
+    public synchronized void set(Long userId, int count) {
+        versions[stripe(userId)]++;
+        counts.put(userId, Math.max(0, count));
+    }
+
+    public synchronized void invalidate(Long userId) {
+        versions[stripe(userId)]++;
+        counts.remove(userId);
+    }
+
+    /**
+     * 与数据库核对已缓存用户的未读数
+     */
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval:300000}")
+    public void reconcile() {
+        List<Long> userIds;
+        synchronized (this) {
+            userIds = new ArrayList<>(counts.keySet());
+        }
+        for (int from = 0; from < userIds.size(); from += reconcileBatchSize) {
+            List<Long> batch = userIds.subList(from, Math.min(from + reconcileBatchSize, userIds.size()));
+            long[] snapshot;
+            synchronized (this) {
+                snapshot = versions.clone();
+            }
+            Map<Long, Integer> actual = new HashMap<>();
+            try {
+                for (Map<String, Object> row : notificationMapper.countUnreadByUsers(batch)) {
+                    actual.put(((Number) row.get("userId")).longValue(), ((Number) row.get("unread")).intValue());
+                }
+            } catch (Exception e) {
+                System.err.println("核对未读通知数失败: " + e.getMessage());
+                return;
+            }
+            synchronized (this) {
+                for (Long userId : batch) {
+                    Integer cached = counts.get(userId);
+                    int count = actual.getOrDefault(userId, 0);
+                    if (cached != null && cached != count && versions[stripe(userId)] == snapshot[stripe(userId)]) {
+                        counts.put(userId, count);
+                        corrections++;
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long requests = hits + misses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", counts.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", requests > 0 ? (double) hits / requests : 0D);
+        stats.put("corrections", corrections);
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) STRIPES);
+    }
+}
@@ -0,0 +1,77 @@
+package com.homedesign.search;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch：固定内存估算任意关键词的出现次数，只会高估不会低估
+ * 相同尺寸的两个草图可以逐格相加合并
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int depth;
+
+    private final int width;
+
+    private final long[][] counts;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || width < 1) {
+            throw new IllegalArgumentException("Count-Min Sketch尺寸无效: " + depth + "x" + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counts = new long[depth][width];
+    }
+
+    public void add(String key, long count) {
+        int hash = key.hashCode();
+        for (int row = 0; row < depth; row++) {
+            counts[row][index(hash, row)] += count;
+        }
+    }
+
+    public long estimate(String key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Count-Min Sketch尺寸不一致，无法合并");
+        }
+        for (int row = 0; row < depth; row++) {
+            for (int col = 0; col < width; col++) {
+                counts[row][col] += other.counts[row][col];
+            }
+        }
+    }
+
+    public void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0L);
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash ^ SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        return (int) ((h & Long.MAX_VALUE) % width);
+    }
+}
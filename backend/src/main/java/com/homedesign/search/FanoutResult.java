@@ -0,0 +1,25 @@
+package com.homedesign.search;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 并行子查询的结果：按时完成的分支结果、降级的分支及原因、各分支耗时（毫秒）
+ */
+@Data
+public class FanoutResult {
+
+    private Map<String, Object> values = new LinkedHashMap<>();
+
+    // 分支名 -> timeout/error/rejected
+    private Map<String, String> degraded = new LinkedHashMap<>();
+
+    private Map<String, Long> timings = new HashMap<>();
+
+    public boolean isPartial() {
+        return !degraded.isEmpty();
+    }
+}
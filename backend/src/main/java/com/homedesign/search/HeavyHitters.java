@@ -0,0 +1,80 @@
+package com.homedesign.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 高频词统计：Count-Min Sketch记录全部关键词的近似次数，
+ * 另按Space-Saving方式维护固定容量的候选集——集合已满时，新词的估计次数超过集合中最小者才替换它。
+ * 非线程安全，由调用方加锁
+ */
+public class HeavyHitters {
+
+    private final CountMinSketch sketch;
+
+    private final int capacity;
+
+    // 候选关键词 -> 当前估计次数
+    private final Map<String, Long> candidates = new HashMap<>();
+
+    private String minKey;
+
+    private long minCount = Long.MAX_VALUE;
+
+    public HeavyHitters(int depth, int width, int capacity) {
+        this.sketch = new CountMinSketch(depth, width);
+        this.capacity = capacity;
+    }
+
+    public void add(String key, long count) {
+        sketch.add(key, count);
+        long estimate = sketch.estimate(key);
+
+        if (candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            if (key.equals(minKey)) {
+                findMin();
+            }
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            if (estimate < minCount) {
+                minKey = key;
+                minCount = estimate;
+            }
+            return;
+        }
+        if (estimate > minCount) {
+            candidates.remove(minKey);
+            candidates.put(key, estimate);
+            findMin();
+        }
+    }
+
+    public CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    public Map<String, Long> getCandidates() {
+        return candidates;
+    }
+
+    public void clear() {
+        sketch.clear();
+        candidates.clear();
+        minKey = null;
+        minCount = Long.MAX_VALUE;
+    }
+
+    private void findMin() {
+        minKey = null;
+        minCount = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (entry.getValue() < minCount) {
+                minKey = entry.getKey();
+                minCount = entry.getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.homedesign.search;
+
+import com.homedesign.entity.HotKeywordSnapshot;
+import com.homedesign.entity.SearchHistory;
+import com.homedesign.mapper.HotKeywordSnapshotMapper;
+import com.homedesign.mapper.SearchHistoryMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热门关键词实时统计
+ * 每次搜索写入最近一小时、一天、一周三个滑动窗口，查询直接取内存中的前K名，不再对搜索历史表做GROUP BY；
+ * 各窗口的分桶候选词定期快照到数据库，重启后按桶的起始时间恢复
+ */
+@Component
+public class HotKeywordTracker {
+
+    public static final String WINDOW_HOUR = "hour";
+    public static final String WINDOW_DAY = "day";
+    public static final String WINDOW_WEEK = "week";
+
+    private static final long MINUTE = 60 * 1000L;
+
+    private static final int SNAPSHOT_BATCH_SIZE = 500;
+
+    // 与hot_keyword_snapshot.keyword列长度一致
+    private static final int MAX_KEYWORD_LENGTH = 100;
+
+    @Autowired
+    private HotKeywordSnapshotMapper hotKeywordSnapshotMapper;
+
+    @Autowired
+    private SearchHistoryMapper searchHistoryMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${search.hot.capacity:100}")
+    private int capacity;
+
+    private final Map<String, HotKeywordWindow> windows = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // 一小时：12个5分钟桶；一天：24个1小时桶；一周：7个1天桶
+        windows.put(WINDOW_HOUR, new HotKeywordWindow(WINDOW_HOUR, 12, 5 * MINUTE, capacity));
+        windows.put(WINDOW_DAY, new HotKeywordWindow(WINDOW_DAY, 24, 60 * MINUTE, capacity));
+        windows.put(WINDOW_WEEK, new HotKeywordWindow(WINDOW_WEEK, 7, 24 * 60 * MINUTE, capacity));
+    }
+
+    public void record(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return;
+        }
+        String key = truncate(keyword.trim());
+        long now = System.currentTimeMillis();
+        for (HotKeywordWindow window : windows.values()) {
+            window.add(key, 1, now);
+        }
+    }
+
+    /**
+     * 指定窗口内的热门关键词，窗口名无效时按一周统计
+     */
+    public List<String> top(String window, int limit) {
+        HotKeywordWindow target = windows.get(window);
+        if (target == null) {
+            target = windows.get(WINDOW_WEEK);
+        }
+        return new ArrayList<>(target.top(limit, System.currentTimeMillis()).keySet());
+    }
+
+    /**
+     * 启动时从最近一次快照恢复；没有快照时用搜索历史的累计次数初始化一周窗口
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            List<HotKeywordSnapshot> snapshots = hotKeywordSnapshotMapper.selectLatest();
+            if (!snapshots.isEmpty()) {
+                for (HotKeywordSnapshot snapshot : snapshots) {
+                    HotKeywordWindow window = windows.get(snapshot.getWindowName());
+                    if (window != null && snapshot.getHitCount() != null && snapshot.getBucketStart() != null) {
+                        window.add(snapshot.getKeyword(), snapshot.getHitCount(), toMillis(snapshot.getBucketStart()));
+                    }
+                }
+                System.out.println("热门关键词统计已从快照恢复: " + snapshots.size() + " 条");
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            for (SearchHistory history : searchHistoryMapper.getKeywordFrequencies(capacity)) {
+                long count = history.getFrequency() != null ? history.getFrequency() : 1;
+                windows.get(WINDOW_WEEK).add(history.getKeyword(), count, now);
+            }
+        } catch (Exception e) {
+            System.err.println("恢复热门关键词统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 定期快照：写入新快照和删除旧快照在同一事务中，中途失败时整体回滚，上一次快照仍然可用
+     */
+    @Scheduled(initialDelayString = "${search.hot.snapshot-interval:300000}",
+            fixedDelayString = "${search.hot.snapshot-interval:300000}")
+    public synchronized void snapshot() {
+        try {
+            long now = System.currentTimeMillis();
+            LocalDateTime snapshotTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+            List<HotKeywordSnapshot> rows = new ArrayList<>();
+            for (HotKeywordWindow window : windows.values()) {
+                for (Map.Entry<Long, Map<String, Long>> bucket : window.export(now).entrySet()) {
+                    LocalDateTime bucketStart = toDateTime(bucket.getKey());
+                    for (Map.Entry<String, Long> entry : bucket.getValue().entrySet()) {
+                        HotKeywordSnapshot row = new HotKeywordSnapshot();
+                        row.setWindowName(window.getName());
+                        row.setBucketStart(bucketStart);
+                        row.setKeyword(entry.getKey());
+                        row.setHitCount(entry.getValue());
+                        row.setSnapshotTime(snapshotTime);
+                        rows.add(row);
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < rows.size(); from += SNAPSHOT_BATCH_SIZE) {
+                    hotKeywordSnapshotMapper.insertBatch(rows.subList(from, Math.min(from + SNAPSHOT_BATCH_SIZE, rows.size())));
+                }
+                hotKeywordSnapshotMapper.deleteBefore(snapshotTime);
+            });
+        } catch (Exception e) {
+            System.err.println("热门关键词快照失败: " + e.getMessage());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        snapshot();
+    }
+
+    /**
+     * 超长关键词按字符截断，避免快照写入失败
+     */
+    private static String truncate(String keyword) {
+        if (keyword.codePointCount(0, keyword.length()) <= MAX_KEYWORD_LENGTH) {
+            return keyword;
+        }
+        return keyword.substring(0, keyword.offsetByCodePoints(0, MAX_KEYWORD_LENGTH));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,111 @@
+package com.homedesign.search;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 滑动时间窗口内的热门关键词
+ * 窗口按固定时长分桶组成环形数组，过期的桶在被复用时清空；
+ * 查询时合并窗口内各桶的草图，对所有桶的候选词重新估计次数后取前K名
+ */
+public class HotKeywordWindow {
+
+    private static final int SKETCH_DEPTH = 4;
+
+    private static final int SKETCH_WIDTH = 1024;
+
+    private final String name;
+
+    private final long bucketMillis;
+
+    private final HeavyHitters[] buckets;
+
+    // 每个桶当前对应的起始时间，-1表示未使用
+    private final long[] bucketStarts;
+
+    public HotKeywordWindow(String name, int bucketCount, long bucketMillis, int capacity) {
+        this.name = name;
+        this.bucketMillis = bucketMillis;
+        this.buckets = new HeavyHitters[bucketCount];
+        this.bucketStarts = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new HeavyHitters(SKETCH_DEPTH, SKETCH_WIDTH, capacity);
+            bucketStarts[i] = -1;
+        }
+    }
+
+    public synchronized void add(String keyword, long count, long timeMillis) {
+        long start = timeMillis - Math.floorMod(timeMillis, bucketMillis);
+        if (start <= System.currentTimeMillis() - bucketMillis * buckets.length) {
+            // 已滑出窗口
+            return;
+        }
+        int slot = slot(start);
+        if (bucketStarts[slot] != start) {
+            if (bucketStarts[slot] > start) {
+                // 该位置已被更新的桶占用
+                return;
+            }
+            buckets[slot].clear();
+            bucketStarts[slot] = start;
+        }
+        buckets[slot].add(keyword, count);
+    }
+
+    /**
+     * 窗口内的前limit个关键词及估计次数，按次数降序
+     */
+    public synchronized Map<String, Long> top(int limit, long nowMillis) {
+        long oldest = nowMillis - bucketMillis * buckets.length;
+        CountMinSketch merged = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+        Set<String> keywords = new HashSet<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (bucketStarts[i] > oldest) {
+                merged.merge(buckets[i].getSketch());
+                keywords.addAll(buckets[i].getCandidates().keySet());
+            }
+        }
+
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>();
+        for (String keyword : keywords) {
+            ranked.add(new AbstractMap.SimpleEntry<>(keyword, merged.estimate(keyword)));
+        }
+        ranked.sort((a, b) -> {
+            int cmp = Long.compare(b.getValue(), a.getValue());
+            return cmp != 0 ? cmp : a.getKey().compareTo(b.getKey());
+        });
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            result.put(ranked.get(i).getKey(), ranked.get(i).getValue());
+        }
+        return result;
+    }
+
+    /**
+     * 导出窗口内各桶的候选词：桶起始时间 -> (关键词 -> 估计次数)，用于持久化快照
+     */
+    public synchronized Map<Long, Map<String, Long>> export(long nowMillis) {
+        long oldest = nowMillis - bucketMillis * buckets.length;
+        Map<Long, Map<String, Long>> result = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (bucketStarts[i] > oldest && !buckets[i].getCandidates().isEmpty()) {
+                result.put(bucketStarts[i], new LinkedHashMap<>(buckets[i].getCandidates()));
+            }
+        }
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private int slot(long start) {
+        return (int) Math.floorMod(start / bucketMillis, (long) buckets.length);
+    }
+}
@@ -0,0 +1,393 @@
+package com.homedesign.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 单个实体类型的n-gram倒排索引
+ * 查询时先对各n-gram的倒排表求交集得到候选，再用原文做子串校验去掉n-gram不连续造成的误命中，
+ * 语义与 LIKE '%keyword%' 一致（多个词之间为AND）。
+ * 标题、姓名、风格的拼音键（见PinyinConverter）放在同一套倒排表中，拼音查询同样先求交集再校验；
+ * 另维护一份词典，某个词没有字面命中时改用词典中编辑距离最近的几个词匹配
+ */
+public class InvertedIndex {
+
+    // 单个字母的拼音查询几乎命中所有文档，不做拼音匹配
+    private static final int MIN_PINYIN_QUERY_LENGTH = 2;
+
+    // 拼音查询最多尝试的切分方式数
+    private static final int MAX_PINYIN_SEGMENTATIONS = 16;
+
+    // 超过该长度的片段（多为整句）不进词典
+    private static final int MAX_DICTIONARY_TERM_LENGTH = 16;
+
+    // 每个词最多扩展的近似词数
+    private static final int MAX_FUZZY_TERMS = 5;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Map<Long, SearchDocument> documents = new HashMap<>();
+
+    private final TermDictionary dictionary = new TermDictionary();
+
+    // 字段名 -> 该字段的总长度和出现该字段的文档数，用于计算平均字段长度
+    private final Map<String, long[]> fieldStats = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 批量构建索引
+     */
+    public static InvertedIndex build(Collection<SearchDocument> docs) {
+        InvertedIndex index = new InvertedIndex();
+        for (SearchDocument doc : docs) {
+            index.documents.put(doc.getId(), doc);
+            index.addFieldStats(doc, 1);
+            for (String key : keysOf(doc)) {
+                index.postings.computeIfAbsent(key, k -> new PostingList()).append(doc.getId());
+            }
+            for (String term : termsOf(doc)) {
+                index.dictionary.add(term);
+            }
+        }
+        for (PostingList list : index.postings.values()) {
+            list.sortAndDedupe();
+        }
+        return index;
+    }
+
+    /**
+     * 新增或替换文档
+     */
+    public void put(SearchDocument doc) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(doc.getId());
+            documents.put(doc.getId(), doc);
+            addFieldStats(doc, 1);
+            for (String key : keysOf(doc)) {
+                postings.computeIfAbsent(key, k -> new PostingList()).add(doc.getId());
+            }
+            for (String term : termsOf(doc)) {
+                dictionary.add(term);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchDocument get(Long id) {
+        lock.readLock().lock();
+        try {
+            return documents.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查找包含关键词的文档；关键词为空时返回全部文档
+     * 同时返回打分用的统计：文档频率取该词各n-gram倒排表长度的最小值（上界近似，省去单独求交集）
+     * 关键词全为字母时，另外按拼音（全拼、首字母或混合）匹配标题、姓名和风格，结果取并集
+     */
+    public MatchResult match(String keyword) {
+        String normalized = SearchTokenizer.normalize(keyword);
+        List<String> terms = SearchTokenizer.splitTerms(normalized);
+        MatchResult result = new MatchResult();
+        result.setTerms(terms);
+
+        lock.readLock().lock();
+        try {
+            result.setDocumentCount(documents.size());
+            for (Map.Entry<String, long[]> entry : fieldStats.entrySet()) {
+                long[] stats = entry.getValue();
+                result.getAverageFieldLengths().put(entry.getKey(), stats[1] > 0 ? (double) stats[0] / stats[1] : 0D);
+            }
+
+            if (terms.isEmpty()) {
+                result.setHits(new ArrayList<>(documents.values()));
+                return result;
+            }
+
+            List<SearchDocument> hits = matchTerms(terms, result);
+            if (PinyinConverter.isPinyinQuery(normalized)) {
+                String pinyin = PinyinConverter.compact(normalized);
+                if (pinyin.length() >= MIN_PINYIN_QUERY_LENGTH) {
+                    Set<Long> matched = new HashSet<>();
+                    for (SearchDocument doc : hits) {
+                        matched.add(doc.getId());
+                    }
+                    for (long id : pinyinCandidates(pinyin)) {
+                        SearchDocument doc = documents.get(id);
+                        if (doc != null && matched.add(id) && matchesPinyin(doc, pinyin)) {
+                            hits.add(doc);
+                        }
+                    }
+                }
+            }
+            result.setHits(hits);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按词求候选后对各词取交集，再校验子串，调用方持有读锁
+     * 某个词没有字面候选时，用词典中与它最接近的词代替（任一命中即可），打分也改用这些词
+     */
+    private List<SearchDocument> matchTerms(List<String> terms, MatchResult result) {
+        List<List<String>> alternatives = new ArrayList<>();
+        List<String> scoringTerms = new ArrayList<>();
+        long[] candidates = null;
+        for (String term : terms) {
+            List<String> matchedTerms = Collections.singletonList(term);
+            long[] ids = gramCandidates(term, result);
+            if (ids.length == 0) {
+                matchedTerms = dictionary.fuzzyLookup(term, SearchTokenizer.maxEdits(term), MAX_FUZZY_TERMS);
+                for (String variant : matchedTerms) {
+                    ids = union(ids, gramCandidates(variant, result));
+                }
+            }
+            candidates = candidates == null ? ids : intersect(candidates, ids);
+            if (candidates.length == 0) {
+                return new ArrayList<>();
+            }
+            alternatives.add(matchedTerms);
+            scoringTerms.addAll(matchedTerms);
+        }
+        result.setTerms(scoringTerms);
+
+        List<SearchDocument> hits = new ArrayList<>(candidates.length);
+        for (long id : candidates) {
+            SearchDocument doc = documents.get(id);
+            if (doc != null && containsAllTerms(doc, alternatives)) {
+                hits.add(doc);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 词的各n-gram倒排表的交集（未做子串校验），并记录该词的文档频率
+     */
+    private long[] gramCandidates(String term, MatchResult result) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : SearchTokenizer.queryGrams(term)) {
+            PostingList list = postings.get(gram);
+            if (list == null || list.isEmpty()) {
+                result.getDocumentFrequencies().put(term, 0);
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        long[] ids = intersect(lists);
+        int documentFrequency = Integer.MAX_VALUE;
+        for (PostingList list : lists) {
+            documentFrequency = Math.min(documentFrequency, list.size());
+        }
+        result.getDocumentFrequencies().put(term, documentFrequency == Integer.MAX_VALUE ? 0 : documentFrequency);
+        return ids;
+    }
+
+    /**
+     * 拼音查询的候选：每种切分的拼音键求交集，各切分的结果取并集
+     */
+    private Set<Long> pinyinCandidates(String pinyin) {
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (List<String> segments : PinyinConverter.segment(pinyin, postings::containsKey, MAX_PINYIN_SEGMENTATIONS)) {
+            List<PostingList> lists = new ArrayList<>();
+            for (String key : PinyinConverter.queryKeys(segments)) {
+                PostingList list = postings.get(key);
+                if (list == null) {
+                    // 首字母组合不存在，这种切分没有候选
+                    lists.clear();
+                    break;
+                }
+                lists.add(list);
+            }
+            for (long id : intersect(lists)) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * 从最短的倒排表开始求交集
+     */
+    private static long[] intersect(List<PostingList> lists) {
+        if (lists.isEmpty()) {
+            return new long[0];
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        long[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainAll(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * 两个升序ID数组的交集
+     */
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int w = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[w++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, w);
+    }
+
+    /**
+     * 两个升序ID数组的并集
+     */
+    private static long[] union(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int w = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[w++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[w++] = b[j++];
+            } else {
+                result[w++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, w);
+    }
+
+    private void removeInternal(Long id) {
+        SearchDocument old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        addFieldStats(old, -1);
+        for (String key : keysOf(old)) {
+            PostingList list = postings.get(key);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+        for (String term : termsOf(old)) {
+            dictionary.remove(term);
+        }
+    }
+
+    private void addFieldStats(SearchDocument doc, int sign) {
+        for (Map.Entry<String, String> field : doc.getFields().entrySet()) {
+            long[] stats = fieldStats.computeIfAbsent(field.getKey(), k -> new long[2]);
+            stats[0] += sign * field.getValue().length();
+            stats[1] += sign;
+        }
+    }
+
+    /**
+     * 文档在倒排表中的全部键：各字段的n-gram和拼音键
+     */
+    private static Set<String> keysOf(SearchDocument doc) {
+        Set<String> keys = new HashSet<>();
+        for (String text : doc.getFields().values()) {
+            keys.addAll(SearchTokenizer.indexGrams(text));
+        }
+        for (String[][] syllables : doc.getPinyinFields()) {
+            keys.addAll(PinyinConverter.indexKeys(syllables));
+        }
+        return keys;
+    }
+
+    /**
+     * 文档登记到词典的词，同一文档内去重
+     */
+    private static Set<String> termsOf(SearchDocument doc) {
+        Set<String> terms = new HashSet<>();
+        for (String text : doc.getFields().values()) {
+            for (String term : SearchTokenizer.splitTerms(text)) {
+                if (term.length() <= MAX_DICTIONARY_TERM_LENGTH) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static boolean matchesPinyin(SearchDocument doc, String pinyin) {
+        for (String[][] syllables : doc.getPinyinFields()) {
+            if (PinyinConverter.matches(pinyin, syllables)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 每组候选词中至少有一个出现在文档的某个字段里
+     */
+    private static boolean containsAllTerms(SearchDocument doc, List<List<String>> alternatives) {
+        for (List<String> terms : alternatives) {
+            boolean found = false;
+            for (String term : terms) {
+                for (String text : doc.getFields().values()) {
+                    if (text.contains(term)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (found) {
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.homedesign.search;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次匹配的结果：命中文档，以及相关性打分需要的索引统计快照
+ */
+@Data
+public class MatchResult {
+
+    private List<SearchDocument> hits = new ArrayList<>();
+
+    // 归一化后的查询词
+    private List<String> terms = new ArrayList<>();
+
+    // 查询词 -> 文档频率
+    private Map<String, Integer> documentFrequencies = new HashMap<>();
+
+    // 字段名 -> 平均字段长度
+    private Map<String, Double> averageFieldLengths = new HashMap<>();
+
+    private int documentCount;
+}
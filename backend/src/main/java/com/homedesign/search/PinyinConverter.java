@@ -0,0 +1,273 @@
+package com.homedesign.search;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 拼音转换与匹配
+ * 汉字转为不带声调的小写拼音（ü写作v），多音字保留全部读音；连续的字母数字作为一个整体音节。
+ * 建索引时每个音节登记读音的前缀（两个字母起）和相邻音节的首字母组合，与n-gram放在同一套倒排表中；
+ * 查询先切分成若干音节前缀，用这些键求交集得到候选，再逐个校验
+ */
+public final class PinyinConverter {
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    private static final String[] NONE = new String[0];
+
+    private static final Map<Character, String[]> CACHE = new ConcurrentHashMap<>();
+
+    // 倒排表中拼音键的前缀，与n-gram（只含字母数字和汉字）区分开
+    private static final char INITIALS_KEY = '\u0001';
+
+    private static final char SYLLABLE_KEY = '\u0002';
+
+    // 首字母组合的最大长度，与字母数字n-gram一致
+    private static final int MAX_INITIALS_GRAM = 3;
+
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private PinyinConverter() {
+    }
+
+    /**
+     * 将已归一化的文本切分为音节，每个音节给出所有候选读音；无法转换的字符作为分隔
+     */
+    public static String[][] syllables(String normalizedText) {
+        List<String[]> result = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalizedText.length(); i++) {
+            char c = i < normalizedText.length() ? normalizedText.charAt(i) : ' ';
+            boolean alnum = c < 128 && Character.isLetterOrDigit(c);
+            if (alnum) {
+                if (start < 0) {
+                    start = i;
+                }
+                continue;
+            }
+            if (start >= 0) {
+                result.add(new String[]{normalizedText.substring(start, i)});
+                start = -1;
+            }
+            String[] readings = readings(c);
+            if (readings.length > 0) {
+                result.add(readings);
+            }
+        }
+        return result.toArray(new String[0][]);
+    }
+
+    /**
+     * 全拼（每个字取第一个读音），如"现代简约" -> "xiandaijianyue"
+     */
+    public static String full(String normalizedText) {
+        StringBuilder sb = new StringBuilder();
+        for (String[] syllable : syllables(normalizedText)) {
+            sb.append(syllable[0]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 首字母，如"现代简约" -> "xdjy"
+     */
+    public static String initials(String normalizedText) {
+        StringBuilder sb = new StringBuilder();
+        for (String[] syllable : syllables(normalizedText)) {
+            sb.append(syllable[0].charAt(0));
+        }
+        return sb.toString();
+    }
+
+    public static boolean containsHan(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (readings(text.charAt(i)).length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查询是否可能是拼音：只含小写字母、空格和隔音符
+     */
+    public static boolean isPinyinQuery(String normalizedQuery) {
+        boolean hasLetter = false;
+        for (int i = 0; i < normalizedQuery.length(); i++) {
+            char c = normalizedQuery.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                hasLetter = true;
+            } else if (c != ' ' && c != '\'') {
+                return false;
+            }
+        }
+        return hasLetter;
+    }
+
+    /**
+     * 去掉拼音查询中的空格和隔音符
+     */
+    public static String compact(String pinyinQuery) {
+        return pinyinQuery.replace(" ", "").replace("'", "");
+    }
+
+    /**
+     * 拼音查询是否匹配从某个音节开始的连续音节：每个音节可以用全拼或任意长度的前缀（含首字母）匹配，
+     * 如"xdjy"、"xiandjianyue"、"jianyue"都匹配"现代简约"
+     */
+    public static boolean matches(String query, String[][] syllables) {
+        if (query.isEmpty()) {
+            return false;
+        }
+        // failed[q][s]：从查询第q个字符、第s个音节开始已确认无法匹配
+        boolean[][] failed = new boolean[query.length() + 1][syllables.length + 1];
+        for (int s = 0; s < syllables.length; s++) {
+            if (matchFrom(query, 0, syllables, s, failed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 建索引用的拼音键：各读音两个字母起的前缀，以及连续一至三个音节的首字母组合（多音字取全部组合）
+     */
+    public static Set<String> indexKeys(String[][] syllables) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int s = 0; s < syllables.length; s++) {
+            for (String reading : syllables[s]) {
+                for (int len = 2; len <= reading.length(); len++) {
+                    keys.add(SYLLABLE_KEY + reading.substring(0, len));
+                }
+            }
+            Set<String> grams = new LinkedHashSet<>();
+            grams.add("");
+            for (int n = 0; n < MAX_INITIALS_GRAM && s + n < syllables.length; n++) {
+                Set<String> longer = new LinkedHashSet<>();
+                for (String gram : grams) {
+                    for (String reading : syllables[s + n]) {
+                        longer.add(gram + reading.charAt(0));
+                    }
+                }
+                grams = longer;
+                for (String gram : grams) {
+                    keys.add(INITIALS_KEY + gram);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 把拼音查询切分为音节前缀，viable判断某个键在索引中是否存在；长片段优先，最多返回limit种切分
+     */
+    public static List<List<String>> segment(String query, Predicate<String> viable, int limit) {
+        List<List<String>> result = new ArrayList<>();
+        segmentFrom(query, 0, new ArrayList<>(), viable, limit, new boolean[query.length() + 1], result);
+        return result;
+    }
+
+    /**
+     * 一种切分对应的查询键：两个字母以上的片段查读音前缀，各片段的首字母按n-gram的方式取连续组合
+     */
+    public static Set<String> queryKeys(List<String> segments) {
+        Set<String> keys = new LinkedHashSet<>();
+        StringBuilder initials = new StringBuilder();
+        for (String segment : segments) {
+            if (segment.length() >= 2) {
+                keys.add(SYLLABLE_KEY + segment);
+            }
+            initials.append(segment.charAt(0));
+        }
+        int n = Math.min(initials.length(), MAX_INITIALS_GRAM);
+        for (int p = 0; p + n <= initials.length(); p++) {
+            keys.add(INITIALS_KEY + initials.substring(p, p + n));
+        }
+        return keys;
+    }
+
+    /**
+     * 深度优先切分，dead[q]记录从第q个字符起无法切分完，避免重复搜索；返回是否找到至少一种切分
+     */
+    private static boolean segmentFrom(String query, int q, List<String> current, Predicate<String> viable,
+                                       int limit, boolean[] dead, List<List<String>> result) {
+        if (q == query.length()) {
+            result.add(new ArrayList<>(current));
+            return true;
+        }
+        if (dead[q]) {
+            return false;
+        }
+        boolean found = false;
+        for (int end = query.length(); end > q && result.size() < limit; end--) {
+            String segment = query.substring(q, end);
+            String key = segment.length() >= 2 ? SYLLABLE_KEY + segment : INITIALS_KEY + segment;
+            if (viable.test(key)) {
+                current.add(segment);
+                found |= segmentFrom(query, end, current, viable, limit, dead, result);
+                current.remove(current.size() - 1);
+            }
+        }
+        if (!found && result.size() < limit) {
+            dead[q] = true;
+        }
+        return found;
+    }
+
+    private static boolean matchFrom(String query, int q, String[][] syllables, int s, boolean[][] failed) {
+        if (q == query.length()) {
+            return true;
+        }
+        if (s == syllables.length || failed[q][s]) {
+            return false;
+        }
+        for (String reading : syllables[s]) {
+            int max = Math.min(reading.length(), query.length() - q);
+            for (int len = max; len >= 1; len--) {
+                if (query.regionMatches(q, reading, 0, len) && matchFrom(query, q + len, syllables, s + 1, failed)) {
+                    return true;
+                }
+            }
+        }
+        failed[q][s] = true;
+        return false;
+    }
+
+    private static String[] readings(char c) {
+        if (c < 0x3400) {
+            return NONE;
+        }
+        return CACHE.computeIfAbsent(c, k -> {
+            try {
+                String[] raw = PinyinHelper.toHanyuPinyinStringArray(k, FORMAT);
+                if (raw == null) {
+                    return NONE;
+                }
+                Set<String> distinct = new LinkedHashSet<>();
+                for (String reading : raw) {
+                    if (!reading.isEmpty()) {
+                        distinct.add(reading);
+                    }
+                }
+                return distinct.toArray(new String[0]);
+            } catch (Exception e) {
+                return NONE;
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.homedesign.search;
+
+import java.util.Arrays;
+
+/**
+ * 倒排表：按文档ID升序保存的long数组
+ * 非线程安全，由InvertedIndex的读写锁保护
+ */
+class PostingList {
+
+    private long[] ids = new long[4];
+
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    /**
+     * 批量构建时使用：追加后统一调用sortAndDedupe
+     */
+    void append(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    void sortAndDedupe() {
+        Arrays.sort(ids, 0, size);
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            if (w == 0 || ids[w - 1] != ids[r]) {
+                ids[w++] = ids[r];
+            }
+        }
+        size = w;
+    }
+
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * 保留candidates中同时出现在本倒排表里的ID，返回保留数量（原地压缩）
+     */
+    int retainAll(long[] candidates, int count) {
+        int w = 0;
+        int from = 0;
+        for (int r = 0; r < count && from < size; r++) {
+            int pos = Arrays.binarySearch(ids, from, size, candidates[r]);
+            if (pos >= 0) {
+                candidates[w++] = candidates[r];
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+        }
+        return w;
+    }
+}
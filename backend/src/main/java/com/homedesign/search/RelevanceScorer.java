@@ -0,0 +1,71 @@
+package com.homedesign.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BM25F相关性打分：各字段的词频按字段权重和长度归一化后合并，再套用BM25的饱和函数
+ * 字段权重：标题/姓名 > 设计理念 > 摘要、标签 > 正文
+ */
+class RelevanceScorer {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final Map<String, Double> FIELD_BOOSTS = new HashMap<>();
+
+    static {
+        FIELD_BOOSTS.put(SearchEngine.FIELD_TITLE, 3.0);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_NAME, 3.0);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_DESIGN_CONCEPT, 2.0);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_SUMMARY, 1.5);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_TAGS, 1.5);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_STYLE, 1.2);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_DESIGNER_NAME, 1.2);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_SERVICE_AREA, 1.0);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_BIO, 1.0);
+        FIELD_BOOSTS.put(SearchEngine.FIELD_CONTENT, 1.0);
+    }
+
+    private final MatchResult match;
+
+    private final Map<String, Double> idfs = new HashMap<>();
+
+    RelevanceScorer(MatchResult match) {
+        this.match = match;
+        int n = match.getDocumentCount();
+        for (String term : match.getTerms()) {
+            int df = match.getDocumentFrequencies().getOrDefault(term, 0);
+            idfs.put(term, Math.log(1 + (n - df + 0.5) / (df + 0.5)));
+        }
+    }
+
+    double score(SearchDocument doc) {
+        double score = 0;
+        for (String term : match.getTerms()) {
+            double weightedTf = 0;
+            for (Map.Entry<String, String> field : doc.getFields().entrySet()) {
+                int tf = countOccurrences(field.getValue(), term);
+                if (tf == 0) {
+                    continue;
+                }
+                double avgLength = match.getAverageFieldLengths().getOrDefault(field.getKey(), 1D);
+                double lengthNorm = 1 - B + B * field.getValue().length() / Math.max(avgLength, 1D);
+                weightedTf += FIELD_BOOSTS.getOrDefault(field.getKey(), 1D) * tf / lengthNorm;
+            }
+            score += idfs.get(term) * weightedTf / (K1 + weightedTf);
+        }
+        return score;
+    }
+
+    private static int countOccurrences(String text, String term) {
+        int count = 0;
+        int from = text.indexOf(term);
+        while (from >= 0) {
+            count++;
+            from = text.indexOf(term, from + term.length());
+        }
+        return count;
+    }
+}
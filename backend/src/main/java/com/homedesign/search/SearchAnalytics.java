@@ -0,0 +1,331 @@
+package com.homedesign.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homedesign.entity.SearchStatRollup;
+import com.homedesign.mapper.SearchStatRollupMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 搜索统计分析
+ * 搜索事件先在内存中按分钟聚合，分钟结束后写入汇总表；每小时由分钟汇总生成小时汇总，每天由小时汇总生成天汇总。
+ * 统计查询按"天 + 小时 + 分钟 + 内存"拼接覆盖查询区间，只读取汇总表，不扫描搜索历史原始记录
+ */
+@Component
+public class SearchAnalytics {
+
+    public static final String GRANULARITY_MINUTE = "MINUTE";
+    public static final String GRANULARITY_HOUR = "HOUR";
+    public static final String GRANULARITY_DAY = "DAY";
+
+    // 汇总表为空时补齐的起点
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final TypeReference<Map<String, Long>> COUNTS_TYPE = new TypeReference<Map<String, Long>>() {
+    };
+
+    @Autowired
+    private SearchStatRollupMapper searchStatRollupMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 每个汇总桶保留的热门关键词数量
+    @Value("${search.stats.top-keywords:20}")
+    private int topKeywords;
+
+    @Value("${search.stats.minute-retention-days:2}")
+    private int minuteRetentionDays;
+
+    @Value("${search.stats.hour-retention-days:60}")
+    private int hourRetentionDays;
+
+    // 分钟起始时间 -> 尚未写入汇总表的分钟桶
+    private final Map<LocalDateTime, LiveBucket> live = new ConcurrentHashMap<>();
+
+    // 已生成汇总的最后一个小时和天，启动时从汇总表恢复
+    private LocalDateTime lastRolledHour;
+
+    private LocalDateTime lastRolledDay;
+
+    private boolean markersLoaded;
+
+    /**
+     * 记录一次搜索，resultCount小于0表示结果数未知，不计入零结果统计
+     */
+    public void record(String keyword, String searchType, long resultCount) {
+        LocalDateTime minute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        live.computeIfAbsent(minute, k -> new LiveBucket(topKeywords))
+                .add(keyword.trim(), searchType != null ? searchType : "ALL", resultCount == 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rollup();
+    }
+
+    /**
+     * 每分钟：写入已结束的分钟桶，并补齐已结束但尚未汇总的小时和天
+     */
+    @Scheduled(cron = "5 * * * * ?")
+    public synchronized void rollup() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime currentMinute = now.truncatedTo(ChronoUnit.MINUTES);
+            persistLive(currentMinute);
+
+            LocalDateTime currentHour = now.truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime today = now.truncatedTo(ChronoUnit.DAYS);
+            loadMarkers();
+
+            // 从上次汇总到的位置补齐，跳过没有数据的区间（停机期间不会产生汇总）
+            LocalDateTime hour = lastRolledHour != null ? lastRolledHour.plusHours(1) : EPOCH;
+            while ((hour = nextBucket(GRANULARITY_MINUTE, hour, ChronoUnit.HOURS, currentHour)).isBefore(currentHour)) {
+                aggregate(GRANULARITY_HOUR, hour, GRANULARITY_MINUTE, hour.plusHours(1));
+                hour = hour.plusHours(1);
+            }
+            lastRolledHour = currentHour.minusHours(1);
+
+            LocalDateTime day = lastRolledDay != null ? lastRolledDay.plusDays(1) : EPOCH;
+            boolean dayRolled = false;
+            while ((day = nextBucket(GRANULARITY_HOUR, day, ChronoUnit.DAYS, today)).isBefore(today)) {
+                aggregate(GRANULARITY_DAY, day, GRANULARITY_HOUR, day.plusDays(1));
+                day = day.plusDays(1);
+                dayRolled = true;
+            }
+            lastRolledDay = today.minusDays(1);
+
+            if (dayRolled) {
+                searchStatRollupMapper.deleteBefore(GRANULARITY_MINUTE, today.minusDays(minuteRetentionDays));
+                searchStatRollupMapper.deleteBefore(GRANULARITY_HOUR, today.minusDays(hourRetentionDays));
+            }
+        } catch (Exception e) {
+            System.err.println("搜索统计汇总失败: " + e.getMessage());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public synchronized void onShutdown() {
+        try {
+            // 当前分钟也一并写入，避免重启丢失
+            persistLive(LocalDateTime.MAX);
+        } catch (Exception e) {
+            System.err.println("写入搜索统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 搜索统计：总数、今日、近7天、按类型计数、零结果率和热门关键词
+     */
+    public synchronized Map<String, Object> stats() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime today = now.truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime weekStart = today.minusDays(6);
+        loadMarkers();
+
+        StatBucket todayStats = collect(today, now);
+        StatBucket weekStats = collect(weekStart, today);
+        weekStats.merge(todayStats);
+
+        List<Map<String, Object>> keywords = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : weekStats.topKeywords(10).entrySet()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("keyword", entry.getKey());
+            item.put("count", entry.getValue());
+            keywords.add(item);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalSearches", searchStatRollupMapper.sumDailyTotalBefore(weekStart) + weekStats.getTotalSearches());
+        stats.put("todaySearches", todayStats.getTotalSearches());
+        stats.put("weekSearches", weekStats.getTotalSearches());
+        stats.put("searchTypeStats", weekStats.getTypeCounts());
+        stats.put("todayZeroResultRate", todayStats.zeroResultRate());
+        stats.put("weekZeroResultRate", weekStats.zeroResultRate());
+        stats.put("topKeywords", keywords);
+        return stats;
+    }
+
+    // 私有辅助方法
+
+    /**
+     * 从汇总表恢复已汇总到的小时和天，重启后从这里继续补齐
+     */
+    private void loadMarkers() {
+        if (markersLoaded) {
+            return;
+        }
+        lastRolledHour = searchStatRollupMapper.selectLatestBucketStart(GRANULARITY_HOUR);
+        lastRolledDay = searchStatRollupMapper.selectLatestBucketStart(GRANULARITY_DAY);
+        markersLoaded = true;
+    }
+
+    /**
+     * from之后第一个有细粒度汇总的时间桶（按unit取整），[from, limit) 内没有数据时返回limit
+     */
+    private LocalDateTime nextBucket(String source, LocalDateTime from, ChronoUnit unit, LocalDateTime limit) {
+        if (!from.isBefore(limit)) {
+            return limit;
+        }
+        LocalDateTime earliest = searchStatRollupMapper.selectEarliestBucketStart(source, from, limit);
+        return earliest != null ? earliest.truncatedTo(unit) : limit;
+    }
+
+    /**
+     * 汇总 [from, to) 区间：已生成天汇总的部分读天，已生成小时汇总的部分读小时，其余读分钟和内存
+     */
+    private StatBucket collect(LocalDateTime from, LocalDateTime to) {
+        StatBucket result = new StatBucket();
+
+        LocalDateTime dayEnd = clamp(lastRolledDay != null ? lastRolledDay.plusDays(1) : from, from, to);
+        mergeRows(result, GRANULARITY_DAY, from, dayEnd);
+
+        LocalDateTime hourEnd = clamp(lastRolledHour != null ? lastRolledHour.plusHours(1) : dayEnd, dayEnd, to);
+        mergeRows(result, GRANULARITY_HOUR, dayEnd, hourEnd);
+
+        mergeRows(result, GRANULARITY_MINUTE, hourEnd, to);
+        for (Map.Entry<LocalDateTime, LiveBucket> entry : live.entrySet()) {
+            if (!entry.getKey().isBefore(hourEnd) && entry.getKey().isBefore(to)) {
+                result.merge(entry.getValue().toStatBucket());
+            }
+        }
+        return result;
+    }
+
+    private void mergeRows(StatBucket result, String granularity, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        for (SearchStatRollup row : searchStatRollupMapper.selectRange(granularity, from, to)) {
+            result.merge(fromRow(row));
+        }
+    }
+
+    private void persistLive(LocalDateTime before) {
+        List<LocalDateTime> closed = new ArrayList<>();
+        for (LocalDateTime minute : live.keySet()) {
+            if (minute.isBefore(before)) {
+                closed.add(minute);
+            }
+        }
+        for (LocalDateTime minute : closed) {
+            LiveBucket bucket = live.remove(minute);
+            if (bucket == null) {
+                continue;
+            }
+            // 同一分钟可能已写入过（重启前关闭时写入的当前分钟，或写入后才到达的事件），与已有汇总合并而不是覆盖
+            StatBucket merged = bucket.toStatBucket();
+            SearchStatRollup existing = searchStatRollupMapper.selectBucket(GRANULARITY_MINUTE, minute);
+            if (existing != null) {
+                merged.merge(fromRow(existing));
+            }
+            searchStatRollupMapper.upsert(toRow(GRANULARITY_MINUTE, minute, merged));
+        }
+    }
+
+    /**
+     * 由细粒度汇总生成 [start, end) 的粗粒度汇总，可重复执行
+     */
+    private void aggregate(String granularity, LocalDateTime start, String source, LocalDateTime end) {
+        List<SearchStatRollup> rows = searchStatRollupMapper.selectRange(source, start, end);
+        if (rows.isEmpty()) {
+            return;
+        }
+        StatBucket merged = new StatBucket();
+        for (SearchStatRollup row : rows) {
+            merged.merge(fromRow(row));
+        }
+        searchStatRollupMapper.upsert(toRow(granularity, start, merged));
+    }
+
+    private SearchStatRollup toRow(String granularity, LocalDateTime bucketStart, StatBucket bucket) {
+        SearchStatRollup row = new SearchStatRollup();
+        row.setGranularity(granularity);
+        row.setBucketStart(bucketStart);
+        row.setTotalSearches(bucket.getTotalSearches());
+        row.setZeroResultSearches(bucket.getZeroResultSearches());
+        try {
+            row.setTypeCounts(objectMapper.writeValueAsString(bucket.getTypeCounts()));
+            row.setTopKeywords(objectMapper.writeValueAsString(bucket.topKeywords(topKeywords)));
+        } catch (Exception e) {
+            throw new RuntimeException("搜索统计序列化失败", e);
+        }
+        return row;
+    }
+
+    private StatBucket fromRow(SearchStatRollup row) {
+        StatBucket bucket = new StatBucket();
+        bucket.setTotalSearches(row.getTotalSearches() != null ? row.getTotalSearches() : 0L);
+        bucket.setZeroResultSearches(row.getZeroResultSearches() != null ? row.getZeroResultSearches() : 0L);
+        try {
+            if (row.getTypeCounts() != null) {
+                bucket.setTypeCounts(new TreeMap<>(objectMapper.readValue(row.getTypeCounts(), COUNTS_TYPE)));
+            }
+            if (row.getTopKeywords() != null) {
+                bucket.setKeywordCounts(new HashMap<>(objectMapper.readValue(row.getTopKeywords(), COUNTS_TYPE)));
+            }
+        } catch (Exception e) {
+            System.err.println("搜索统计解析失败: " + e.getMessage());
+        }
+        return bucket;
+    }
+
+    private static LocalDateTime clamp(LocalDateTime value, LocalDateTime min, LocalDateTime max) {
+        if (value.isBefore(min)) {
+            return min;
+        }
+        return value.isAfter(max) ? max : value;
+    }
+
+    /**
+     * 内存中的分钟桶，关键词用HeavyHitters限制内存
+     */
+    private static class LiveBucket {
+
+        private final HeavyHitters keywords;
+
+        private final Map<String, Long> typeCounts = new LinkedHashMap<>();
+
+        private long total;
+
+        private long zeroResults;
+
+        LiveBucket(int topKeywords) {
+            this.keywords = new HeavyHitters(4, 256, topKeywords * 2);
+        }
+
+        synchronized void add(String keyword, String searchType, boolean zeroResult) {
+            total++;
+            if (zeroResult) {
+                zeroResults++;
+            }
+            typeCounts.merge(searchType, 1L, Long::sum);
+            keywords.add(keyword, 1);
+        }
+
+        synchronized StatBucket toStatBucket() {
+            StatBucket bucket = new StatBucket();
+            bucket.setTotalSearches(total);
+            bucket.setZeroResultSearches(zeroResults);
+            bucket.getTypeCounts().putAll(typeCounts);
+            bucket.getKeywordCounts().putAll(keywords.getCandidates());
+            return bucket;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.homedesign.search;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 索引中的文档：保存归一化后的可检索字段，以及筛选和排序用到的属性
+ */
+@Data
+public class SearchDocument {
+
+    private Long id;
+
+    private SearchEntityType type;
+
+    // 字段名 -> 归一化文本
+    private Map<String, String> fields = new LinkedHashMap<>();
+
+    // 含汉字的标题、姓名、风格的拼音音节，用于拼音匹配
+    private List<String[][]> pinyinFields = new ArrayList<>();
+
+    // 筛选属性
+    private String style;
+
+    private String layout;
+
+    private String category;
+
+    private String serviceArea;
+
+    // 排序属性
+    private int views;
+
+    private int likes;
+
+    private int favorites;
+
+    private double rating;
+
+    private int experience;
+
+    private int completedCases;
+
+    private LocalDateTime createTime;
+
+    // 默认排序时间：案例、设计师为create_time，文章为publish_time
+    private LocalDateTime sortTime;
+
+    public void putField(String name, String rawText) {
+        String normalized = SearchTokenizer.normalize(rawText);
+        if (!normalized.isEmpty()) {
+            fields.put(name, normalized);
+        }
+    }
+
+    public void putPinyinField(String rawText) {
+        String normalized = SearchTokenizer.normalize(rawText);
+        if (PinyinConverter.containsHan(normalized)) {
+            pinyinFields.add(PinyinConverter.syllables(normalized));
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.homedesign.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.homedesign.entity.Article;
+import com.homedesign.entity.Case;
+import com.homedesign.entity.Designer;
+import com.homedesign.mapper.ArticleMapper;
+import com.homedesign.mapper.CaseMapper;
+import com.homedesign.mapper.DesignerMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * 内存搜索引擎
+ * 从数据库加载案例、设计师、文章建立n-gram倒排索引（启动和定时重建由SearchIndexUpdater触发），
+ * 搜索请求在内存中完成匹配、筛选和排序，只把当前页的ID交给数据库按主键取数
+ * 有关键词且未指定排序时按相关性排序：BM25F得分与浏览、点赞、收藏（设计师为评分）的热度加权混合
+ */
+@Component
+public class SearchEngine {
+
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_STYLE = "style";
+    public static final String FIELD_DESIGNER_NAME = "designerName";
+    public static final String FIELD_DESIGN_CONCEPT = "designConcept";
+    public static final String FIELD_BIO = "bio";
+    public static final String FIELD_SERVICE_AREA = "serviceArea";
+    public static final String FIELD_SUMMARY = "summary";
+    public static final String FIELD_TAGS = "tags";
+    public static final String FIELD_CONTENT = "content";
+
+    @Autowired
+    private CaseMapper caseMapper;
+
+    @Autowired
+    private DesignerMapper designerMapper;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    // 热度在综合得分中的权重，其余为相关性
+    @Value("${search.rank.popularity-weight:0.3}")
+    private double popularityWeight;
+
+    private volatile Map<SearchEntityType, InvertedIndex> indexes = new EnumMap<>(SearchEntityType.class);
+
+    private volatile boolean ready = false;
+
+    /**
+     * 全量重建索引，新索引建好后整体替换旧索引
+     */
+    public synchronized void rebuild() {
+        try {
+            List<SearchDocument> caseDocs = new ArrayList<>();
+            for (Case designCase : caseMapper.selectList(new QueryWrapper<Case>().eq("status", "APPROVED"))) {
+                caseDocs.add(fromCase(designCase));
+            }
+
+            List<SearchDocument> designerDocs = new ArrayList<>();
+            for (Designer designer : designerMapper.selectList(new QueryWrapper<Designer>())) {
+                designerDocs.add(fromDesigner(designer));
+            }
+
+            List<SearchDocument> articleDocs = new ArrayList<>();
+            for (Article article : articleMapper.selectList(new QueryWrapper<Article>().in("status", "APPROVED", "PUBLISHED"))) {
+                articleDocs.add(fromArticle(article));
+            }
+
+            Map<SearchEntityType, InvertedIndex> rebuilt = new EnumMap<>(SearchEntityType.class);
+            rebuilt.put(SearchEntityType.CASE, InvertedIndex.build(caseDocs));
+            rebuilt.put(SearchEntityType.DESIGNER, InvertedIndex.build(designerDocs));
+            rebuilt.put(SearchEntityType.ARTICLE, InvertedIndex.build(articleDocs));
+            indexes = rebuilt;
+            ready = true;
+
+            System.out.println("搜索索引构建完成: 案例 " + caseDocs.size() + " 条, 设计师 " + designerDocs.size()
+                    + " 条, 文章 " + articleDocs.size() + " 条");
+        } catch (Exception e) {
+            // 索引不可用时搜索服务会回退到数据库查询
+            System.err.println("搜索索引构建失败: " + e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public InvertedIndex index(SearchEntityType type) {
+        return indexes.get(type);
+    }
+
+    /**
+     * 搜索案例
+     */
+    public SearchHits searchCases(String keyword, String style, String layout, String sortBy, int page, int size) {
+        Predicate<SearchDocument> filter = doc -> (isBlank(style) || style.equals(doc.getStyle()))
+                && (isBlank(layout) || layout.equals(doc.getLayout()));
+
+        Comparator<SearchDocument> order;
+        if (byRelevance(keyword, sortBy)) {
+            order = null;
+        } else if ("views".equals(sortBy)) {
+            order = Comparator.comparingInt(SearchDocument::getViews).reversed();
+        } else if ("likes".equals(sortBy)) {
+            order = Comparator.comparingInt(SearchDocument::getLikes).reversed();
+        } else {
+            order = latestFirst();
+        }
+
+        return page(SearchEntityType.CASE, keyword, filter, order, page, size);
+    }
+
+    /**
+     * 搜索设计师
+     */
+    public SearchHits searchDesigners(String keyword, String style, String serviceArea, String sortBy, int page, int size) {
+        Predicate<SearchDocument> filter = doc -> (isBlank(style) || containsIgnoreNull(doc.getStyle(), style))
+                && (isBlank(serviceArea) || containsIgnoreNull(doc.getServiceArea(), serviceArea));
+
+        Comparator<SearchDocument> order;
+        if (byRelevance(keyword, sortBy)) {
+            order = null;
+        } else if ("rating".equals(sortBy)) {
+            order = Comparator.comparingDouble(SearchDocument::getRating).reversed();
+        } else if ("experience".equals(sortBy)) {
+            order = Comparator.comparingInt(SearchDocument::getExperience).reversed();
+        } else if ("cases".equals(sortBy)) {
+            order = Comparator.comparingInt(SearchDocument::getCompletedCases).reversed();
+        } else {
+            order = latestFirst();
+        }
+
+        return page(SearchEntityType.DESIGNER, keyword, filter, order, page, size);
+    }
+
+    /**
+     * 搜索文章
+     */
+    public SearchHits searchArticles(String keyword, String category, String sortBy, int page, int size) {
+        Predicate<SearchDocument> filter = doc -> isBlank(category) || category.equals(doc.getCategory());
+
+        Comparator<SearchDocument> order;
+        if (byRelevance(keyword, sortBy)) {
+            order = null;
+        } else if ("views".equals(sortBy)) {
+            order = Comparator.comparingInt(SearchDocument::getViews).reversed();
+        } else if ("likes".equals(sortBy)) {
+            order = Comparator.comparingInt(SearchDocument::getLikes).reversed();
+        } else if ("createTime".equals(sortBy)) {
+            order = Comparator.comparing(SearchDocument::getCreateTime, Comparator.nullsLast(Comparator.reverseOrder()));
+        } else {
+            order = latestFirst();
+        }
+
+        return page(SearchEntityType.ARTICLE, keyword, filter, order, page, size);
+    }
+
+    // 实体 -> 索引文档
+
+    public static boolean isSearchable(Case designCase) {
+        return designCase != null && "APPROVED".equals(designCase.getStatus());
+    }
+
+    public static boolean isSearchable(Article article) {
+        return article != null && ("APPROVED".equals(article.getStatus()) || "PUBLISHED".equals(article.getStatus()));
+    }
+
+    public static SearchDocument fromCase(Case designCase) {
+        SearchDocument doc = new SearchDocument();
+        doc.setId(designCase.getId());
+        doc.setType(SearchEntityType.CASE);
+        doc.putField(FIELD_TITLE, designCase.getTitle());
+        doc.putField(FIELD_STYLE, designCase.getStyle());
+        doc.putField(FIELD_DESIGNER_NAME, designCase.getDesignerName());
+        doc.putField(FIELD_DESIGN_CONCEPT, designCase.getDesignConcept());
+        doc.putPinyinField(designCase.getTitle());
+        doc.putPinyinField(designCase.getStyle());
+        doc.setStyle(designCase.getStyle());
+        doc.setLayout(designCase.getLayout());
+        doc.setViews(valueOf(designCase.getViews()));
+        doc.setLikes(valueOf(designCase.getLikes()));
+        doc.setFavorites(valueOf(designCase.getFavorites()));
+        doc.setCreateTime(designCase.getCreateTime());
+        doc.setSortTime(designCase.getCreateTime());
+        return doc;
+    }
+
+    public static SearchDocument fromDesigner(Designer designer) {
+        SearchDocument doc = new SearchDocument();
+        doc.setId(designer.getId());
+        doc.setType(SearchEntityType.DESIGNER);
+        doc.putField(FIELD_NAME, designer.getName());
+        doc.putField(FIELD_TITLE, designer.getTitle());
+        doc.putField(FIELD_STYLE, designer.getStyle());
+        doc.putField(FIELD_SERVICE_AREA, designer.getServiceArea());
+        doc.putField(FIELD_BIO, designer.getBio());
+        doc.putPinyinField(designer.getName());
+        doc.putPinyinField(designer.getStyle());
+        doc.setStyle(designer.getStyle());
+        doc.setServiceArea(designer.getServiceArea());
+        doc.setLikes(valueOf(designer.getLikes()));
+        doc.setRating(designer.getRating() != null ? designer.getRating() : 0D);
+        doc.setExperience(valueOf(designer.getExperience()));
+        doc.setCompletedCases(valueOf(designer.getCompletedCases()));
+        doc.setCreateTime(designer.getCreateTime());
+        doc.setSortTime(designer.getCreateTime());
+        return doc;
+    }
+
+    public static SearchDocument fromArticle(Article article) {
+        SearchDocument doc = new SearchDocument();
+        doc.setId(article.getId());
+        doc.setType(SearchEntityType.ARTICLE);
+        doc.putField(FIELD_TITLE, article.getTitle());
+        doc.putField(FIELD_SUMMARY, article.getSummary());
+        doc.putField(FIELD_TAGS, article.getTags());
+        doc.putField(FIELD_CONTENT, article.getContent());
+        doc.putPinyinField(article.getTitle());
+        doc.setCategory(article.getCategory());
+        doc.setViews(valueOf(article.getViews()));
+        doc.setLikes(valueOf(article.getLikes()));
+        doc.setCreateTime(article.getCreateTime());
+        doc.setSortTime(article.getPublishTime() != null ? article.getPublishTime() : article.getCreateTime());
+        return doc;
+    }
+
+    // 私有辅助方法
+
+    /**
+     * 筛选后只用容量为 page*size 的堆选出前K名，不对全部命中排序
+     * order为null时按相关性排序
+     */
+    private SearchHits page(SearchEntityType type, String keyword, Predicate<SearchDocument> filter,
+                            Comparator<SearchDocument> order, int page, int size) {
+        InvertedIndex index = index(type);
+        if (index == null) {
+            return SearchHits.empty();
+        }
+
+        MatchResult match = index.match(keyword);
+        List<SearchDocument> matched = new ArrayList<>();
+        for (SearchDocument doc : match.getHits()) {
+            if (filter.test(doc)) {
+                matched.add(doc);
+            }
+        }
+
+        int pageNo = Math.max(page, 1);
+        int pageSize = Math.max(size, 1);
+        int from = (int) Math.min((long) (pageNo - 1) * pageSize, matched.size());
+        int to = (int) Math.min((long) pageNo * pageSize, matched.size());
+
+        SearchHits hits = new SearchHits();
+        hits.setTotal(matched.size());
+        if (from >= to) {
+            return hits;
+        }
+
+        List<SearchDocument> top = order == null
+                ? rankByRelevance(type, match, matched, to)
+                : topK(matched, order.thenComparing(SearchDocument::getId, Comparator.reverseOrder()), to);
+        for (SearchDocument doc : top.subList(from, to)) {
+            hits.getIds().add(doc.getId());
+        }
+        return hits;
+    }
+
+    private List<SearchDocument> rankByRelevance(SearchEntityType type, MatchResult match,
+                                                 List<SearchDocument> matched, int k) {
+        RelevanceScorer scorer = new RelevanceScorer(match);
+        double[] relevance = new double[matched.size()];
+        double maxRelevance = 0;
+        int maxViews = 0;
+        int maxLikes = 0;
+        int maxFavorites = 0;
+        for (int i = 0; i < matched.size(); i++) {
+            SearchDocument doc = matched.get(i);
+            relevance[i] = scorer.score(doc);
+            maxRelevance = Math.max(maxRelevance, relevance[i]);
+            maxViews = Math.max(maxViews, doc.getViews());
+            maxLikes = Math.max(maxLikes, doc.getLikes());
+            maxFavorites = Math.max(maxFavorites, doc.getFavorites());
+        }
+
+        List<ScoredDocument> scored = new ArrayList<>(matched.size());
+        for (int i = 0; i < matched.size(); i++) {
+            SearchDocument doc = matched.get(i);
+            double popularity;
+            if (type == SearchEntityType.DESIGNER) {
+                popularity = Math.min(Math.max(doc.getRating(), 0D), 5D) / 5D;
+            } else if (type == SearchEntityType.CASE) {
+                popularity = 0.5 * normalize(doc.getViews(), maxViews)
+                        + 0.3 * normalize(doc.getLikes(), maxLikes)
+                        + 0.2 * normalize(doc.getFavorites(), maxFavorites);
+            } else {
+                popularity = 0.6 * normalize(doc.getViews(), maxViews)
+                        + 0.4 * normalize(doc.getLikes(), maxLikes);
+            }
+            double normalizedRelevance = maxRelevance > 0 ? relevance[i] / maxRelevance : 0D;
+            scored.add(new ScoredDocument(doc,
+                    (1 - popularityWeight) * normalizedRelevance + popularityWeight * popularity));
+        }
+
+        Comparator<ScoredDocument> order = Comparator.comparingDouble((ScoredDocument d) -> d.score).reversed()
+                .thenComparing(d -> d.doc.getId(), Comparator.reverseOrder());
+        List<SearchDocument> top = new ArrayList<>(k);
+        for (ScoredDocument d : topK(scored, order, k)) {
+            top.add(d.doc);
+        }
+        return top;
+    }
+
+    /**
+     * 有界堆选出前k项，堆顶为当前保留的最差一项
+     */
+    private static <T> List<T> topK(List<T> items, Comparator<T> order, int k) {
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.max(k, 1), order.reversed());
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.offer(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(item);
+            }
+        }
+        List<T> top = new ArrayList<>(heap);
+        top.sort(order);
+        return top;
+    }
+
+    // 对数归一化到[0,1]，避免个别爆款压扁其余差异
+    private static double normalize(int value, int max) {
+        return max > 0 ? Math.log1p(Math.max(value, 0)) / Math.log1p(max) : 0D;
+    }
+
+    private static boolean byRelevance(String keyword, String sortBy) {
+        return !isBlank(keyword) && (isBlank(sortBy) || "relevance".equals(sortBy));
+    }
+
+    private static Comparator<SearchDocument> latestFirst() {
+        return Comparator.comparing(SearchDocument::getSortTime, Comparator.nullsLast(Comparator.reverseOrder()));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static boolean containsIgnoreNull(String text, String part) {
+        return text != null && text.contains(part);
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static class ScoredDocument {
+
+        private final SearchDocument doc;
+
+        private final double score;
+
+        ScoredDocument(SearchDocument doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.homedesign.search;
+
+/**
+ * 可搜索的实体类型，名称与search_history.search_type保持一致
+ */
+public enum SearchEntityType {
+    CASE,
+    DESIGNER,
+    ARTICLE
+}
@@ -0,0 +1,140 @@
+package com.homedesign.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 并行执行多个搜索子查询
+ * 每个分支有独立的超时时间（search.fanout.timeouts.分支名，缺省为search.fanout.default-timeout），
+ * 超时、出错或线程池已满被拒绝的分支降级为缺失结果，不影响其余分支；各分支耗时累计到统计中
+ */
+@Component
+public class SearchFanout {
+
+    @Autowired
+    @Qualifier("searchExecutor")
+    private ThreadPoolTaskExecutor searchExecutor;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${search.fanout.default-timeout:800}")
+    private long defaultTimeout;
+
+    private final Map<String, BranchStats> stats = new ConcurrentHashMap<>();
+
+    public FanoutResult execute(Map<String, Supplier<?>> branches) {
+        long start = System.nanoTime();
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+
+        FanoutResult result = new FanoutResult();
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<?>> branch : branches.entrySet()) {
+            String name = branch.getKey();
+            Supplier<?> task = branch.getValue();
+            try {
+                futures.put(name, searchExecutor.submit(() -> {
+                    long branchStart = System.nanoTime();
+                    try {
+                        return task.get();
+                    } finally {
+                        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - branchStart);
+                        timings.put(name, elapsed);
+                        stats(name).record(elapsed);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // 线程池已满时直接降级，不在请求线程上同步执行，保证超时仍然有效
+                stats(name).rejections.incrementAndGet();
+                result.getDegraded().put(name, "rejected");
+            }
+        }
+
+        for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+            String name = entry.getKey();
+            Future<?> future = entry.getValue();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutOf(name));
+            try {
+                result.getValues().put(name, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                stats(name).timeouts.incrementAndGet();
+                result.getDegraded().put(name, "timeout");
+            } catch (ExecutionException e) {
+                stats(name).errors.incrementAndGet();
+                result.getDegraded().put(name, "error");
+                System.err.println("搜索子查询失败[" + name + "]: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                result.getDegraded().put(name, "interrupted");
+            }
+        }
+        result.setTimings(new LinkedHashMap<>(timings));
+        return result;
+    }
+
+    /**
+     * 各分支的调用次数、平均/最大耗时、超时、失败和被拒绝次数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, BranchStats> entry : stats.entrySet()) {
+            BranchStats branch = entry.getValue();
+            long count = branch.count.get();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("count", count);
+            item.put("avgMillis", count > 0 ? (double) branch.totalMillis.get() / count : 0D);
+            item.put("maxMillis", branch.maxMillis.get());
+            item.put("timeouts", branch.timeouts.get());
+            item.put("errors", branch.errors.get());
+            item.put("rejections", branch.rejections.get());
+            result.put(entry.getKey(), item);
+        }
+        return result;
+    }
+
+    private long timeoutOf(String branch) {
+        return environment.getProperty("search.fanout.timeouts." + branch, Long.class, defaultTimeout);
+    }
+
+    private BranchStats stats(String branch) {
+        return stats.computeIfAbsent(branch, k -> new BranchStats());
+    }
+
+    private static class BranchStats {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong totalMillis = new AtomicLong();
+
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        private final AtomicLong timeouts = new AtomicLong();
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private final AtomicLong rejections = new AtomicLong();
+
+        void record(long elapsed) {
+            count.incrementAndGet();
+            totalMillis.addAndGet(elapsed);
+            maxMillis.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+}
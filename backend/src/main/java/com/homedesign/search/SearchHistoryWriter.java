@@ -0,0 +1,184 @@
+package com.homedesign.search;
+
+import com.homedesign.entity.SearchHistory;
+import com.homedesign.mapper.SearchHistoryMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 搜索历史异步批量写入
+ * 请求线程只把记录放入有界队列，后台按条数或时间阈值批量落库；
+ * 同一批次内相同的（用户、关键词、类型）合并为一行并累加frequency。
+ * 队列超过高水位后按比例抽样（被保留的记录按抽样率放大frequency），队列满时直接丢弃，搜索请求从不等待数据库
+ */
+@Component
+public class SearchHistoryWriter {
+
+    // 与search_history.keyword列长度一致，超长关键词会让整批写入失败
+    private static final int MAX_KEYWORD_LENGTH = 100;
+
+    @Autowired
+    private SearchHistoryMapper searchHistoryMapper;
+
+    @Value("${search.history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${search.history.batch-size:200}")
+    private int batchSize;
+
+    @Value("${search.history.flush-interval:1000}")
+    private long flushInterval;
+
+    // 队列占用超过该比例后开始抽样
+    @Value("${search.history.sample-threshold:0.75}")
+    private double sampleThreshold;
+
+    // 抽样时每N条保留1条
+    @Value("${search.history.sample-rate:10}")
+    private int sampleRate;
+
+    private BlockingQueue<SearchHistory> queue;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile long lastFlushTime = System.currentTimeMillis();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * 提交一条搜索记录，不阻塞
+     */
+    public void submit(String keyword, String searchType, Long userId) {
+        SearchHistory history = new SearchHistory();
+        history.setKeyword(truncate(keyword));
+        history.setSearchType(searchType);
+        history.setUserId(userId);
+        history.setSearchTime(LocalDateTime.now());
+        history.setFrequency(1);
+
+        if (queue.size() >= queueCapacity * sampleThreshold && sampleRate > 1) {
+            if (ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+            history.setFrequency(sampleRate);
+        }
+        if (!queue.offer(history)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * 达到批量条数或距上次写入超过时间阈值时落库
+     */
+    @Scheduled(fixedDelayString = "${search.history.tick-interval:200}")
+    public void tick() {
+        if (queue.size() >= batchSize || System.currentTimeMillis() - lastFlushTime >= flushInterval) {
+            flush();
+        }
+    }
+
+    public synchronized void flush() {
+        lastFlushTime = System.currentTimeMillis();
+        List<SearchHistory> drained = new ArrayList<>(batchSize);
+        while (queue.drainTo(drained, batchSize) > 0) {
+            write(drained);
+            drained.clear();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        flush();
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private static String truncate(String keyword) {
+        if (keyword == null || keyword.codePointCount(0, keyword.length()) <= MAX_KEYWORD_LENGTH) {
+            return keyword;
+        }
+        return keyword.substring(0, keyword.offsetByCodePoints(0, MAX_KEYWORD_LENGTH));
+    }
+
+    private void write(List<SearchHistory> histories) {
+        Map<HistoryKey, SearchHistory> merged = new LinkedHashMap<>();
+        for (SearchHistory history : histories) {
+            HistoryKey key = new HistoryKey(history.getUserId(), history.getKeyword(), history.getSearchType());
+            SearchHistory existing = merged.get(key);
+            if (existing == null) {
+                merged.put(key, history);
+            } else {
+                existing.setFrequency(existing.getFrequency() + history.getFrequency());
+                existing.setSearchTime(history.getSearchTime());
+            }
+        }
+
+        try {
+            searchHistoryMapper.insertBatch(new ArrayList<>(merged.values()));
+        } catch (Exception e) {
+            // 搜索历史只用于统计和展示，写入失败直接丢弃，不重试
+            dropped.addAndGet(histories.size());
+            System.err.println("批量写入搜索历史失败: " + e.getMessage());
+        }
+    }
+
+    private static class HistoryKey {
+
+        private final Long userId;
+
+        private final String keyword;
+
+        private final String searchType;
+
+        HistoryKey(Long userId, String keyword, String searchType) {
+            this.userId = userId;
+            this.keyword = keyword;
+            this.searchType = searchType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HistoryKey)) {
+                return false;
+            }
+            HistoryKey other = (HistoryKey) o;
+            return Objects.equals(userId, other.userId)
+                    && Objects.equals(keyword, other.keyword)
+                    && Objects.equals(searchType, other.searchType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, keyword, searchType);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.homedesign.search;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一页搜索结果：按顺序排列的实体ID和命中总数
+ */
+@Data
+public class SearchHits {
+
+    private List<Long> ids = new ArrayList<>();
+
+    private long total;
+
+    public static SearchHits empty() {
+        return new SearchHits();
+    }
+}
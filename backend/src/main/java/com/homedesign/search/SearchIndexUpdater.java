@@ -0,0 +1,232 @@
+package com.homedesign.search;
+
+import com.homedesign.cache.SearchResultCache;
+import com.homedesign.entity.Article;
+import com.homedesign.entity.Case;
+import com.homedesign.entity.Designer;
+import com.homedesign.event.ArticleChangeEvent;
+import com.homedesign.event.CaseChangeEvent;
+import com.homedesign.event.DesignerChangeEvent;
+import com.homedesign.event.EntityChangeEvent;
+import com.homedesign.event.EntityChangeEvent.ChangeType;
+import com.homedesign.mapper.ArticleMapper;
+import com.homedesign.mapper.CaseMapper;
+import com.homedesign.mapper.DesignerMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 搜索索引增量维护
+ * 写操作发布的实体变更事件只在请求线程里入队，由定时任务按批次合并去重后，
+ * 按主键回查最新数据并更新索引；全量重建只作为定时的一致性校准
+ */
+@Component
+public class SearchIndexUpdater {
+
+    @Autowired
+    private SearchEngine searchEngine;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private CaseMapper caseMapper;
+
+    @Autowired
+    private DesignerMapper designerMapper;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Value("${search.index.batch-size:500}")
+    private int batchSize;
+
+    @Value("${search.index.max-pending:100000}")
+    private int maxPending;
+
+    private final ConcurrentLinkedQueue<PendingChange> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile boolean rebuildRequested = false;
+
+    @EventListener
+    public void onCaseChange(CaseChangeEvent event) {
+        enqueue(SearchEntityType.CASE, event);
+    }
+
+    @EventListener
+    public void onDesignerChange(DesignerChangeEvent event) {
+        enqueue(SearchEntityType.DESIGNER, event);
+    }
+
+    @EventListener
+    public void onArticleChange(ArticleChangeEvent event) {
+        enqueue(SearchEntityType.ARTICLE, event);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        sweep();
+    }
+
+    /**
+     * 批量应用积压的变更
+     */
+    @Scheduled(fixedDelayString = "${search.index.flush-interval:2000}")
+    public synchronized void flush() {
+        if (rebuildRequested || !searchEngine.isReady()) {
+            // 索引尚未建好或积压溢出时，直接全量重建
+            if (rebuildRequested) {
+                sweep();
+            }
+            return;
+        }
+
+        List<PendingChange> batch = new ArrayList<>();
+        PendingChange change;
+        while ((change = queue.poll()) != null) {
+            pending.decrementAndGet();
+            batch.add(change);
+            if (batch.size() >= batchSize) {
+                apply(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            apply(batch);
+        }
+    }
+
+    /**
+     * 定时全量重建，校准增量更新可能遗漏的变更
+     * 重建期间新到达的事件留在队列中，重建完成后的下一次flush会在新索引上重放
+     */
+    @Scheduled(cron = "${search.index.rebuild-cron:0 0 4 * * ?}")
+    public synchronized void sweep() {
+        rebuildRequested = false;
+        searchEngine.rebuild();
+        searchResultCache.invalidateAll();
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    // 私有辅助方法
+
+    private void enqueue(SearchEntityType type, EntityChangeEvent event) {
+        if (event.getEntityId() == null) {
+            return;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            // 积压过多时放弃增量，改为下一轮全量重建
+            queue.clear();
+            pending.set(0);
+            rebuildRequested = true;
+            return;
+        }
+        queue.offer(new PendingChange(type, event.getEntityId(), event.getChangeType()));
+    }
+
+    private void apply(List<PendingChange> batch) {
+        // 同一实体在一个批次内只保留最后一次变更
+        Map<SearchEntityType, Map<Long, ChangeType>> latest = new EnumMap<>(SearchEntityType.class);
+        for (PendingChange change : batch) {
+            latest.computeIfAbsent(change.type, k -> new LinkedHashMap<>()).put(change.id, change.changeType);
+        }
+
+        try {
+            for (Map.Entry<SearchEntityType, Map<Long, ChangeType>> entry : latest.entrySet()) {
+                InvertedIndex index = searchEngine.index(entry.getKey());
+                if (index == null) {
+                    continue;
+                }
+
+                List<Long> saved = new ArrayList<>();
+                for (Map.Entry<Long, ChangeType> change : entry.getValue().entrySet()) {
+                    if (change.getValue() == ChangeType.DELETED) {
+                        index.remove(change.getKey());
+                    } else {
+                        saved.add(change.getKey());
+                    }
+                }
+                if (!saved.isEmpty()) {
+                    reload(entry.getKey(), index, saved);
+                }
+                // 事件发布时已清过一次缓存，索引更新后再清一次，丢弃期间按旧索引缓存的结果
+                searchResultCache.invalidate(entry.getKey());
+            }
+        } catch (Exception e) {
+            System.err.println("搜索索引增量更新失败，将在下一轮全量重建: " + e.getMessage());
+            rebuildRequested = true;
+        }
+    }
+
+    /**
+     * 按主键回查最新数据：可搜索的写入索引，其余（含已删除）从索引移除
+     */
+    private void reload(SearchEntityType type, InvertedIndex index, List<Long> ids) {
+        Set<Long> indexed = new HashSet<>();
+        switch (type) {
+            case CASE:
+                for (Case designCase : caseMapper.selectBatchIds(ids)) {
+                    if (SearchEngine.isSearchable(designCase)) {
+                        index.put(SearchEngine.fromCase(designCase));
+                        indexed.add(designCase.getId());
+                    }
+                }
+                break;
+            case DESIGNER:
+                for (Designer designer : designerMapper.selectBatchIds(ids)) {
+                    index.put(SearchEngine.fromDesigner(designer));
+                    indexed.add(designer.getId());
+                }
+                break;
+            case ARTICLE:
+                for (Article article : articleMapper.selectBatchIds(ids)) {
+                    if (SearchEngine.isSearchable(article)) {
+                        index.put(SearchEngine.fromArticle(article));
+                        indexed.add(article.getId());
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        for (Long id : ids) {
+            if (!indexed.contains(id)) {
+                index.remove(id);
+            }
+        }
+    }
+
+    private static class PendingChange {
+
+        private final SearchEntityType type;
+
+        private final Long id;
+
+        private final ChangeType changeType;
+
+        PendingChange(SearchEntityType type, Long id, ChangeType changeType) {
+            this.type = type;
+            this.id = id;
+            this.changeType = changeType;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.homedesign.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 搜索分词器
+ * 中日韩文字切分为单字和二元组，字母数字切分为一至三元组；
+ * 索引和查询使用同一套切分规则，n-gram不会跨越文字类别的边界
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 归一化：全角转半角、统一小写
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\u3000') {
+                c = ' ';
+            } else if (c >= '\uFF01' && c <= '\uFF5E') {
+                c = (char) (c - 0xFEE0);
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 将已归一化的查询按空白和标点拆分为多个词
+     */
+    public static List<String> splitTerms(String normalizedQuery) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalizedQuery.length(); i++) {
+            boolean token = i < normalizedQuery.length() && isTokenChar(normalizedQuery.charAt(i));
+            if (token && start < 0) {
+                start = i;
+            } else if (!token && start >= 0) {
+                terms.add(normalizedQuery.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 生成建索引用的n-gram
+     */
+    public static Set<String> indexGrams(String normalizedText) {
+        Set<String> grams = new LinkedHashSet<>();
+        int i = 0;
+        int len = normalizedText.length();
+        while (i < len) {
+            char c = normalizedText.charAt(i);
+            if (!isTokenChar(c)) {
+                i++;
+                continue;
+            }
+            boolean cjk = isCjk(c);
+            int end = runEnd(normalizedText, i, cjk);
+            int maxN = cjk ? 2 : 3;
+            for (int p = i; p < end; p++) {
+                for (int n = 1; n <= maxN && p + n <= end; n++) {
+                    grams.add(normalizedText.substring(p, p + n));
+                }
+            }
+            i = end;
+        }
+        return grams;
+    }
+
+    /**
+     * 生成查询用的n-gram：每个连续片段取该片段能用的最长n-gram
+     */
+    public static Set<String> queryGrams(String normalizedTerm) {
+        Set<String> grams = new LinkedHashSet<>();
+        int i = 0;
+        int len = normalizedTerm.length();
+        while (i < len) {
+            char c = normalizedTerm.charAt(i);
+            if (!isTokenChar(c)) {
+                i++;
+                continue;
+            }
+            boolean cjk = isCjk(c);
+            int end = runEnd(normalizedTerm, i, cjk);
+            int n = Math.min(end - i, cjk ? 2 : 3);
+            for (int p = i; p + n <= end; p++) {
+                grams.add(normalizedTerm.substring(p, p + n));
+            }
+            i = end;
+        }
+        return grams;
+    }
+
+    /**
+     * 模糊匹配允许的编辑距离随长度增加：两个字符以内不纠错，五个以内允许1处，更长允许2处
+     */
+    public static int maxEdits(String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    public static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static int runEnd(String text, int start, boolean cjk) {
+        int end = start + 1;
+        while (end < text.length()) {
+            char c = text.charAt(end);
+            if (!isTokenChar(c) || isCjk(c) != cjk) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,54 @@
+package com.homedesign.search;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一个或多个时间桶的搜索统计，可逐个合并
+ */
+@Data
+public class StatBucket {
+
+    private long totalSearches;
+
+    private long zeroResultSearches;
+
+    // 搜索类型 -> 次数
+    private Map<String, Long> typeCounts = new TreeMap<>();
+
+    // 关键词 -> 次数（每个桶只保留前N个，合并结果为近似值）
+    private Map<String, Long> keywordCounts = new HashMap<>();
+
+    public void merge(StatBucket other) {
+        totalSearches += other.totalSearches;
+        zeroResultSearches += other.zeroResultSearches;
+        other.typeCounts.forEach((type, count) -> typeCounts.merge(type, count, Long::sum));
+        other.keywordCounts.forEach((keyword, count) -> keywordCounts.merge(keyword, count, Long::sum));
+    }
+
+    /**
+     * 次数最多的前limit个关键词，按次数降序
+     */
+    public Map<String, Long> topKeywords(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(keywordCounts.entrySet());
+        entries.sort((a, b) -> {
+            int cmp = Long.compare(b.getValue(), a.getValue());
+            return cmp != 0 ? cmp : a.getKey().compareTo(b.getKey());
+        });
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            top.put(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+        return top;
+    }
+
+    public double zeroResultRate() {
+        return totalSearches > 0 ? (double) zeroResultSearches / totalSearches : 0D;
+    }
+}
@@ -0,0 +1,125 @@
+package com.homedesign.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.homedesign.entity.Case;
+import com.homedesign.entity.Designer;
+import com.homedesign.entity.SearchHistory;
+import com.homedesign.mapper.CaseMapper;
+import com.homedesign.mapper.DesignerMapper;
+import com.homedesign.mapper.SearchHistoryMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 搜索建议引擎
+ * 由搜索历史关键词、案例标题、设计师姓名和风格标签构建前缀树（含拼音键），
+ * 在定时任务线程中后台重建并整体替换，查询不访问数据库。
+ * 前缀补全不足时用编辑距离模糊补全补齐；同一棵树也作为搜索无结果时的纠错词典
+ */
+@Component
+public class SuggestionEngine {
+
+    // 用户真实搜索过的词比标题、姓名更能代表输入意图
+    private static final double HISTORY_WEIGHT = 3.0;
+
+    private static final double STYLE_WEIGHT = 2.0;
+
+    @Autowired
+    private SearchHistoryMapper searchHistoryMapper;
+
+    @Autowired
+    private CaseMapper caseMapper;
+
+    @Autowired
+    private DesignerMapper designerMapper;
+
+    @Value("${search.suggest.top-n:10}")
+    private int topN;
+
+    @Value("${search.suggest.history-limit:5000}")
+    private int historyLimit;
+
+    private volatile SuggestionTrie trie = SuggestionTrie.empty();
+
+    public List<String> suggest(String prefix, int limit) {
+        SuggestionTrie current = trie;
+        int max = Math.min(limit, topN);
+        String key = pinyinKey(prefix);
+
+        Set<String> suggestions = new LinkedHashSet<>(current.lookup(key, max));
+        if (suggestions.size() < max) {
+            int maxEdits = SearchTokenizer.maxEdits(key);
+            if (maxEdits > 0) {
+                suggestions.addAll(current.fuzzyLookup(key, maxEdits, max, true));
+            }
+        }
+        return new ArrayList<>(suggestions).subList(0, Math.min(max, suggestions.size()));
+    }
+
+    /**
+     * 重建前缀树，构建完成前查询继续使用旧树
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${search.suggest.rebuild-interval:300000}")
+    public void rebuild() {
+        try {
+            SuggestionTrie.Builder builder = new SuggestionTrie.Builder();
+
+            try {
+                for (SearchHistory history : searchHistoryMapper.getKeywordFrequencies(historyLimit)) {
+                    int frequency = history.getFrequency() != null ? history.getFrequency() : 1;
+                    builder.add(history.getKeyword(), HISTORY_WEIGHT * frequency);
+                }
+            } catch (Exception e) {
+                // 搜索历史不可用时仍用实体数据构建
+                System.err.println("加载搜索历史关键词失败: " + e.getMessage());
+            }
+
+            List<Case> cases = caseMapper.selectList(new QueryWrapper<Case>()
+                    .select("title", "style", "views")
+                    .eq("status", "APPROVED"));
+            for (Case designCase : cases) {
+                int views = designCase.getViews() != null ? designCase.getViews() : 0;
+                builder.add(designCase.getTitle(), 1 + Math.log1p(views));
+                addStyles(builder, designCase.getStyle());
+            }
+
+            List<Designer> designers = designerMapper.selectList(new QueryWrapper<Designer>()
+                    .select("name", "style", "rating"));
+            for (Designer designer : designers) {
+                double rating = designer.getRating() != null ? designer.getRating() : 0D;
+                builder.add(designer.getName(), 1 + rating);
+                addStyles(builder, designer.getStyle());
+            }
+
+            SuggestionTrie rebuilt = builder.build(topN);
+            trie = rebuilt;
+            System.out.println("搜索建议索引构建完成: " + rebuilt.size() + " 条");
+        } catch (Exception e) {
+            System.err.println("搜索建议索引构建失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 拼音输入中的空格和隔音符不参与匹配
+     */
+    private static String pinyinKey(String input) {
+        String normalized = SearchTokenizer.normalize(input).trim();
+        return PinyinConverter.isPinyinQuery(normalized) ? PinyinConverter.compact(normalized) : normalized;
+    }
+
+    private static void addStyles(SuggestionTrie.Builder builder, String styles) {
+        if (styles == null) {
+            return;
+        }
+        for (String style : styles.split("[,，、/\\s]+")) {
+            builder.add(style, STYLE_WEIGHT);
+        }
+    }
+}
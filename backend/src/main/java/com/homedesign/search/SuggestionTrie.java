@@ -0,0 +1,307 @@
+package com.homedesign.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 搜索建议前缀树
+ * 构建完成后压缩为数组：每个节点的子边按字符排序连续存放，查找时二分定位；
+ * 每个节点预先保存权重最高的N个补全结果，查询只需沿前缀走一遍，无需遍历子树。
+ * 含汉字的词条同时以全拼和首字母作为键插入，拼音输入也能补全出中文。
+ * 模糊查找在树上逐层推进编辑距离矩阵的一行（等价于编辑距离自动机与前缀树求交），整行超过上限即剪枝。
+ * 构建后只读，可在多线程间共享
+ */
+public class SuggestionTrie {
+
+    // 节点i的子边位于 [childStart[i], childStart[i + 1])
+    private final int[] childStart;
+
+    private final char[] edgeChars;
+
+    private final int[] edgeTargets;
+
+    // 节点 -> 补全结果下标（按权重降序）
+    private final int[][] completions;
+
+    // 节点 -> 以该节点结尾的词条下标，没有时为null
+    private final int[][] terminals;
+
+    private final String[] texts;
+
+    private final double[] weights;
+
+    private SuggestionTrie(int[] childStart, char[] edgeChars, int[] edgeTargets, int[][] completions,
+                           int[][] terminals, String[] texts, double[] weights) {
+        this.childStart = childStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.completions = completions;
+        this.terminals = terminals;
+        this.texts = texts;
+        this.weights = weights;
+    }
+
+    public static SuggestionTrie empty() {
+        return new Builder().build(1);
+    }
+
+    /**
+     * 查找以prefix开头的补全结果
+     */
+    public List<String> lookup(String prefix, int limit) {
+        String key = SearchTokenizer.normalize(prefix).trim();
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+
+        int[] top = completions[node];
+        List<String> result = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && i < limit; i++) {
+            result.add(texts[top[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * 模糊查找：编辑距离不超过maxEdits的词条，按距离升序、权重降序
+     * prefix为true时查询只需与词条的某个前缀足够接近（用于输入过程中的补全），否则需与整个词条接近（用于纠错）
+     */
+    public List<String> fuzzyLookup(String query, int maxEdits, int limit, boolean prefix) {
+        String key = SearchTokenizer.normalize(query).trim();
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        int[] firstRow = new int[key.length() + 1];
+        for (int i = 0; i <= key.length(); i++) {
+            firstRow[i] = i;
+        }
+        Map<Integer, Integer> distances = new HashMap<>();
+        fuzzyWalk(0, key, firstRow, maxEdits, prefix, distances);
+
+        List<Integer> matched = new ArrayList<>(distances.keySet());
+        matched.sort((a, b) -> {
+            int cmp = Integer.compare(distances.get(a), distances.get(b));
+            if (cmp != 0) {
+                return cmp;
+            }
+            cmp = Double.compare(weights[b], weights[a]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+
+        List<String> result = new ArrayList<>(Math.min(limit, matched.size()));
+        for (int i = 0; i < matched.size() && i < limit; i++) {
+            result.add(texts[matched.get(i)]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    private void fuzzyWalk(int node, String key, int[] row, int maxEdits, boolean prefix, Map<Integer, Integer> distances) {
+        int distance = row[key.length()];
+        if (distance <= maxEdits) {
+            int[] matched = prefix ? completions[node] : terminals[node];
+            if (matched != null) {
+                for (int index : matched) {
+                    distances.merge(index, distance, Math::min);
+                }
+            }
+        }
+
+        for (int edge = childStart[node]; edge < childStart[node + 1]; edge++) {
+            char c = edgeChars[edge];
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            int min = next[0];
+            for (int i = 1; i < row.length; i++) {
+                int cost = key.charAt(i - 1) == c ? 0 : 1;
+                next[i] = Math.min(Math.min(next[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+                min = Math.min(min, next[i]);
+            }
+            if (min <= maxEdits) {
+                fuzzyWalk(edgeTargets[edge], key, next, maxEdits, prefix, distances);
+            }
+        }
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = childStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = edgeChars[mid];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 收集候选词并累加权重，相同归一化形式的词合并为一条，展示文本取权重最高的一次；
+     * 含汉字的词另外登记全拼和首字母两个键
+     */
+    public static class Builder {
+
+        private final Map<String, Candidate> candidates = new HashMap<>();
+
+        public Builder add(String text, double weight) {
+            if (text == null || weight <= 0) {
+                return this;
+            }
+            String display = text.trim();
+            String key = SearchTokenizer.normalize(display);
+            if (key.isEmpty()) {
+                return this;
+            }
+            Candidate candidate = candidates.computeIfAbsent(key, k -> new Candidate(k));
+            candidate.weight += weight;
+            if (weight > candidate.displayWeight) {
+                candidate.display = display;
+                candidate.displayWeight = weight;
+            }
+            return this;
+        }
+
+        public SuggestionTrie build(int topN) {
+            List<Candidate> list = new ArrayList<>(candidates.values());
+            String[] texts = new String[list.size()];
+            double[] weights = new double[list.size()];
+
+            TempNode root = new TempNode();
+            for (int i = 0; i < list.size(); i++) {
+                Candidate candidate = list.get(i);
+                texts[i] = candidate.display;
+                weights[i] = candidate.weight;
+
+                for (String key : candidate.keys()) {
+                    TempNode node = root;
+                    for (int j = 0; j < key.length(); j++) {
+                        node = node.children.computeIfAbsent(key.charAt(j), k -> new TempNode());
+                    }
+                    node.terminals.add(i);
+                }
+            }
+            collectTop(root, weights, Math.max(topN, 1));
+
+            // 广度优先编号，保证同一节点的子边连续
+            List<TempNode> order = new ArrayList<>();
+            Deque<TempNode> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                TempNode node = queue.poll();
+                node.id = order.size();
+                order.add(node);
+                queue.addAll(node.children.values());
+            }
+
+            int nodeCount = order.size();
+            int[] childStart = new int[nodeCount + 1];
+            char[] edgeChars = new char[nodeCount - 1];
+            int[] edgeTargets = new int[nodeCount - 1];
+            int[][] completions = new int[nodeCount][];
+            int[][] terminals = new int[nodeCount][];
+            int edge = 0;
+            for (TempNode node : order) {
+                childStart[node.id] = edge;
+                for (Map.Entry<Character, TempNode> entry : node.children.entrySet()) {
+                    edgeChars[edge] = entry.getKey();
+                    edgeTargets[edge] = entry.getValue().id;
+                    edge++;
+                }
+                completions[node.id] = node.top;
+                if (!node.terminals.isEmpty()) {
+                    terminals[node.id] = node.terminals.stream().mapToInt(Integer::intValue).toArray();
+                }
+            }
+            childStart[nodeCount] = edge;
+
+            return new SuggestionTrie(childStart, edgeChars, edgeTargets, completions, terminals, texts, weights);
+        }
+
+        /**
+         * 自底向上合并：节点的前N名来自自身词条和各子节点的前N名
+         */
+        private static void collectTop(TempNode node, double[] weights, int topN) {
+            // 同一词条可能经由汉字、全拼、首字母多条路径出现在同一子树中
+            Set<Integer> distinct = new LinkedHashSet<>(node.terminals);
+            for (TempNode child : node.children.values()) {
+                collectTop(child, weights, topN);
+                for (int index : child.top) {
+                    distinct.add(index);
+                }
+            }
+            List<Integer> pool = new ArrayList<>(distinct);
+            pool.sort((a, b) -> {
+                int cmp = Double.compare(weights[b], weights[a]);
+                return cmp != 0 ? cmp : Integer.compare(a, b);
+            });
+
+            int count = Math.min(pool.size(), topN);
+            node.top = new int[count];
+            for (int i = 0; i < count; i++) {
+                node.top[i] = pool.get(i);
+            }
+        }
+    }
+
+    private static class Candidate {
+
+        private final String key;
+
+        private String display;
+
+        private double displayWeight;
+
+        private double weight;
+
+        Candidate(String key) {
+            this.key = key;
+        }
+
+        Set<String> keys() {
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(key);
+            if (PinyinConverter.containsHan(key)) {
+                keys.add(PinyinConverter.full(key));
+                keys.add(PinyinConverter.initials(key));
+            }
+            keys.remove("");
+            return keys;
+        }
+    }
+
+    private static class TempNode {
+
+        private final TreeMap<Character, TempNode> children = new TreeMap<>();
+
+        private final List<Integer> terminals = new ArrayList<>();
+
+        private int[] top;
+
+        private int id;
+    }
+}
@@ -0,0 +1,141 @@
+package com.homedesign.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 索引的词典：文档字段按splitTerms切出的词及其文档数，存成可增删的前缀树
+ * 模糊查找与SuggestionTrie相同，沿树逐层推进编辑距离矩阵的一行，整行超过上限即剪枝。
+ * 非线程安全，由InvertedIndex的读写锁保护
+ */
+class TermDictionary {
+
+    private final Node root = new Node();
+
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(String term) {
+        Node node = find(term);
+        return node != null && node.count > 0;
+    }
+
+    void add(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), k -> new Node());
+        }
+        if (node.count++ == 0) {
+            size++;
+        }
+    }
+
+    void remove(String term) {
+        removeFrom(root, term, 0);
+    }
+
+    /**
+     * 与term的编辑距离在1到maxEdits之间的词，按距离升序、文档数降序
+     */
+    List<String> fuzzyLookup(String term, int maxEdits, int limit) {
+        if (term.isEmpty() || maxEdits <= 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int[] firstRow = new int[term.length() + 1];
+        for (int i = 0; i <= term.length(); i++) {
+            firstRow[i] = i;
+        }
+        List<Candidate> found = new ArrayList<>();
+        fuzzyWalk(root, new StringBuilder(), term, firstRow, maxEdits, found);
+
+        found.sort((a, b) -> {
+            int cmp = Integer.compare(a.distance, b.distance);
+            return cmp != 0 ? cmp : Integer.compare(b.count, a.count);
+        });
+        List<String> result = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            result.add(found.get(i).term);
+        }
+        return result;
+    }
+
+    // 私有辅助方法
+
+    private Node find(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.children.get(term.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * 减少词的文档数，返回该节点是否可以从父节点删除
+     */
+    private boolean removeFrom(Node node, String term, int depth) {
+        if (depth == term.length()) {
+            if (node.count > 0 && --node.count == 0) {
+                size--;
+            }
+        } else {
+            Node child = node.children.get(term.charAt(depth));
+            if (child != null && removeFrom(child, term, depth + 1)) {
+                node.children.remove(term.charAt(depth));
+            }
+        }
+        return node.count == 0 && node.children.isEmpty();
+    }
+
+    private void fuzzyWalk(Node node, StringBuilder path, String term, int[] row, int maxEdits, List<Candidate> found) {
+        int distance = row[term.length()];
+        if (node.count > 0 && distance > 0 && distance <= maxEdits) {
+            found.add(new Candidate(path.toString(), distance, node.count));
+        }
+
+        for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+            char c = entry.getKey();
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            int min = next[0];
+            for (int i = 1; i < row.length; i++) {
+                int cost = term.charAt(i - 1) == c ? 0 : 1;
+                next[i] = Math.min(Math.min(next[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+                min = Math.min(min, next[i]);
+            }
+            if (min <= maxEdits) {
+                path.append(c);
+                fuzzyWalk(entry.getValue(), path, term, next, maxEdits, found);
+                path.setLength(path.length() - 1);
+            }
+        }
+    }
+
+    private static class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+
+        // 以该节点结尾的词出现在多少个文档中
+        private int count;
+    }
+
+    private static class Candidate {
+
+        private final String term;
+
+        private final int distance;
+
+        private final int count;
+
+        Candidate(String term, int distance, int count) {
+            this.term = term;
+            this.distance = distance;
+            this.count = count;
+        }
+    }
+}
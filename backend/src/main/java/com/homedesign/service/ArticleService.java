@@ -12,4 +12,13 @@ public interface ArticleService extends IService<Article> {
     
     // 获取推荐文章
     List<Article> getRecommendedArticles(String category, Integer limit);
+    
+    // 点赞文章，已点过赞返回false
+    boolean likeArticle(Long articleId, Long userId);
+    
+    // 取消点赞，未点过赞返回false
+    boolean unlikeArticle(Long articleId, Long userId);
+    
+    // 记录一次浏览（异步累加浏览量和独立访客）
+    boolean increaseViews(Long articleId, String visitorKey);
 }
\ No newline at end of file
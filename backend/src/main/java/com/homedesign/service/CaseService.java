@@ -12,14 +12,14 @@ public interface CaseService extends IService<Case> {
     // 取消发布案例
     boolean unpublishCase(Long caseId);
     
-    // 点赞案例
-    boolean likeCase(Long caseId);
+    // 点赞案例，已点过赞返回false
+    boolean likeCase(Long caseId, Long userId);
     
-    // 取消点赞
-    boolean unlikeCase(Long caseId);
+    // 取消点赞，未点过赞返回false
+    boolean unlikeCase(Long caseId, Long userId);
     
-    // 增加浏览量
-    boolean increaseViews(Long caseId);
+    // 记录一次浏览（异步累加浏览量和独立访客）
+    boolean increaseViews(Long caseId, String visitorKey);
     
     // 获取设计师案例列表
     IPage<Case> getDesignerCases(Long designerId, Integer page, Integer size, String status);
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.homedesign.dto.CommentDTO;
+import com.homedesign.dto.CommentTreeNode;
 import com.homedesign.entity.Comment;
 
 import java.util.List;
@@ -18,14 +19,29 @@ public interface CommentService extends IService<Comment> {
     // 获取评论列表（支持多级评论）
     Map<String, Object> getCommentTree(String targetType, Long targetId, Integer page, Integer size);
     
-    // 点赞评论
-    void likeComment(Long commentId, Long userId);
+    // 获取目标的最新评论（不分层级），第一页走缓存
+    IPage<Comment> getLatestComments(String targetType, Long targetId, Integer page, Integer size);
+    
+    // 批量获取同一类型多个目标的评论总数
+    Map<Long, Long> getCommentCounts(String targetType, List<Long> targetIds);
+    
+    // 点赞评论，已点过赞返回false
+    boolean likeComment(Long commentId, Long userId);
+    
+    // 取消点赞评论，未点过赞返回false
+    boolean unlikeComment(Long commentId, Long userId);
     
     // 获取子评论
     List<Comment> getChildComments(Long parentId);
     
-    // 删除评论（级联删除子评论）
-    void deleteComment(Long commentId, Long userId);
+    // 按游标分页获取子评论（id大于cursor），每条带出部分下级回复
+    List<CommentTreeNode> getChildComments(Long parentId, Long cursor, Integer size);
+    
+    // 按先序分页获取评论下的整棵回复子树，cursor为上一页最后一条的ID
+    List<CommentTreeNode> getThread(Long commentId, Long cursor, Integer size);
+    
+    // 删除评论（级联删除子评论），返回删除的评论数
+    int deleteComment(Long commentId, Long userId);
     
     // 更新评论
     void updateComment(Long commentId, Long userId, String content);
@@ -39,6 +55,6 @@ public interface CommentService extends IService<Comment> {
     // 回复评论
     void replyToComment(Long commentId, String content);
     
-    // 删除评论（设计师使用）
-    void deleteCommentById(Long commentId);
+    // 删除评论（设计师使用），返回删除的评论数
+    int deleteCommentById(Long commentId);
 }
\ No newline at end of file
@@ -20,9 +20,14 @@ public interface DesignerService extends IService<Designer> {
     boolean updateDesignerProfile(Long id, Designer designer);
     
     /**
-     * 点赞设计师
+     * 点赞设计师，已点过赞返回false
      */
-    boolean likeDesigner(Long id);
+    boolean likeDesigner(Long id, Long userId);
+    
+    /**
+     * 取消点赞设计师，未点过赞返回false
+     */
+    boolean unlikeDesigner(Long id, Long userId);
     
     /**
      * 获取热门设计师
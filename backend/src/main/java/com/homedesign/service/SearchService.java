@@ -17,21 +17,41 @@ public interface SearchService {
      */
     Map<String, Object> searchAll(String keyword, Integer page, Integer size, Long userId);
     
+    /**
+     * 综合搜索（支持风格筛选和排序，不记录搜索历史）
+     */
+    Map<String, Object> searchAll(String keyword, String style, String sortBy, Integer page, Integer size);
+    
     /**
      * 搜索案例
      */
     IPage<Case> searchCases(String keyword, String style, Integer page, Integer size);
     
+    /**
+     * 搜索案例（支持户型筛选和排序）
+     */
+    IPage<Case> searchCases(String keyword, String style, String layout, String sortBy, Integer page, Integer size);
+    
     /**
      * 搜索设计师
      */
     IPage<Designer> searchDesigners(String keyword, String style, Integer page, Integer size);
     
+    /**
+     * 搜索设计师（支持服务区域筛选和排序）
+     */
+    IPage<Designer> searchDesigners(String keyword, String style, String serviceArea, String sortBy, Integer page, Integer size);
+    
     /**
      * 搜索文章
      */
     IPage<Article> searchArticles(String keyword, String category, Integer page, Integer size);
     
+    /**
+     * 搜索文章（支持排序）
+     */
+    IPage<Article> searchArticles(String keyword, String category, String sortBy, Integer page, Integer size);
+    
     /**
      * 获取搜索历史
      */
@@ -46,6 +66,16 @@ public interface SearchService {
      * 记录搜索历史
      */
     void recordSearchHistory(String keyword, String searchType);
+
+    /**
+     * 记录搜索历史及本次搜索的结果数（用于零结果统计）
+     */
+    void recordSearchHistory(String keyword, String searchType, long resultCount);
+
+    /**
+     * 综合搜索各类型结果数之和
+     */
+    long countResults(Map<String, Object> searchAllResult);
     
     /**
      * 获取搜索建议
@@ -56,6 +86,11 @@ public interface SearchService {
      * 获取热门关键词
      */
     List<String> getHotKeywords();
+
+    /**
+     * 获取指定时间窗口（hour/day/week）的热门关键词
+     */
+    List<String> getHotKeywords(String window, Integer limit);
     
     /**
      * 搜索统计分析
@@ -66,4 +101,9 @@ public interface SearchService {
      * 获取搜索统计
      */
     Map<String, Object> getSearchStats();
+
+    /**
+     * 获取搜索结果缓存统计
+     */
+    Map<String, Object> getSearchCacheStats();
 }
\ No newline at end of file
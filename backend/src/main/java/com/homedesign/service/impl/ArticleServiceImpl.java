@@ -1,9 +1,18 @@
 package com.homedesign.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.homedesign.counter.CounterEngine;
+import com.homedesign.counter.CounterField;
+import com.homedesign.counter.CounterTarget;
+import com.homedesign.counter.LikeStore;
 import com.homedesign.entity.Article;
+import com.homedesign.event.ArticleChangeEvent;
+import com.homedesign.event.ViewEvent;
 import com.homedesign.mapper.ArticleMapper;
 import com.homedesign.service.ArticleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -12,6 +21,15 @@ import java.util.List;
 @Service
 public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> implements ArticleService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CounterEngine counterEngine;
+
+    @Autowired
+    private LikeStore likeStore;
+
     // 基础CRUD操作由ServiceImpl提供
     
     /**
@@ -27,7 +45,11 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         article.setPublishTime(LocalDateTime.now());
         article.setUpdateTime(LocalDateTime.now());
         
-        return updateById(article);
+        boolean result = updateById(article);
+        if (result) {
+            eventPublisher.publishEvent(ArticleChangeEvent.saved(articleId));
+        }
+        return result;
     }
     
     /**
@@ -50,4 +72,47 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
                 .limit(limit != null ? limit : 10)
                 .collect(java.util.stream.Collectors.toList());
     }
-}
\ No newline at end of file
+    
+    /**
+     * 点赞文章，已点过赞返回false
+     */
+    public boolean likeArticle(Long articleId, Long userId) {
+        checkExists(articleId);
+        if (!likeStore.like(CounterTarget.ARTICLE, articleId, userId)) {
+            return false;
+        }
+        counterEngine.increment(CounterTarget.ARTICLE, articleId, CounterField.LIKES);
+        return true;
+    }
+    
+    /**
+     * 取消点赞，未点过赞返回false
+     */
+    public boolean unlikeArticle(Long articleId, Long userId) {
+        checkExists(articleId);
+        if (!likeStore.unlike(CounterTarget.ARTICLE, articleId, userId)) {
+            return false;
+        }
+        counterEngine.add(CounterTarget.ARTICLE, articleId, CounterField.LIKES, -1);
+        return true;
+    }
+    
+    /**
+     * 记录一次浏览，调用方已查到文章，这里不再回查；只发布事件，不在读请求中写库
+     */
+    public boolean increaseViews(Long articleId, String visitorKey) {
+        eventPublisher.publishEvent(new ViewEvent(CounterTarget.ARTICLE, articleId, visitorKey));
+        return true;
+    }
+    
+    // 私有辅助方法
+    
+    /**
+     * 只查主键判断文章是否存在，不读取整行
+     */
+    private void checkExists(Long articleId) {
+        if (count(new QueryWrapper<Article>().eq("id", articleId)) == 0) {
+            throw new RuntimeException("文章不存在");
+        }
+    }
+}
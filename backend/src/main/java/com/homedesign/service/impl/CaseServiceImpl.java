@@ -4,11 +4,18 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.homedesign.counter.CounterEngine;
+import com.homedesign.counter.CounterField;
+import com.homedesign.counter.CounterTarget;
+import com.homedesign.counter.LikeStore;
 import com.homedesign.entity.Case;
+import com.homedesign.event.CaseChangeEvent;
+import com.homedesign.event.ViewEvent;
 import com.homedesign.mapper.CaseMapper;
 import com.homedesign.service.CaseService;
 import com.homedesign.service.DesignerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -19,6 +26,15 @@ public class CaseServiceImpl extends ServiceImpl<CaseMapper, Case> implements Ca
     @Autowired
     private DesignerService designerService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CounterEngine counterEngine;
+
+    @Autowired
+    private LikeStore likeStore;
+
     @Override
     public boolean publishCase(Long caseId) {
         Case designCase = getById(caseId);
@@ -30,7 +46,11 @@ public class CaseServiceImpl extends ServiceImpl<CaseMapper, Case> implements Ca
         // 移除publishTime设置，因为数据库表中没有这个字段
         designCase.setUpdateTime(LocalDateTime.now());
         
-        return updateById(designCase);
+        boolean result = updateById(designCase);
+        if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(caseId));
+        }
+        return result;
     }
 
     @Override
@@ -43,48 +63,38 @@ public class CaseServiceImpl extends ServiceImpl<CaseMapper, Case> implements Ca
         designCase.setStatus("DRAFT");
         designCase.setUpdateTime(LocalDateTime.now());
         
-        return updateById(designCase);
+        boolean result = updateById(designCase);
+        if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(caseId));
+        }
+        return result;
     }
 
     @Override
-    public boolean likeCase(Long caseId) {
-        Case designCase = getById(caseId);
-        if (designCase == null) {
-            throw new RuntimeException("案例不存在");
+    public boolean likeCase(Long caseId, Long userId) {
+        checkExists(caseId);
+        if (!likeStore.like(CounterTarget.CASE, caseId, userId)) {
+            return false;
         }
-        
-        designCase.setLikes(designCase.getLikes() + 1);
-        designCase.setUpdateTime(LocalDateTime.now());
-        
-        return updateById(designCase);
+        counterEngine.increment(CounterTarget.CASE, caseId, CounterField.LIKES);
+        return true;
     }
 
     @Override
-    public boolean unlikeCase(Long caseId) {
-        Case designCase = getById(caseId);
-        if (designCase == null) {
-            throw new RuntimeException("案例不存在");
-        }
-        
-        if (designCase.getLikes() > 0) {
-            designCase.setLikes(designCase.getLikes() - 1);
-            designCase.setUpdateTime(LocalDateTime.now());
+    public boolean unlikeCase(Long caseId, Long userId) {
+        checkExists(caseId);
+        if (!likeStore.unlike(CounterTarget.CASE, caseId, userId)) {
+            return false;
         }
-        
-        return updateById(designCase);
+        counterEngine.add(CounterTarget.CASE, caseId, CounterField.LIKES, -1);
+        return true;
     }
 
     @Override
-    public boolean increaseViews(Long caseId) {
-        Case designCase = getById(caseId);
-        if (designCase == null) {
-            throw new RuntimeException("案例不存在");
-        }
-        
-        designCase.setViews(designCase.getViews() + 1);
-        designCase.setUpdateTime(LocalDateTime.now());
-        
-        return updateById(designCase);
+    public boolean increaseViews(Long caseId, String visitorKey) {
+        // 调用方已查到案例，这里不再回查；只发布事件，不在读请求中写库
+        eventPublisher.publishEvent(new ViewEvent(CounterTarget.CASE, caseId, visitorKey));
+        return true;
     }
 
     @Override
@@ -126,7 +136,11 @@ public class CaseServiceImpl extends ServiceImpl<CaseMapper, Case> implements Ca
         designCase.setStatus(status);
         designCase.setUpdateTime(LocalDateTime.now());
         
-        return updateById(designCase);
+        boolean result = updateById(designCase);
+        if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(caseId));
+        }
+        return result;
     }
 
     @Override
@@ -151,7 +165,11 @@ public class CaseServiceImpl extends ServiceImpl<CaseMapper, Case> implements Ca
             designCase.setLikes(0);
         }
         
-        return save(designCase);
+        boolean result = save(designCase);
+        if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(designCase.getId()));
+        }
+        return result;
     }
 
     @Override
@@ -168,7 +186,11 @@ public class CaseServiceImpl extends ServiceImpl<CaseMapper, Case> implements Ca
         designCase.setCreateTime(existingCase.getCreateTime());
         // 移除publishTime设置，因为数据库表中没有这个字段
         
-        return updateById(designCase);
+        boolean result = updateById(designCase);
+        if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(designCase.getId()));
+        }
+        return result;
     }
 
     @Override
@@ -178,6 +200,21 @@ public class CaseServiceImpl extends ServiceImpl<CaseMapper, Case> implements Ca
             throw new RuntimeException("案例不存在");
         }
         
-        return removeById(caseId);
+        boolean result = removeById(caseId);
+        if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.deleted(caseId));
+        }
+        return result;
+    }
+
+    // 私有辅助方法
+
+    /**
+     * 只查主键判断案例是否存在，不读取整行
+     */
+    private void checkExists(Long caseId) {
+        if (count(new QueryWrapper<Case>().eq("id", caseId)) == 0) {
+            throw new RuntimeException("案例不存在");
+        }
     }
-}
\ No newline at end of file
+}
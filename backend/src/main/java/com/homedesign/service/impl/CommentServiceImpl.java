@@ -4,16 +4,27 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.homedesign.cache.CommentTargetCache;
+import com.homedesign.cache.TargetTitleCache;
+import com.homedesign.counter.CounterEngine;
+import com.homedesign.counter.CounterField;
+import com.homedesign.counter.CounterTarget;
+import com.homedesign.counter.LikeStore;
 import com.homedesign.entity.Comment;
 import com.homedesign.entity.User;
 import com.homedesign.entity.Case;
 import com.homedesign.mapper.CommentMapper;
+import com.homedesign.moderation.SensitiveWordFilter;
 import com.homedesign.service.CommentService;
 import com.homedesign.service.UserService;
 import com.homedesign.service.CaseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import com.homedesign.dto.CommentDTO;
+import com.homedesign.dto.CommentTreeNode;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -27,6 +38,33 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
     @Autowired
     private CaseService caseService;
 
+    @Autowired
+    private CounterEngine counterEngine;
+
+    @Autowired
+    private LikeStore likeStore;
+
+    @Autowired
+    private TargetTitleCache targetTitleCache;
+
+    @Autowired
+    private CommentTargetCache commentTargetCache;
+
+    @Autowired
+    private SensitiveWordFilter sensitiveWordFilter;
+
+    // 路径列长768，每层11个字符，回复最多嵌套到这一层
+    private static final int MAX_THREAD_DEPTH = 64;
+
+    @Value("${comment.tree.reply-limit:3}")
+    private int replyLimit;
+
+    @Value("${comment.tree.max-depth:3}")
+    private int maxDepth;
+
+    @Value("${comment.delete.batch-size:500}")
+    private int deleteBatchSize;
+
     @Override
     public Comment createComment(Comment comment) {
         // 打印调试信息
@@ -49,6 +87,9 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         if (comment.getContent() == null || comment.getContent().trim().isEmpty()) {
             throw new RuntimeException("content不能为空");
         }
+        if (sensitiveWordFilter.containsSensitive(comment.getContent())) {
+            throw new RuntimeException("评论包含敏感词，请修改后再发布");
+        }
         
         // 设置初始值
         comment.setLikes(0);
@@ -56,13 +97,28 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         comment.setUpdateTime(LocalDateTime.now());
         comment.setDeleted(0);
         
+        Comment parent = resolveParent(comment);
+        
         System.out.println("准备保存的评论: " + comment);
         save(comment);
+        initThread(comment, parent);
+        commentTargetCache.onCreate(comment);
         return comment;
     }
 
     @Override
     public Map<String, Object> getCommentTree(String targetType, Long targetId, Integer page, Integer size) {
+        // 详情页默认加载的第一页走缓存
+        boolean firstPage = page == 1 && size == commentTargetCache.getPageSize();
+        if (firstPage) {
+            List<CommentTreeNode> cached = commentTargetCache.getTree(targetType, targetId);
+            Long topTotal = commentTargetCache.getTopTotal(targetType, targetId);
+            if (cached != null && topTotal != null) {
+                return pageResult(cached, topTotal, page, size);
+            }
+        }
+        long stamp = commentTargetCache.stamp(targetType, targetId);
+        
         // 获取顶级评论（parent_id为null或0）
         Page<Comment> pageInfo = new Page<>(page, size);
         QueryWrapper<Comment> queryWrapper = new QueryWrapper<>();
@@ -73,44 +129,83 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         
         IPage<Comment> topComments = page(pageInfo, queryWrapper);
         
-        // 为每个顶级评论获取子评论
-        List<Comment> commentsWithReplies = new ArrayList<>();
+        List<CommentTreeNode> records = new ArrayList<>();
         for (Comment comment : topComments.getRecords()) {
-            List<Comment> childComments = getChildComments(comment.getId());
-            
-            // 创建包含子评论的评论对象
-            Comment commentWithChildren = new Comment();
-            commentWithChildren.setId(comment.getId());
-            commentWithChildren.setTargetType(comment.getTargetType());
-            commentWithChildren.setTargetId(comment.getTargetId());
-            commentWithChildren.setUserId(comment.getUserId());
-            commentWithChildren.setUsername(comment.getUsername());
-            commentWithChildren.setAvatar(comment.getAvatar());
-            commentWithChildren.setContent(comment.getContent());
-            commentWithChildren.setLikes(comment.getLikes());
-            commentWithChildren.setParentId(comment.getParentId());
-            commentWithChildren.setReplyTo(comment.getReplyTo());
-            commentWithChildren.setCreateTime(comment.getCreateTime());
-            commentWithChildren.setUpdateTime(comment.getUpdateTime());
-            
-            // 将子评论作为属性存储
-            Map<String, Object> commentMap = new HashMap<>();
-            commentMap.put("comment", commentWithChildren);
-            commentMap.put("replies", childComments);
-            
-            commentsWithReplies.add(commentWithChildren);
+            records.add(CommentTreeNode.fromEntity(comment));
         }
+        loadReplies(records);
+        loadThreadCounts(records);
         
-        Map<String, Object> result = new HashMap<>();
-        result.put("records", commentsWithReplies);
-        result.put("total", topComments.getTotal());
-        result.put("pages", topComments.getPages());
-        result.put("current", topComments.getCurrent());
-        result.put("size", topComments.getSize());
+        if (firstPage) {
+            commentTargetCache.putTree(targetType, targetId, records, topComments.getTotal(), stamp);
+        }
+        return pageResult(records, topComments.getTotal(), page, size);
+    }
+
+    @Override
+    public IPage<Comment> getLatestComments(String targetType, Long targetId, Integer page, Integer size) {
+        boolean firstPage = page == 1 && size == commentTargetCache.getPageSize();
+        if (firstPage) {
+            List<Comment> cached = commentTargetCache.getLatest(targetType, targetId);
+            Long total = commentTargetCache.getTotal(targetType, targetId);
+            if (cached != null && total != null) {
+                Page<Comment> result = new Page<>(page, size);
+                result.setRecords(cached);
+                result.setTotal(total);
+                return result;
+            }
+        }
+        long stamp = commentTargetCache.stamp(targetType, targetId);
+        
+        Page<Comment> pageInfo = new Page<>(page, size);
+        QueryWrapper<Comment> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("target_type", targetType)
+                   .eq("target_id", targetId)
+                   .orderByDesc("create_time");
         
+        IPage<Comment> result = page(pageInfo, queryWrapper);
+        for (Comment comment : result.getRecords()) {
+            long pending = counterEngine.pending(CounterTarget.COMMENT, comment.getId(), CounterField.LIKES);
+            if (pending != 0) {
+                comment.setLikes((int) Math.max((comment.getLikes() != null ? comment.getLikes() : 0) + pending, 0));
+            }
+        }
+        if (firstPage) {
+            commentTargetCache.putLatest(targetType, targetId, result.getRecords(), result.getTotal(), stamp);
+        }
         return result;
     }
 
+    @Override
+    public Map<Long, Long> getCommentCounts(String targetType, List<Long> targetIds) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long targetId : targetIds) {
+            Long total = commentTargetCache.getTotal(targetType, targetId);
+            if (total != null) {
+                counts.put(targetId, total);
+            } else {
+                counts.put(targetId, 0L);
+                missing.add(targetId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return counts;
+        }
+        
+        long stamp = commentTargetCache.stamp();
+        Map<Long, Long> loaded = new HashMap<>();
+        for (Map<String, Object> row : baseMapper.countByTargets(targetType, missing)) {
+            loaded.put(((Number) row.get("targetId")).longValue(), ((Number) row.get("total")).longValue());
+        }
+        for (Long targetId : missing) {
+            long total = loaded.getOrDefault(targetId, 0L);
+            counts.put(targetId, total);
+            commentTargetCache.putTotal(targetType, targetId, total, stamp);
+        }
+        return counts;
+    }
+
     @Override
     public List<Comment> getChildComments(Long parentId) {
         QueryWrapper<Comment> queryWrapper = new QueryWrapper<>();
@@ -121,16 +216,80 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
     }
 
     @Override
-    public void likeComment(Long commentId, Long userId) {
+    public List<CommentTreeNode> getChildComments(Long parentId, Long cursor, Integer size) {
+        QueryWrapper<Comment> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("parent_id", parentId)
+                   .gt(cursor != null, "id", cursor)
+                   .orderByAsc("id")
+                   .last("LIMIT " + Math.max(1, Math.min(size, 100)));
+        
+        List<CommentTreeNode> replies = new ArrayList<>();
+        for (Comment comment : list(queryWrapper)) {
+            replies.add(CommentTreeNode.fromEntity(comment));
+        }
+        loadReplies(replies);
+        return replies;
+    }
+
+    @Override
+    public List<CommentTreeNode> getThread(Long commentId, Long cursor, Integer size) {
         Comment comment = getById(commentId);
-        if (comment != null) {
-            comment.setLikes(comment.getLikes() + 1);
-            updateById(comment);
+        if (comment == null) {
+            throw new RuntimeException("评论不存在");
+        }
+        if (comment.getPath() == null) {
+            throw new RuntimeException("评论线程尚未建立，请稍后再试");
+        }
+        
+        // 先序遍历中从游标之后继续，游标必须位于该子树内
+        String afterPath = comment.getPath();
+        if (cursor != null) {
+            Comment last = getById(cursor);
+            if (last == null || last.getPath() == null || !last.getPath().startsWith(comment.getPath())) {
+                throw new RuntimeException("无效的游标");
+            }
+            afterPath = last.getPath();
+        }
+        
+        List<CommentTreeNode> nodes = new ArrayList<>();
+        for (Comment reply : baseMapper.selectSubtree(afterPath, pathEnd(comment.getPath()), Math.max(1, Math.min(size, 100)))) {
+            CommentTreeNode node = CommentTreeNode.fromEntity(reply);
+            overlayLikes(node);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    @Override
+    public boolean likeComment(Long commentId, Long userId) {
+        Comment comment = getById(commentId);
+        if (comment == null) {
+            throw new RuntimeException("评论不存在");
+        }
+        if (!likeStore.like(CounterTarget.COMMENT, commentId, userId)) {
+            return false;
+        }
+        counterEngine.increment(CounterTarget.COMMENT, commentId, CounterField.LIKES);
+        commentTargetCache.onLike(comment, 1);
+        return true;
+    }
+
+    @Override
+    public boolean unlikeComment(Long commentId, Long userId) {
+        Comment comment = getById(commentId);
+        if (comment == null) {
+            throw new RuntimeException("评论不存在");
+        }
+        if (!likeStore.unlike(CounterTarget.COMMENT, commentId, userId)) {
+            return false;
         }
+        counterEngine.add(CounterTarget.COMMENT, commentId, CounterField.LIKES, -1);
+        commentTargetCache.onLike(comment, -1);
+        return true;
     }
 
     @Override
-    public void deleteComment(Long commentId, Long userId) {
+    public int deleteComment(Long commentId, Long userId) {
         Comment comment = getById(commentId);
         if (comment == null) {
             throw new RuntimeException("评论不存在");
@@ -141,13 +300,9 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         }
         
         // 级联删除子评论
-        List<Comment> childComments = getChildComments(commentId);
-        for (Comment child : childComments) {
-            deleteComment(child.getId(), userId); // 递归删除子评论
-        }
-        
-        // 删除父评论
-        removeById(commentId);
+        int deleted = deleteThread(comment);
+        commentTargetCache.onDelete(comment, deleted);
+        return deleted;
     }
 
     @Override
@@ -161,9 +316,14 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
             throw new RuntimeException("无权限修改此评论");
         }
         
+        if (sensitiveWordFilter.containsSensitive(content)) {
+            throw new RuntimeException("评论包含敏感词，请修改后再发布");
+        }
+        
         comment.setContent(content);
         comment.setUpdateTime(LocalDateTime.now());
         updateById(comment);
+        commentTargetCache.onUpdate(comment);
     }
 
     @Override
@@ -175,10 +335,19 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         
         IPage<Comment> commentPage = page(pageInfo, queryWrapper);
         
-        // 转换为CommentDTO并设置targetTitle
+        // 按目标类型分组批量取标题，再转换为CommentDTO
+        Map<String, Set<Long>> idsByType = new HashMap<>();
+        for (Comment comment : commentPage.getRecords()) {
+            idsByType.computeIfAbsent(comment.getTargetType(), k -> new LinkedHashSet<>()).add(comment.getTargetId());
+        }
+        Map<String, Map<Long, String>> titlesByType = new HashMap<>();
+        for (Map.Entry<String, Set<Long>> entry : idsByType.entrySet()) {
+            titlesByType.put(entry.getKey(), targetTitleCache.getTitles(entry.getKey(), entry.getValue()));
+        }
+        
         List<CommentDTO> commentDTOs = new ArrayList<>();
         for (Comment comment : commentPage.getRecords()) {
-            String targetTitle = getTargetTitle(comment.getTargetType(), comment.getTargetId());
+            String targetTitle = titlesByType.get(comment.getTargetType()).get(comment.getTargetId());
             CommentDTO dto = CommentDTO.fromEntity(comment, targetTitle);
             commentDTOs.add(dto);
         }
@@ -194,26 +363,6 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         return dtoPage;
     }
     
-    private String getTargetTitle(String targetType, Long targetId) {
-        if ("case".equals(targetType)) {
-            // 查询真实的案例标题
-            try {
-                Case caseEntity = caseService.getById(targetId);
-                if (caseEntity != null && caseEntity.getTitle() != null) {
-                    return caseEntity.getTitle();
-                }
-            } catch (Exception e) {
-                System.out.println("查询案例标题失败: " + e.getMessage());
-            }
-            return "设计案例";
-        } else if ("article".equals(targetType)) {
-            return "文章";
-        } else if ("designer".equals(targetType)) {
-            return "设计师";
-        }
-        return "未知对象";
-    }
-
     @Override
     public IPage<CommentDTO> getDesignerCaseComments(Long userId, Integer page, Integer size) {
         // 检查userId是否为null
@@ -242,10 +391,10 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         
         Long actualDesignerId = userId;
         
-        // 查询该设计师的所有案例
+        // 查询该设计师的所有案例ID
         QueryWrapper<Case> caseQueryWrapper = new QueryWrapper<>();
         caseQueryWrapper.eq("designer_id", actualDesignerId)
-                       .select("id", "title");
+                       .select("id");
         List<Case> designerCases = caseService.list(caseQueryWrapper);
         
         if (designerCases.isEmpty()) {
@@ -258,10 +407,8 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         
         // 获取案例ID列表
         List<Long> caseIds = new ArrayList<>();
-        Map<Long, String> caseTitleMap = new HashMap<>();
         for (Case caseEntity : designerCases) {
             caseIds.add(caseEntity.getId());
-            caseTitleMap.put(caseEntity.getId(), caseEntity.getTitle());
         }
         
         // 查询这些案例下的所有评论
@@ -273,6 +420,13 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         
         IPage<Comment> commentPage = page(pageInfo, queryWrapper);
         
+        // 只为本页评论涉及的案例取标题
+        Set<Long> pageCaseIds = new LinkedHashSet<>();
+        for (Comment comment : commentPage.getRecords()) {
+            pageCaseIds.add(comment.getTargetId());
+        }
+        Map<Long, String> caseTitleMap = targetTitleCache.getTitles("case", pageCaseIds);
+        
         // 转换为CommentDTO并设置targetTitle
         List<CommentDTO> commentDTOs = new ArrayList<>();
         for (Comment comment : commentPage.getRecords()) {
@@ -318,6 +472,10 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
             throw new RuntimeException("无权限回复此评论（不属于您的案例）");
         }
         
+        if (sensitiveWordFilter.containsSensitive(content)) {
+            throw new RuntimeException("回复包含敏感词，请修改后再发布");
+        }
+        
         // 创建回复评论
         Comment reply = new Comment();
         reply.setTargetType(comment.getTargetType());
@@ -346,23 +504,236 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
             reply.setUsername("设计师回复");
         }
         
+        Comment parent = resolveParent(reply);
         save(reply);
+        initThread(reply, parent);
+        commentTargetCache.onCreate(reply);
     }
 
     @Override
-    public void deleteCommentById(Long commentId) {
+    public int deleteCommentById(Long commentId) {
         Comment comment = getById(commentId);
         if (comment == null) {
             throw new RuntimeException("评论不存在");
         }
         
         // 级联删除子评论
-        List<Comment> childComments = getChildComments(commentId);
-        for (Comment child : childComments) {
-            deleteCommentById(child.getId()); // 递归删除子评论
+        int deleted = deleteThread(comment);
+        commentTargetCache.onDelete(comment, deleted);
+        return deleted;
+    }
+
+    /**
+     * 为历史评论补全线程信息：先确定线程根，再逐层接上父路径
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillThreads() {
+        try {
+            int rows = baseMapper.initRootPaths();
+            for (int depth = 1; depth <= MAX_THREAD_DEPTH; depth++) {
+                int updated = baseMapper.extendChildPaths();
+                if (updated == 0) {
+                    break;
+                }
+                rows += updated;
+            }
+            if (rows > 0) {
+                System.out.println("评论线程信息补全完成，共 " + rows + " 条");
+            }
+        } catch (Exception e) {
+            System.err.println("补全评论线程信息失败: " + e.getMessage());
+        }
+    }
+
+    // 私有辅助方法
+
+    /**
+     * 查出回复的父评论；父评论已达最大层级时改挂到它的上一级，路径长度因此有上限
+     */
+    private Comment resolveParent(Comment comment) {
+        if (comment.getParentId() == null || comment.getParentId() == 0) {
+            return null;
+        }
+        Comment parent = getById(comment.getParentId());
+        if (parent == null) {
+            throw new RuntimeException("父评论不存在");
+        }
+        if (parent.getDepth() != null && parent.getDepth() >= MAX_THREAD_DEPTH) {
+            comment.setParentId(parent.getParentId());
+            parent = getById(parent.getParentId());
+            if (parent == null) {
+                throw new RuntimeException("父评论不存在");
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * 插入后按自增ID写入线程根、层级和路径；父评论尚未补全时留空，由启动时的补全处理
+     */
+    private void initThread(Comment comment, Comment parent) {
+        String segment = String.format("%010d/", comment.getId());
+        if (parent == null) {
+            comment.setRootId(comment.getId());
+            comment.setDepth(0);
+            comment.setPath(segment);
+        } else if (parent.getPath() != null) {
+            comment.setRootId(parent.getRootId());
+            comment.setDepth(parent.getDepth() + 1);
+            comment.setPath(parent.getPath() + segment);
+        } else {
+            return;
+        }
+        baseMapper.initThread(comment.getId(), comment.getRootId(), comment.getDepth(), comment.getPath());
+    }
+
+    /**
+     * 子树的路径上界：把末尾的/换成紧随其后的字符0，[path, pathEnd) 恰好覆盖整棵子树
+     */
+    private static String pathEnd(String path) {
+        return path.substring(0, path.length() - 1) + "0";
+    }
+
+    /**
+     * 删除评论及其全部回复，返回删除的评论数。
+     * 有路径时沿path索引按批取出子树，否则按parent_id逐层批量展开；每批一条 UPDATE ... IN，
+     * 先删回复最后删评论本身，中途失败时不会留下失去父评论的可见回复
+     */
+    private int deleteThread(Comment comment) {
+        int deleted = 0;
+        if (comment.getPath() != null) {
+            String afterPath = comment.getPath();
+            String end = pathEnd(afterPath);
+            List<Comment> batch;
+            do {
+                batch = baseMapper.selectSubtreeKeys(afterPath, end, deleteBatchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<>();
+                for (Comment row : batch) {
+                    ids.add(row.getId());
+                }
+                deleted += baseMapper.softDeleteByIds(ids);
+                afterPath = batch.get(batch.size() - 1).getPath();
+            } while (batch.size() == deleteBatchSize);
+        } else {
+            Set<Long> visited = new HashSet<>();
+            visited.add(comment.getId());
+            List<Long> frontier = Collections.singletonList(comment.getId());
+            List<Long> descendants = new ArrayList<>();
+            while (!frontier.isEmpty()) {
+                List<Long> next = new ArrayList<>();
+                for (int from = 0; from < frontier.size(); from += deleteBatchSize) {
+                    for (Long childId : baseMapper.selectChildIds(frontier.subList(from, Math.min(from + deleteBatchSize, frontier.size())))) {
+                        if (visited.add(childId)) {
+                            next.add(childId);
+                        }
+                    }
+                }
+                descendants.addAll(next);
+                frontier = next;
+            }
+            for (int from = 0; from < descendants.size(); from += deleteBatchSize) {
+                deleted += baseMapper.softDeleteByIds(descendants.subList(from, Math.min(from + deleteBatchSize, descendants.size())));
+            }
+        }
+        deleted += baseMapper.softDeleteByIds(Collections.singletonList(comment.getId()));
+        return deleted;
+    }
+
+    /**
+     * 顶级评论所在线程的回复总数，一次按root_id分组统计
+     */
+    private void loadThreadCounts(List<CommentTreeNode> roots) {
+        if (roots.isEmpty()) {
+            return;
+        }
+        Map<Long, CommentTreeNode> rootMap = new HashMap<>();
+        for (CommentTreeNode root : roots) {
+            root.setThreadCount(0);
+            rootMap.put(root.getId(), root);
+        }
+        for (Map<String, Object> row : baseMapper.countThreads(rootMap.keySet())) {
+            CommentTreeNode root = rootMap.get(((Number) row.get("rootId")).longValue());
+            if (root != null) {
+                root.setThreadCount(((Number) row.get("threadCount")).intValue());
+            }
+        }
+    }
+
+    /**
+     * 逐层批量加载回复：每层只发一次计数查询和一次回复查询，与评论条数无关。
+     * 每个父评论最多带出replyLimit条回复，最多展开maxDepth层，其余通过游标分页加载
+     */
+    private void loadReplies(List<CommentTreeNode> roots) {
+        List<CommentTreeNode> level = roots;
+        for (int depth = 1; !level.isEmpty(); depth++) {
+            Map<Long, CommentTreeNode> nodeMap = new LinkedHashMap<>();
+            for (CommentTreeNode node : level) {
+                overlayLikes(node);
+                nodeMap.put(node.getId(), node);
+            }
+            
+            for (Map<String, Object> row : baseMapper.countReplies(nodeMap.keySet())) {
+                CommentTreeNode node = nodeMap.get(((Number) row.get("parentId")).longValue());
+                if (node != null) {
+                    node.setReplyCount(((Number) row.get("replyCount")).intValue());
+                }
+            }
+            
+            if (depth > maxDepth) {
+                // 超出展开层数，只标记是否还有回复
+                for (CommentTreeNode node : level) {
+                    node.setHasMoreReplies(node.getReplyCount() > 0);
+                }
+                break;
+            }
+            
+            List<Long> parentIds = new ArrayList<>();
+            for (CommentTreeNode node : level) {
+                if (node.getReplyCount() > 0) {
+                    parentIds.add(node.getId());
+                }
+            }
+            List<CommentTreeNode> next = new ArrayList<>();
+            if (!parentIds.isEmpty()) {
+                for (Comment reply : baseMapper.selectRepliesCapped(parentIds, replyLimit)) {
+                    CommentTreeNode child = CommentTreeNode.fromEntity(reply);
+                    nodeMap.get(reply.getParentId()).getReplies().add(child);
+                    next.add(child);
+                }
+            }
+            
+            for (CommentTreeNode node : level) {
+                List<CommentTreeNode> replies = node.getReplies();
+                if (replies.size() < node.getReplyCount()) {
+                    node.setHasMoreReplies(true);
+                    node.setNextCursor(replies.isEmpty() ? null : replies.get(replies.size() - 1).getId());
+                }
+            }
+            level = next;
+        }
+    }
+
+    private Map<String, Object> pageResult(List<CommentTreeNode> records, long total, Integer page, Integer size) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("records", records);
+        result.put("total", total);
+        result.put("pages", (total + size - 1) / size);
+        result.put("current", (long) page);
+        result.put("size", (long) size);
+        return result;
+    }
+
+    /**
+     * 叠加尚未写回的点赞增量
+     */
+    private void overlayLikes(CommentTreeNode node) {
+        long pending = counterEngine.pending(CounterTarget.COMMENT, node.getId(), CounterField.LIKES);
+        if (pending != 0) {
+            long likes = (node.getLikes() != null ? node.getLikes() : 0) + pending;
+            node.setLikes((int) Math.max(likes, 0));
         }
-        
-        // 删除评论
-        removeById(commentId);
     }
-}
\ No newline at end of file
+}
@@ -4,27 +4,57 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.homedesign.counter.CounterEngine;
+import com.homedesign.counter.CounterField;
+import com.homedesign.counter.CounterTarget;
+import com.homedesign.counter.HyperLogLog;
+import com.homedesign.counter.LikeStore;
+import com.homedesign.counter.UniqueVisitorTracker;
+import com.homedesign.entity.Article;
+import com.homedesign.entity.Case;
 import com.homedesign.entity.Designer;
+import com.homedesign.event.DesignerChangeEvent;
+import com.homedesign.mapper.ArticleMapper;
+import com.homedesign.mapper.CaseMapper;
 import com.homedesign.mapper.DesignerMapper;
 import com.homedesign.service.DesignerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class DesignerServiceImpl extends ServiceImpl<DesignerMapper, Designer> implements DesignerService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CounterEngine counterEngine;
+
+    @Autowired
+    private LikeStore likeStore;
+
+    @Autowired
+    private UniqueVisitorTracker uniqueVisitorTracker;
+
+    @Autowired
+    private CaseMapper caseMapper;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
     @Override
     public Designer getDesignerDetail(Long id) {
-        Designer designer = getById(id);
-        if (designer != null) {
-            // 增加浏览次数
-            designer.setUpdateTime(LocalDateTime.now());
-            updateById(designer);
-        }
-        return designer;
+        // 纯读取：浏览由调用方发布ViewEvent异步记录，update_time只在资料修改时变化
+        return counterEngine.overlay(getById(id));
     }
 
     @Override
@@ -36,19 +66,33 @@ public class DesignerServiceImpl extends ServiceImpl<DesignerMapper, Designer> i
         
         designer.setId(id);
         designer.setUpdateTime(LocalDateTime.now());
-        return updateById(designer);
+        boolean result = updateById(designer);
+        if (result) {
+            eventPublisher.publishEvent(DesignerChangeEvent.saved(id));
+        }
+        return result;
     }
 
     @Override
-    public boolean likeDesigner(Long id) {
-        Designer designer = getById(id);
-        if (designer == null) {
+    public boolean likeDesigner(Long id, Long userId) {
+        checkExists(id);
+        if (!likeStore.like(CounterTarget.DESIGNER, id, userId)) {
             return false;
         }
         
-        designer.setLikes(designer.getLikes() + 1);
-        designer.setUpdateTime(LocalDateTime.now());
-        return updateById(designer);
+        counterEngine.increment(CounterTarget.DESIGNER, id, CounterField.LIKES);
+        return true;
+    }
+
+    @Override
+    public boolean unlikeDesigner(Long id, Long userId) {
+        checkExists(id);
+        if (!likeStore.unlike(CounterTarget.DESIGNER, id, userId)) {
+            return false;
+        }
+        
+        counterEngine.add(CounterTarget.DESIGNER, id, CounterField.LIKES, -1);
+        return true;
     }
 
     @Override
@@ -77,9 +121,16 @@ public class DesignerServiceImpl extends ServiceImpl<DesignerMapper, Designer> i
             return new HashMap<>();
         }
         
+        // 独立访客：主页、案例和文章的按天草图合并，同一访客只计一次
+        HyperLogLog[] visitors = countVisitors(designer, 7, 30);
+        long weeklyVisitors = visitors[0].cardinality();
+        long monthlyVisitors = visitors[1].cardinality();
+        
         Map<String, Object> stats = new HashMap<>();
-        stats.put("views", 41);
-        stats.put("likes", designer.getLikes());
+        stats.put("views", monthlyVisitors);
+        stats.put("weeklyVisitors", weeklyVisitors);
+        stats.put("monthlyVisitors", monthlyVisitors);
+        stats.put("likes", counterEngine.overlay(designer).getLikes());
         stats.put("completedCases", designer.getCompletedCases());
         stats.put("rating", designer.getRating());
         stats.put("experience", designer.getExperience());
@@ -102,4 +153,44 @@ public class DesignerServiceImpl extends ServiceImpl<DesignerMapper, Designer> i
     public boolean verifyDesigner(Long id) {
         return updateDesignerStatus(id, "VERIFIED");
     }
-}
\ No newline at end of file
+
+    // 私有辅助方法
+
+    /**
+     * 设计师最近days[i]天的访客草图；ID列表只查一次，各类型的草图按最长窗口只查一次
+     */
+    private HyperLogLog[] countVisitors(Designer designer, int... days) {
+        LocalDate to = LocalDate.now();
+        
+        List<Long> caseIds = new ArrayList<>();
+        for (Case designCase : caseMapper.selectList(new QueryWrapper<Case>().select("id").eq("designer_id", designer.getId()))) {
+            caseIds.add(designCase.getId());
+        }
+        HyperLogLog[] visitors = uniqueVisitorTracker.mergeWindows(CounterTarget.CASE, caseIds, to, days);
+        mergeAll(visitors, uniqueVisitorTracker.mergeWindows(CounterTarget.DESIGNER, Collections.singletonList(designer.getId()), to, days));
+        
+        if (designer.getUserId() != null) {
+            List<Long> articleIds = new ArrayList<>();
+            for (Article article : articleMapper.selectList(new QueryWrapper<Article>().select("id").eq("author_id", designer.getUserId()))) {
+                articleIds.add(article.getId());
+            }
+            mergeAll(visitors, uniqueVisitorTracker.mergeWindows(CounterTarget.ARTICLE, articleIds, to, days));
+        }
+        return visitors;
+    }
+
+    private static void mergeAll(HyperLogLog[] target, HyperLogLog[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i].merge(source[i]);
+        }
+    }
+
+    /**
+     * 只查主键判断设计师是否存在，不读取整行
+     */
+    private void checkExists(Long id) {
+        if (count(new QueryWrapper<Designer>().eq("id", id)) == 0) {
+            throw new RuntimeException("设计师不存在");
+        }
+    }
+}
@@ -6,7 +6,13 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.homedesign.entity.Notification;
 import com.homedesign.mapper.NotificationMapper;
+import com.homedesign.notification.BroadcastDelivery;
+import com.homedesign.notification.NotificationPushHub;
+import com.homedesign.notification.NotificationStatsStore;
+import com.homedesign.notification.ReadCursorStore;
+import com.homedesign.notification.UnreadCountStore;
 import com.homedesign.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -15,6 +21,24 @@ import java.util.*;
 @Service
 public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Notification> implements NotificationService {
 
+    // 通知统计中单独列出的类型
+    private static final String[] STAT_TYPES = {"APPOINTMENT", "COMMENT", "FAVORITE", "SYSTEM", "REVIEW", "LIKE"};
+
+    @Autowired
+    private UnreadCountStore unreadCountStore;
+
+    @Autowired
+    private NotificationPushHub pushHub;
+
+    @Autowired
+    private ReadCursorStore readCursorStore;
+
+    @Autowired
+    private BroadcastDelivery broadcastDelivery;
+
+    @Autowired
+    private NotificationStatsStore statsStore;
+
     @Override
     public boolean createNotification(Notification notification) {
         if (notification.getCreateTime() == null) {
@@ -23,7 +47,11 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
         if (notification.getUpdateTime() == null) {
             notification.setUpdateTime(LocalDateTime.now());
         }
-        return save(notification);
+        boolean saved = save(notification);
+        if (saved) {
+            afterCreate(Collections.singletonList(notification));
+        }
+        return saved;
     }
 
     @Override
@@ -36,28 +64,42 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
                 notification.setUpdateTime(LocalDateTime.now());
             }
         }
-        return saveBatch(notifications);
+        boolean saved = saveBatch(notifications);
+        if (saved) {
+            afterCreate(notifications);
+        }
+        return saved;
     }
 
     @Override
     public IPage<Notification> getUserNotifications(Long userId, Integer page, Integer size, Boolean isRead) {
+        deliverBroadcasts(userId);
         Page<Notification> pageInfo = new Page<>(page != null ? page : 1, size != null ? size : 10);
         QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("user_id", userId);
         
-        if (isRead != null) {
-            queryWrapper.eq("is_read", isRead);
+        // 已读状态由is_read标记和已读游标共同决定
+        long cursor = readCursorStore.get(userId);
+        if (Boolean.TRUE.equals(isRead)) {
+            queryWrapper.and(wrapper -> wrapper.eq("is_read", true).or().le("id", cursor));
+        } else if (Boolean.FALSE.equals(isRead)) {
+            queryWrapper.eq("is_read", false).gt("id", cursor);
         }
         
         queryWrapper.orderByDesc("create_time");
-        return page(pageInfo, queryWrapper);
+        IPage<Notification> result = page(pageInfo, queryWrapper);
+        applyReadCursor(result.getRecords(), cursor);
+        return result;
     }
 
     @Override
     public Integer getUnreadCount(Long userId) {
-        QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("user_id", userId).eq("is_read", false);
-        return Math.toIntExact(count(queryWrapper));
+        deliverBroadcasts(userId);
+        return unreadCountStore.get(userId, () -> {
+            QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
+            queryWrapper.eq("user_id", userId).eq("is_read", false).gt("id", readCursorStore.get(userId));
+            return Math.toIntExact(count(queryWrapper));
+        });
     }
 
     @Override
@@ -66,37 +108,69 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
         if (notification == null) {
             return false;
         }
+        if (readCursorStore.isRead(notification.getUserId(), notification.getId(), false)) {
+            return true;
+        }
         
-        notification.setIsRead(true);
-        notification.setReadTime(LocalDateTime.now());
-        notification.setUpdateTime(LocalDateTime.now());
-        
-        return updateById(notification);
+        // 条件更新，只有真正从未读变为已读时才减少未读数
+        if (baseMapper.markReadIfUnread(notificationId, LocalDateTime.now()) > 0) {
+            unreadCountStore.add(notification.getUserId(), -1);
+            statsStore.add(notification.getUserId(), notification.getType(), 0, -1);
+            pushUnreadCount(notification.getUserId());
+        }
+        return true;
     }
 
     @Override
     public boolean markAllAsRead(Long userId) {
-        QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("user_id", userId).eq("is_read", false);
-        
-        List<Notification> notifications = list(queryWrapper);
-        for (Notification notification : notifications) {
-            notification.setIsRead(true);
-            notification.setReadTime(LocalDateTime.now());
-            notification.setUpdateTime(LocalDateTime.now());
-        }
-        
-        return updateBatchById(notifications);
+        // 先投递未收到的广播，全部已读包括它们
+        deliverBroadcasts(userId);
+        // 只推进已读游标，is_read标记由后台任务补齐
+        readCursorStore.advance(userId);
+        // 推进期间可能有新通知写入，不直接置0，下次查询时只统计游标之后的通知
+        unreadCountStore.invalidate(userId);
+        statsStore.invalidate(userId);
+        pushUnreadCount(userId);
+        return true;
     }
 
     @Override
     public boolean deleteNotification(Long notificationId) {
-        return removeById(notificationId);
+        Notification notification = getById(notificationId);
+        if (notification == null) {
+            return false;
+        }
+        boolean removed = removeById(notificationId);
+        if (removed) {
+            boolean unread = !readCursorStore.isRead(notification.getUserId(), notification.getId(), notification.getIsRead());
+            statsStore.add(notification.getUserId(), notification.getType(), -1, unread ? -1 : 0);
+            if (unread) {
+                unreadCountStore.add(notification.getUserId(), -1);
+                pushUnreadCount(notification.getUserId());
+            }
+        }
+        return removed;
     }
 
     @Override
     public boolean batchDeleteNotifications(List<Long> notificationIds) {
-        return removeByIds(notificationIds);
+        List<Notification> notifications = listByIds(notificationIds);
+        boolean removed = removeByIds(notificationIds);
+        if (removed) {
+            Map<Long, Integer> unread = new HashMap<>();
+            for (Notification notification : notifications) {
+                boolean isUnread = !readCursorStore.isRead(notification.getUserId(), notification.getId(), notification.getIsRead());
+                statsStore.add(notification.getUserId(), notification.getType(), -1, isUnread ? -1 : 0);
+                if (isUnread) {
+                    unread.merge(notification.getUserId(), 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Long, Integer> entry : unread.entrySet()) {
+                unreadCountStore.add(entry.getKey(), -entry.getValue());
+                pushUnreadCount(entry.getKey());
+            }
+        }
+        return removed;
     }
 
     @Override
@@ -143,32 +217,46 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
             notification.setUpdateTime(LocalDateTime.now());
             notifications.add(notification);
         }
-        return saveBatch(notifications);
+        boolean saved = saveBatch(notifications);
+        if (saved) {
+            afterCreate(notifications);
+        }
+        return saved;
     }
 
     @Override
     public boolean sendGlobalNotification(String title, String content, String type) {
-        // 这里应该获取所有用户ID，暂时返回true
+        // 只写一行广播，各用户读取通知时再投递
+        broadcastDelivery.publish(title, content, type);
+        // 在线用户推送未读数，推送时顺带完成投递
+        for (Long userId : pushHub.onlineUsers()) {
+            pushUnreadCount(userId);
+        }
         return true;
     }
 
     @Override
     public Map<String, Object> getNotificationStats(Long userId) {
-        Map<String, Object> stats = new HashMap<>();
+        deliverBroadcasts(userId);
+        // 各类型的 [总数, 未读数]，未缓存时一次分组聚合加载
+        Map<String, int[]> counts = statsStore.get(userId, () -> loadStats(userId));
         
-        // 总通知数
-        stats.put("total", count(new QueryWrapper<Notification>().eq("user_id", userId)));
+        int total = 0;
+        int unread = 0;
+        for (int[] count : counts.values()) {
+            total += count[NotificationStatsStore.TOTAL];
+            unread += count[NotificationStatsStore.UNREAD];
+        }
         
-        // 未读通知数
-        stats.put("unread", getUnreadCount(userId));
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("total", total);
+        stats.put("unread", unread);
         
         // 各类型通知统计
-        stats.put("appointment", count(new QueryWrapper<Notification>().eq("user_id", userId).eq("type", "APPOINTMENT")));
-        stats.put("comment", count(new QueryWrapper<Notification>().eq("user_id", userId).eq("type", "COMMENT")));
-        stats.put("favorite", count(new QueryWrapper<Notification>().eq("user_id", userId).eq("type", "FAVORITE")));
-        stats.put("system", count(new QueryWrapper<Notification>().eq("user_id", userId).eq("type", "SYSTEM")));
-        stats.put("review", count(new QueryWrapper<Notification>().eq("user_id", userId).eq("type", "REVIEW")));
-        stats.put("like", count(new QueryWrapper<Notification>().eq("user_id", userId).eq("type", "LIKE")));
+        for (String type : STAT_TYPES) {
+            int[] count = counts.get(type);
+            stats.put(type.toLowerCase(), count != null ? count[NotificationStatsStore.TOTAL] : 0);
+        }
         
         return stats;
     }
@@ -196,16 +284,26 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
         QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("is_read", true).lt("create_time", cutoffDate);
-        return remove(queryWrapper);
+        boolean removed = remove(queryWrapper);
+        if (removed) {
+            // 涉及的用户不确定，清空统计缓存
+            statsStore.clear();
+        }
+        return removed;
     }
 
     @Override
     public Notification getNotificationById(Long notificationId) {
-        return getById(notificationId);
+        Notification notification = getById(notificationId);
+        if (notification != null) {
+            applyReadCursor(Collections.singletonList(notification), readCursorStore.get(notification.getUserId()));
+        }
+        return notification;
     }
 
     @Override
     public IPage<Notification> searchNotifications(Long userId, String keyword, Integer page, Integer size) {
+        deliverBroadcasts(userId);
         Page<Notification> pageInfo = new Page<>(page != null ? page : 1, size != null ? size : 10);
         QueryWrapper<Notification> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("user_id", userId);
@@ -217,7 +315,9 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
         }
         
         queryWrapper.orderByDesc("create_time");
-        return page(pageInfo, queryWrapper);
+        IPage<Notification> result = page(pageInfo, queryWrapper);
+        applyReadCursor(result.getRecords(), readCursorStore.get(userId));
+        return result;
     }
 
     private boolean createNotification(Long userId, String title, String content, String type, Long targetId) {
@@ -231,6 +331,90 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
         notification.setCreateTime(LocalDateTime.now());
         notification.setUpdateTime(LocalDateTime.now());
         
-        return save(notification);
+        boolean saved = save(notification);
+        if (saved) {
+            afterCreate(Collections.singletonList(notification));
+        }
+        return saved;
+    }
+
+    /**
+     * 新写入的未读通知计入各用户的未读数，并推送给在线的用户
+     */
+    private void afterCreate(List<Notification> notifications) {
+        Map<Long, Integer> unread = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unread.merge(notification.getUserId(), 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : unread.entrySet()) {
+            unreadCountStore.add(entry.getKey(), entry.getValue());
+        }
+
+        for (Notification notification : notifications) {
+            Long userId = notification.getUserId();
+            statsStore.add(userId, notification.getType(), 1, Boolean.TRUE.equals(notification.getIsRead()) ? 0 : 1);
+            if (pushHub.isOnline(userId)) {
+                pushHub.push(userId, "notification", String.valueOf(notification.getId()), () -> notification);
+            }
+        }
+        for (Long userId : unread.keySet()) {
+            pushUnreadCount(userId);
+        }
+    }
+
+    /**
+     * 按类型和已读状态一次聚合用户的通知数，已读游标以内的未读通知按已读计
+     */
+    private Map<String, int[]> loadStats(Long userId) {
+        long cursor = readCursorStore.get(userId);
+        Map<String, int[]> counts = new HashMap<>();
+        for (Map<String, Object> row : baseMapper.countByTypeAndRead(userId, cursor)) {
+            int[] count = counts.computeIfAbsent(NotificationStatsStore.typeKey((String) row.get("type")), k -> new int[2]);
+            count[NotificationStatsStore.TOTAL] += ((Number) row.get("total")).intValue();
+            if (!isTrue(row.get("isRead"))) {
+                count[NotificationStatsStore.UNREAD] += ((Number) row.get("afterCursor")).intValue();
+            }
+        }
+        return counts;
+    }
+
+    private static boolean isTrue(Object value) {
+        return value instanceof Boolean ? (Boolean) value : value instanceof Number && ((Number) value).intValue() != 0;
+    }
+
+    /**
+     * 投递用户尚未收到的广播通知
+     */
+    private void deliverBroadcasts(Long userId) {
+        try {
+            List<Notification> delivered = broadcastDelivery.deliver(userId);
+            if (!delivered.isEmpty()) {
+                afterCreate(delivered);
+            }
+        } catch (Exception e) {
+            System.err.println("投递广播通知失败，用户: " + userId + "，" + e.getMessage());
+        }
+    }
+
+    /**
+     * 已读游标以内的通知按已读返回
+     */
+    private void applyReadCursor(List<Notification> notifications, long cursor) {
+        for (Notification notification : notifications) {
+            if (notification.getId() != null && notification.getId() <= cursor) {
+                notification.setIsRead(true);
+            }
+        }
+    }
+
+    /**
+     * 推送未读数，在推送线程中发送时才读取，客户端收到的总是最新值
+     */
+    private void pushUnreadCount(Long userId) {
+        if (pushHub.isOnline(userId)) {
+            pushHub.push(userId, "unread-count", null, () -> getUnreadCount(userId));
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,11 +5,15 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.homedesign.entity.Case;
 import com.homedesign.entity.Article;
+import com.homedesign.event.ArticleChangeEvent;
+import com.homedesign.event.CaseChangeEvent;
+import com.homedesign.moderation.SensitiveWordFilter;
 import com.homedesign.service.CaseService;
 import com.homedesign.service.ArticleService;
 import com.homedesign.service.UserService;
 import com.homedesign.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -21,12 +25,18 @@ public class ReviewServiceImpl implements ReviewService {
     @Autowired
     private CaseService caseService;
 
+    @Autowired
+    private SensitiveWordFilter sensitiveWordFilter;
+
     @Autowired
     private ArticleService articleService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public boolean submitCaseForReview(Long caseId) {
         Case designCase = caseService.getById(caseId);
@@ -41,6 +51,7 @@ public class ReviewServiceImpl implements ReviewService {
         
         // 发送提交审核通知
         if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(caseId));
             sendReviewNotification(caseId, "CASE", "PENDING_REVIEW", "案例已提交审核");
         }
         
@@ -68,6 +79,7 @@ public class ReviewServiceImpl implements ReviewService {
         
         // 发送审核结果通知
         if (result) {
+            eventPublisher.publishEvent(CaseChangeEvent.saved(caseId));
             String notificationMessage = generateReviewNotificationMessage(status, reviewComment);
             sendReviewNotification(caseId, "CASE", status, notificationMessage);
         }
@@ -130,6 +142,7 @@ public class ReviewServiceImpl implements ReviewService {
         // 发送批量审核通知
         if (result) {
             for (Case designCase : cases) {
+                eventPublisher.publishEvent(CaseChangeEvent.saved(designCase.getId()));
                 String notificationMessage = generateReviewNotificationMessage(status, reviewComment);
                 sendReviewNotification(designCase.getId(), "CASE", status, notificationMessage);
             }
@@ -152,6 +165,7 @@ public class ReviewServiceImpl implements ReviewService {
         
         // 发送提交审核通知
         if (result) {
+            eventPublisher.publishEvent(ArticleChangeEvent.saved(articleId));
             sendReviewNotification(articleId, "ARTICLE", "PENDING_REVIEW", "文章已提交审核");
         }
         
@@ -184,6 +198,7 @@ public class ReviewServiceImpl implements ReviewService {
         
         // 发送审核结果通知
         if (result) {
+            eventPublisher.publishEvent(ArticleChangeEvent.saved(articleId));
             String notificationMessage = generateReviewNotificationMessage(status, reviewComment);
             sendReviewNotification(articleId, "ARTICLE", status, notificationMessage);
         }
@@ -249,6 +264,7 @@ public class ReviewServiceImpl implements ReviewService {
         // 发送批量审核通知
         if (result) {
             for (Article article : articles) {
+                eventPublisher.publishEvent(ArticleChangeEvent.saved(article.getId()));
                 String notificationMessage = generateReviewNotificationMessage(status, reviewComment);
                 sendReviewNotification(article.getId(), "ARTICLE", status, notificationMessage);
             }
@@ -358,17 +374,29 @@ public class ReviewServiceImpl implements ReviewService {
 
     private boolean isCaseAutoApprovable(Case designCase) {
         // 简单的自动审核规则：如果有完整的信息则自动通过
-        return designCase.getTitle() != null && !designCase.getTitle().trim().isEmpty() &&
+        boolean complete = designCase.getTitle() != null && !designCase.getTitle().trim().isEmpty() &&
                designCase.getCoverImage() != null && !designCase.getCoverImage().trim().isEmpty() &&
                designCase.getDesignConcept() != null && !designCase.getDesignConcept().trim().isEmpty() &&
                designCase.getImages() != null && !designCase.getImages().trim().isEmpty();
+        // 含敏感词的转人工审核
+        return complete && isClean("case", designCase.getId(), designCase.getTitle(), designCase.getDesignConcept());
     }
 
     private boolean isArticleAutoApprovable(Article article) {
         // 简单的自动审核规则：如果有完整的信息则自动通过
-        return article.getTitle() != null && !article.getTitle().trim().isEmpty() &&
+        boolean complete = article.getTitle() != null && !article.getTitle().trim().isEmpty() &&
                article.getSummary() != null && !article.getSummary().trim().isEmpty() &&
                article.getContent() != null && !article.getContent().trim().isEmpty() &&
                article.getCategory() != null && !article.getCategory().trim().isEmpty();
+        return complete && isClean("article", article.getId(), article.getTitle(), article.getSummary(), article.getContent());
+    }
+
+    private boolean isClean(String contentType, Long contentId, String... texts) {
+        List<String> words = sensitiveWordFilter.findWords(texts);
+        if (words.isEmpty()) {
+            return true;
+        }
+        System.out.println("自动审核发现敏感词，转人工审核: " + contentType + " ID:" + contentId + " 命中:" + words);
+        return false;
     }
 }
\ No newline at end of file
@@ -1,15 +1,31 @@
 package com.homedesign.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.homedesign.cache.SearchResultCache;
 import com.homedesign.entity.*;
 import com.homedesign.mapper.SearchHistoryMapper;
+import com.homedesign.search.FanoutResult;
+import com.homedesign.search.HotKeywordTracker;
+import com.homedesign.search.SearchAnalytics;
+import com.homedesign.search.SearchEngine;
+import com.homedesign.search.SearchEntityType;
+import com.homedesign.search.SearchFanout;
+import com.homedesign.search.SearchHistoryWriter;
+import com.homedesign.search.SearchHits;
+import com.homedesign.search.SuggestionEngine;
+import com.homedesign.service.ArticleService;
+import com.homedesign.service.CaseService;
+import com.homedesign.service.DesignerService;
 import com.homedesign.service.SearchService;
+import com.homedesign.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 搜索服务实现类
@@ -20,47 +36,106 @@ public class SearchServiceImpl implements SearchService {
     @Autowired
     private SearchHistoryMapper searchHistoryMapper;
 
+    @Autowired
+    private SearchEngine searchEngine;
+
+    @Autowired
+    private SuggestionEngine suggestionEngine;
+
+    @Autowired
+    private HotKeywordTracker hotKeywordTracker;
+
+    @Autowired
+    private SearchHistoryWriter searchHistoryWriter;
+
+    @Autowired
+    private SearchAnalytics searchAnalytics;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private SearchFanout searchFanout;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private DesignerService designerService;
+
+    @Autowired
+    private ArticleService articleService;
+
     @Override
     public Map<String, Object> searchAll(String keyword, Integer page, Integer size, Long userId) {
-        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> result = searchAll(keyword, null, null, page, size);
         
         // 记录搜索历史
-        recordSearchHistory(keyword, "ALL");
+        recordSearchHistory(keyword, "ALL", countResults(result));
         
-        // 搜索案例
-        IPage<Case> cases = searchCases(keyword, null, page, size);
-        result.put("cases", cases);
-        
-        // 搜索设计师
-        IPage<Designer> designers = searchDesigners(keyword, null, page, size);
-        result.put("designers", designers);
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> searchAll(String keyword, String style, String sortBy, Integer page, Integer size) {
+        // 案例、设计师、文章三个子查询并行执行
+        Map<String, Supplier<?>> branches = new LinkedHashMap<>();
+        branches.put("cases", () -> searchCases(keyword, style, null, sortBy, page, size).getRecords());
+        branches.put("designers", () -> searchDesigners(keyword, null, null, sortBy, page, size).getRecords());
+        branches.put("articles", () -> searchArticles(keyword, null, sortBy, page, size).getRecords());
+        FanoutResult fanout = searchFanout.execute(branches);
         
-        // 搜索文章
-        IPage<Article> articles = searchArticles(keyword, null, page, size);
-        result.put("articles", articles);
+        Map<String, Object> result = new HashMap<>();
+        for (String branch : branches.keySet()) {
+            // 超时或失败的分支返回空列表，由partial/degraded标明结果不完整
+            result.put(branch, fanout.getValues().getOrDefault(branch, new ArrayList<>()));
+        }
+        result.put("partial", fanout.isPartial());
+        result.put("degraded", fanout.getDegraded());
+        result.put("timings", fanout.getTimings());
         
         return result;
     }
 
     @Override
     public IPage<Case> searchCases(String keyword, String style, Integer page, Integer size) {
-        Page<Case> casePage = new Page<>(page != null ? page : 1, size != null ? size : 10);
-        // TODO: 实现案例搜索逻辑
-        return casePage;
+        return searchCases(keyword, style, null, null, page, size);
+    }
+
+    @Override
+    public IPage<Case> searchCases(String keyword, String style, String layout, String sortBy, Integer page, Integer size) {
+        String key = SearchResultCache.key(keyword, style, layout, sortBy, page, size);
+        return searchResultCache.get(SearchEntityType.CASE, key,
+                () -> doSearchCases(keyword, style, layout, sortBy, page, size));
     }
 
     @Override
     public IPage<Designer> searchDesigners(String keyword, String style, Integer page, Integer size) {
-        Page<Designer> designerPage = new Page<>(page != null ? page : 1, size != null ? size : 10);
-        // TODO: 实现设计师搜索逻辑
-        return designerPage;
+        return searchDesigners(keyword, style, null, null, page, size);
+    }
+
+    @Override
+    public IPage<Designer> searchDesigners(String keyword, String style, String serviceArea, String sortBy, Integer page, Integer size) {
+        String key = SearchResultCache.key(keyword, style, serviceArea, sortBy, page, size);
+        return searchResultCache.get(SearchEntityType.DESIGNER, key,
+                () -> doSearchDesigners(keyword, style, serviceArea, sortBy, page, size));
     }
 
     @Override
     public IPage<Article> searchArticles(String keyword, String category, Integer page, Integer size) {
-        Page<Article> articlePage = new Page<>(page != null ? page : 1, size != null ? size : 10);
-        // TODO: 实现文章搜索逻辑
-        return articlePage;
+        return searchArticles(keyword, category, null, page, size);
+    }
+
+    @Override
+    public IPage<Article> searchArticles(String keyword, String category, String sortBy, Integer page, Integer size) {
+        String key = SearchResultCache.key(keyword, category, sortBy, page, size);
+        return searchResultCache.get(SearchEntityType.ARTICLE, key,
+                () -> doSearchArticles(keyword, category, sortBy, page, size));
+    }
+
+    @Override
+    public Map<String, Object> getSearchCacheStats() {
+        return searchResultCache.stats();
     }
 
     @Override
@@ -80,48 +155,37 @@ public class SearchServiceImpl implements SearchService {
 
     @Override
     public void recordSearchHistory(String keyword, String searchType) {
+        recordSearchHistory(keyword, searchType, -1);
+    }
+
+    @Override
+    public void recordSearchHistory(String keyword, String searchType, long resultCount) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return;
         }
         
-        SearchHistory searchHistory = new SearchHistory();
-        searchHistory.setKeyword(keyword);
-        searchHistory.setSearchType(searchType);
-        searchHistory.setSearchTime(LocalDateTime.now());
-        searchHistory.setFrequency(1);
-        
-        try {
-            searchHistoryMapper.insert(searchHistory);
-        } catch (Exception e) {
-            // 避免搜索历史记录失败影响搜索功能
-        }
+        hotKeywordTracker.record(keyword);
+        searchAnalytics.record(keyword, searchType, resultCount);
+        // 异步批量落库，不在请求线程中访问数据库
+        searchHistoryWriter.submit(keyword, searchType, SecurityUtil.getCurrentUserId());
     }
 
     @Override
     public List<String> getSearchSuggestions(String keyword) {
-        List<String> suggestions = new ArrayList<>();
-        
-        // TODO: 实现搜索建议逻辑
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            suggestions.add(keyword + "设计");
-            suggestions.add(keyword + "装修");
-            suggestions.add(keyword + "风格");
-        }
-        
-        return suggestions;
+        return suggestionEngine.suggest(keyword, 10);
     }
 
     @Override
     public List<String> getHotKeywords() {
-        List<String> hotKeywords = new ArrayList<>();
+        return getHotKeywords(HotKeywordTracker.WINDOW_WEEK, 10);
+    }
+
+    @Override
+    public List<String> getHotKeywords(String window, Integer limit) {
+        List<String> hotKeywords = hotKeywordTracker.top(window, limit != null ? limit : 10);
         
-        try {
-            List<SearchHistory> histories = searchHistoryMapper.getHotKeywords();
-            for (SearchHistory history : histories) {
-                hotKeywords.add(history.getKeyword());
-            }
-        } catch (Exception e) {
-            // 返回默认热门关键词
+        if (hotKeywords.isEmpty()) {
+            // 尚无统计数据时返回默认热门关键词
             hotKeywords.addAll(Arrays.asList(
                 "现代简约", "北欧风格", "新中式", "轻奢", "工业风",
                 "小户型设计", "别墅设计", "厨房设计", "卧室设计", "客厅设计"
@@ -133,25 +197,7 @@ public class SearchServiceImpl implements SearchService {
 
     @Override
     public Map<String, Object> getSearchAnalytics() {
-        Map<String, Object> analytics = new HashMap<>();
-        
-        try {
-            // TODO: 实现搜索分析逻辑
-            analytics.put("totalSearches", 100);
-            analytics.put("todaySearches", 10);
-            analytics.put("weekSearches", 50);
-            analytics.put("searchTypeStats", new HashMap<>());
-            analytics.put("topKeywords", new ArrayList<>());
-        } catch (Exception e) {
-            // 返回默认统计数据
-            analytics.put("totalSearches", 0);
-            analytics.put("todaySearches", 0);
-            analytics.put("weekSearches", 0);
-            analytics.put("searchTypeStats", new HashMap<>());
-            analytics.put("topKeywords", new ArrayList<>());
-        }
-        
-        return analytics;
+        return getSearchStats();
     }
 
     @Override
@@ -159,12 +205,8 @@ public class SearchServiceImpl implements SearchService {
         Map<String, Object> stats = new HashMap<>();
         
         try {
-            // TODO: 实现搜索统计逻辑
-            stats.put("totalSearches", 100);
-            stats.put("todaySearches", 10);
-            stats.put("weekSearches", 50);
-            stats.put("searchTypeStats", new HashMap<>());
-            stats.put("topKeywords", new ArrayList<>());
+            stats = searchAnalytics.stats();
+            stats.put("branchTimings", searchFanout.stats());
         } catch (Exception e) {
             // 返回默认统计数据
             stats.put("totalSearches", 0);
@@ -176,4 +218,167 @@ public class SearchServiceImpl implements SearchService {
         
         return stats;
     }
+
+    /**
+     * 综合搜索各类型结果数之和
+     */
+    @Override
+    public long countResults(Map<String, Object> searchAllResult) {
+        long count = 0;
+        for (Object value : searchAllResult.values()) {
+            if (value instanceof Collection) {
+                count += ((Collection<?>) value).size();
+            }
+        }
+        return count;
+    }
+
+    // 私有辅助方法
+
+    private IPage<Case> doSearchCases(String keyword, String style, String layout, String sortBy, Integer page, Integer size) {
+        Page<Case> casePage = new Page<>(page != null ? page : 1, size != null ? size : 10);
+        
+        if (!searchEngine.isReady()) {
+            return searchCasesFromDb(casePage, keyword, style, layout, sortBy);
+        }
+        
+        SearchHits hits = searchEngine.searchCases(keyword, style, layout, sortBy,
+                (int) casePage.getCurrent(), (int) casePage.getSize());
+        casePage.setTotal(hits.getTotal());
+        casePage.setRecords(loadInOrder(hits.getIds(), caseService::listByIds, Case::getId));
+        return casePage;
+    }
+
+    private IPage<Designer> doSearchDesigners(String keyword, String style, String serviceArea, String sortBy, Integer page, Integer size) {
+        Page<Designer> designerPage = new Page<>(page != null ? page : 1, size != null ? size : 10);
+        
+        if (!searchEngine.isReady()) {
+            return searchDesignersFromDb(designerPage, keyword, style, serviceArea, sortBy);
+        }
+        
+        SearchHits hits = searchEngine.searchDesigners(keyword, style, serviceArea, sortBy,
+                (int) designerPage.getCurrent(), (int) designerPage.getSize());
+        designerPage.setTotal(hits.getTotal());
+        designerPage.setRecords(loadInOrder(hits.getIds(), designerService::listByIds, Designer::getId));
+        return designerPage;
+    }
+
+    private IPage<Article> doSearchArticles(String keyword, String category, String sortBy, Integer page, Integer size) {
+        Page<Article> articlePage = new Page<>(page != null ? page : 1, size != null ? size : 10);
+        
+        if (!searchEngine.isReady()) {
+            return searchArticlesFromDb(articlePage, keyword, category, sortBy);
+        }
+        
+        SearchHits hits = searchEngine.searchArticles(keyword, category, sortBy,
+                (int) articlePage.getCurrent(), (int) articlePage.getSize());
+        articlePage.setTotal(hits.getTotal());
+        articlePage.setRecords(loadInOrder(hits.getIds(), articleService::listByIds, Article::getId));
+        return articlePage;
+    }
+
+    /**
+     * 按搜索结果的ID顺序排列实体
+     */
+    private <T> List<T> loadInOrder(List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idGetter) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : loader.apply(ids)) {
+            byId.put(idGetter.apply(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+
+    // 以下为索引尚未就绪时的数据库查询
+
+    private IPage<Case> searchCasesFromDb(Page<Case> casePage, String keyword, String style, String layout, String sortBy) {
+        QueryWrapper<Case> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("status", "APPROVED");
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            queryWrapper.and(wrapper -> wrapper.like("title", keyword)
+                                            .or()
+                                            .like("design_concept", keyword));
+        }
+        if (style != null && !style.isEmpty()) {
+            queryWrapper.eq("style", style);
+        }
+        if (layout != null && !layout.isEmpty()) {
+            queryWrapper.eq("layout", layout);
+        }
+        
+        if ("views".equals(sortBy)) {
+            queryWrapper.orderByDesc("views");
+        } else if ("likes".equals(sortBy)) {
+            queryWrapper.orderByDesc("likes");
+        } else {
+            queryWrapper.orderByDesc("create_time");
+        }
+        
+        return caseService.page(casePage, queryWrapper);
+    }
+
+    private IPage<Designer> searchDesignersFromDb(Page<Designer> designerPage, String keyword, String style, String serviceArea, String sortBy) {
+        QueryWrapper<Designer> queryWrapper = new QueryWrapper<>();
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            queryWrapper.and(wrapper -> wrapper.like("name", keyword)
+                                            .or()
+                                            .like("bio", keyword)
+                                            .or()
+                                            .like("style", keyword));
+        }
+        if (style != null && !style.isEmpty()) {
+            queryWrapper.like("style", style);
+        }
+        if (serviceArea != null && !serviceArea.isEmpty()) {
+            queryWrapper.like("service_area", serviceArea);
+        }
+        
+        if ("rating".equals(sortBy)) {
+            queryWrapper.orderByDesc("rating");
+        } else if ("experience".equals(sortBy)) {
+            queryWrapper.orderByDesc("experience");
+        } else if ("cases".equals(sortBy)) {
+            queryWrapper.orderByDesc("completed_cases");
+        } else {
+            queryWrapper.orderByDesc("create_time");
+        }
+        
+        return designerService.page(designerPage, queryWrapper);
+    }
+
+    private IPage<Article> searchArticlesFromDb(Page<Article> articlePage, String keyword, String category, String sortBy) {
+        QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
+        queryWrapper.in("status", "APPROVED", "PUBLISHED");
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            queryWrapper.and(wrapper -> wrapper.like("title", keyword)
+                                            .or()
+                                            .like("summary", keyword)
+                                            .or()
+                                            .like("content", keyword));
+        }
+        if (category != null && !category.isEmpty()) {
+            queryWrapper.eq("category", category);
+        }
+        
+        if ("views".equals(sortBy)) {
+            queryWrapper.orderByDesc("views");
+        } else if ("likes".equals(sortBy)) {
+            queryWrapper.orderByDesc("likes");
+        } else if ("createTime".equals(sortBy)) {
+            queryWrapper.orderByDesc("create_time");
+        } else {
+            queryWrapper.orderByDesc("publish_time");
+        }
+        
+        return articleService.page(articlePage, queryWrapper);
+    }
 }
\ No newline at end of file
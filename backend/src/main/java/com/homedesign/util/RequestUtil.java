@@ -0,0 +1,34 @@
+package com.homedesign.util;
+
+import javax.servlet.http.HttpServletRequest;
+
+public class RequestUtil {
+
+    /**
+     * 获取客户端IP，经过代理时取X-Forwarded-For中的第一个地址
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isEmpty() && !"unknown".equalsIgnoreCase(forwarded)) {
+            int comma = forwarded.indexOf(',');
+            return (comma >= 0 ? forwarded.substring(0, comma) : forwarded).trim();
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isEmpty() && !"unknown".equalsIgnoreCase(realIp)) {
+            return realIp;
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * 访客标识：登录用户用用户ID，否则用IP和User-Agent组成的指纹
+     */
+    public static String getVisitorKey(HttpServletRequest request) {
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        String userAgent = request.getHeader("User-Agent");
+        return "f:" + getClientIp(request) + "|" + (userAgent != null ? userAgent : "");
+    }
+}
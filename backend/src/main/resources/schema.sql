@@ -131,7 +131,7 @@ CREATE TABLE IF NOT EXISTS article (
     FOREIGN KEY (author_id) REFERENCES user(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文章表';
 
--- 评论表
+-- 评论表（root_id、depth、path 为后加字段，已有数据库执行 upgrade.sql 升级）
 CREATE TABLE IF NOT EXISTS comment (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     target_type VARCHAR(20) NOT NULL COMMENT '目标类型：case,article',
@@ -143,12 +143,17 @@ CREATE TABLE IF NOT EXISTS comment (
     likes INT DEFAULT 0 COMMENT '点赞数',
     parent_id BIGINT COMMENT '父评论ID',
     reply_to VARCHAR(50) COMMENT '回复用户名',
+    root_id BIGINT COMMENT '所属顶级评论ID',
+    depth INT COMMENT '层级，顶级评论为0',
+    path VARCHAR(768) CHARACTER SET ascii COLLATE ascii_bin COMMENT '物化路径：各级评论ID补零到10位后以/连接',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     deleted INT NOT NULL DEFAULT 0 COMMENT '逻辑删除标志',
     INDEX idx_target (target_type, target_id),
     INDEX idx_user_id (user_id),
     INDEX idx_parent_id (parent_id),
+    INDEX idx_root_id (root_id),
+    INDEX idx_path (path),
     FOREIGN KEY (user_id) REFERENCES user(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='评论表';
 
@@ -206,6 +211,7 @@ CREATE TABLE IF NOT EXISTS notification (
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     deleted INT NOT NULL DEFAULT 0 COMMENT '逻辑删除标志',
     INDEX idx_user_id (user_id),
+    INDEX idx_user_read (user_id, is_read),
     INDEX idx_is_read (is_read),
     INDEX idx_type (type),
     FOREIGN KEY (user_id) REFERENCES user(id)
@@ -294,6 +300,7 @@ CREATE TABLE IF NOT EXISTS notification (
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     deleted INT NOT NULL DEFAULT 0 COMMENT '逻辑删除标志',
     INDEX idx_user_id (user_id),
+    INDEX idx_user_read (user_id, is_read),
     INDEX idx_is_read (is_read),
     INDEX idx_type (type),
     INDEX idx_target (target_type, target_id),
@@ -315,6 +322,77 @@ CREATE TABLE IF NOT EXISTS favorite (
     FOREIGN KEY (user_id) REFERENCES user(id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='收藏表';
 
+-- 热门关键词快照表
+CREATE TABLE IF NOT EXISTS hot_keyword_snapshot (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    window_name VARCHAR(10) NOT NULL COMMENT '时间窗口：hour,day,week',
+    bucket_start DATETIME NOT NULL COMMENT '分桶起始时间',
+    keyword VARCHAR(100) NOT NULL COMMENT '关键词',
+    hit_count BIGINT NOT NULL DEFAULT 0 COMMENT '估计搜索次数',
+    snapshot_time DATETIME NOT NULL COMMENT '快照时间',
+    INDEX idx_snapshot_time (snapshot_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='热门关键词快照表';
+
+-- 搜索统计汇总表
+CREATE TABLE IF NOT EXISTS search_stat_rollup (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    granularity VARCHAR(10) NOT NULL COMMENT '汇总粒度：MINUTE,HOUR,DAY',
+    bucket_start DATETIME NOT NULL COMMENT '时间桶起始时间',
+    total_searches BIGINT NOT NULL DEFAULT 0 COMMENT '搜索次数',
+    zero_result_searches BIGINT NOT NULL DEFAULT 0 COMMENT '零结果搜索次数',
+    type_counts VARCHAR(500) COMMENT '按搜索类型计数（JSON）',
+    top_keywords TEXT COMMENT '热门关键词及次数（JSON）',
+    UNIQUE KEY uk_granularity_bucket (granularity, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='搜索统计汇总表';
+
+-- 点赞记录表（只追加）
+CREATE TABLE IF NOT EXISTS user_like (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    target_type VARCHAR(20) NOT NULL COMMENT '目标类型：case,article,designer,comment',
+    target_id BIGINT NOT NULL COMMENT '目标ID',
+    liked TINYINT NOT NULL COMMENT '1点赞，0取消点赞',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_user_target (user_id, target_type, target_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='点赞记录表';
+
+-- 独立访客草图表
+CREATE TABLE IF NOT EXISTS visitor_sketch (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    target_type VARCHAR(20) NOT NULL COMMENT '目标类型：case,article,designer',
+    target_id BIGINT NOT NULL COMMENT '目标ID',
+    stat_date DATE NOT NULL COMMENT '统计日期',
+    registers VARBINARY(1536) NOT NULL COMMENT 'HyperLogLog寄存器',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_target_date (target_type, target_id, stat_date),
+    INDEX idx_stat_date (stat_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='独立访客草图表';
+
+-- 通知已读游标表
+CREATE TABLE IF NOT EXISTS notification_read_cursor (
+    user_id BIGINT PRIMARY KEY COMMENT '用户ID',
+    read_up_to BIGINT NOT NULL DEFAULT 0 COMMENT 'ID不大于该值的通知视为已读',
+    compacted_up_to BIGINT NOT NULL DEFAULT 0 COMMENT 'is_read标记已同步到的通知ID',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='通知已读游标表';
+
+-- 广播通知表
+CREATE TABLE IF NOT EXISTS broadcast_notification (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(200) NOT NULL COMMENT '通知标题',
+    content TEXT COMMENT '通知内容',
+    type VARCHAR(50) NOT NULL COMMENT '通知类型',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    deleted INT NOT NULL DEFAULT 0 COMMENT '逻辑删除标志'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='广播通知表';
+
+-- 广播通知投递游标表
+CREATE TABLE IF NOT EXISTS broadcast_delivery_cursor (
+    user_id BIGINT PRIMARY KEY COMMENT '用户ID',
+    delivered_up_to BIGINT NOT NULL DEFAULT 0 COMMENT '已投递到的广播ID',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='广播通知投递游标表';
+
 -- 插入基础系统配置
 INSERT INTO system_config (config_key, config_value, description) VALUES 
 ('site_name', '家装设计平台', '网站名称'),
@@ -0,0 +1,17 @@
+-- 已有数据库的升级脚本
+-- schema.sql 只在建库时执行（CREATE TABLE IF NOT EXISTS 不会修改已存在的表），
+-- 在此之前创建的数据库需在部署新版本前手动执行一次本脚本：
+--   mysql -u root -p home_design < upgrade.sql
+-- 历史评论的 root_id、depth、path 由应用启动时的 CommentServiceImpl.backfillThreads 补全
+
+USE home_design;
+
+SET NAMES utf8mb4;
+
+-- 评论表：线程信息（物化路径）
+ALTER TABLE comment
+    ADD COLUMN root_id BIGINT COMMENT '所属顶级评论ID' AFTER reply_to,
+    ADD COLUMN depth INT COMMENT '层级，顶级评论为0' AFTER root_id,
+    ADD COLUMN path VARCHAR(768) CHARACTER SET ascii COLLATE ascii_bin COMMENT '物化路径：各级评论ID补零到10位后以/连接' AFTER depth,
+    ADD INDEX idx_root_id (root_id),
+    ADD INDEX idx_path (path);
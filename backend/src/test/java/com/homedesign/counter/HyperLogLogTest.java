@@ -0,0 +1,120 @@
+package com.homedesign.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HyperLogLog的估计精度、6位寄存器的紧凑存放、序列化和合并
+ */
+class HyperLogLogTest {
+
+    private static final int REGISTER_COUNT = 2048;
+
+    // 3倍标准误差
+    private static final double TOLERANCE = 3 * 0.023;
+
+    @Test
+    void estimatesKnownCardinalities() {
+        assertEquals(0, new HyperLogLog().cardinality());
+        assertWithinTolerance(1000, sketchOf(0, 1000).cardinality());
+        assertWithinTolerance(100000, sketchOf(0, 100000).cardinality());
+    }
+
+    @Test
+    void ignoresDuplicates() {
+        HyperLogLog sketch = sketchOf(0, 5000);
+        byte[] before = sketch.toBytes();
+        for (int i = 0; i < 5000; i++) {
+            sketch.add("visitor-" + i);
+        }
+        assertArrayEquals(before, sketch.toBytes());
+    }
+
+    @Test
+    void packsRegistersWithoutTouchingNeighbours() {
+        Random random = new Random(7);
+        int[] expected = new int[REGISTER_COUNT];
+        HyperLogLog sketch = new HyperLogLog();
+        // 随机顺序写入各寄存器，包括较小的值（不应覆盖）和上限附近的值
+        for (int i = 0; i < REGISTER_COUNT * 8; i++) {
+            int index = random.nextInt(REGISTER_COUNT);
+            int rank = 1 + random.nextInt(53);
+            sketch.addHash(hashFor(index, rank));
+            expected[index] = Math.max(expected[index], rank);
+        }
+        byte[] bytes = sketch.toBytes();
+        assertEquals(HyperLogLog.SIZE_IN_BYTES, bytes.length);
+        for (int index = 0; index < REGISTER_COUNT; index++) {
+            assertEquals(expected[index], register(bytes, index), "寄存器 " + index);
+        }
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog sketch = sketchOf(0, 20000);
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+        assertArrayEquals(sketch.toBytes(), restored.toBytes());
+        assertEquals(sketch.cardinality(), restored.cardinality());
+
+        // 恢复出的草图与原字节数组互不影响
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog copy = HyperLogLog.fromBytes(bytes);
+        bytes[0] = (byte) 0xff;
+        assertArrayEquals(sketch.toBytes(), copy.toBytes());
+
+        // 长度不符时视为空草图
+        assertEquals(0, HyperLogLog.fromBytes(new byte[10]).cardinality());
+        assertEquals(0, HyperLogLog.fromBytes(null).cardinality());
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnion() {
+        HyperLogLog a = sketchOf(0, 30000);
+        HyperLogLog b = sketchOf(20000, 60000);
+        HyperLogLog union = sketchOf(0, 60000);
+
+        a.merge(b);
+        assertArrayEquals(union.toBytes(), a.toBytes());
+        assertWithinTolerance(60000, a.cardinality());
+
+        // 合并是幂等的
+        a.merge(b);
+        assertArrayEquals(union.toBytes(), a.toBytes());
+    }
+
+    // 私有辅助方法
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add("visitor-" + i);
+        }
+        return sketch;
+    }
+
+    private static void assertWithinTolerance(long actual, long estimate) {
+        double error = Math.abs(estimate - actual) / (double) actual;
+        assertTrue(error <= TOLERANCE, "真实值 " + actual + "，估计值 " + estimate);
+    }
+
+    /**
+     * 落在index号寄存器、rank为指定值（1到53）的哈希：高11位为寄存器号，其后第rank位为第一个1
+     */
+    private static long hashFor(int index, int rank) {
+        return ((long) index << 53) | (1L << (53 - rank));
+    }
+
+    /**
+     * 按文档约定的布局独立解码：每4个寄存器占3字节，小端，每个寄存器6位
+     */
+    private static int register(byte[] bytes, int index) {
+        int offset = (index / 4) * 3;
+        int group = (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16;
+        return (group >> ((index % 4) * 6)) & 0x3f;
+    }
+}
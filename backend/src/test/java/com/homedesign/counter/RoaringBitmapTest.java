@@ -0,0 +1,143 @@
+package com.homedesign.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RoaringBitmap与HashSet逐项对照，重点覆盖4096个元素处数组块与位图块的互相转换
+ */
+class RoaringBitmapTest {
+
+    private static final int ARRAY_MAX = 4096;
+
+    @Test
+    void convertsAcrossArrayLimitInBothDirections() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        Set<Long> oracle = new HashSet<>();
+        long base = 5L << 16;
+
+        // 恰好填满数组块，再多一个转为位图
+        for (int i = 0; i < ARRAY_MAX; i++) {
+            assertTrue(bitmap.add(base + i * 7L));
+            oracle.add(base + i * 7L);
+        }
+        assertSameBlock(oracle, bitmap, base);
+
+        assertTrue(bitmap.add(base + 1));
+        oracle.add(base + 1);
+        assertSameBlock(oracle, bitmap, base);
+
+        // 删回4096个转回数组，数组恰好满，再加入时需要扩容
+        assertTrue(bitmap.remove(base));
+        oracle.remove(base);
+        assertSameBlock(oracle, bitmap, base);
+        assertTrue(bitmap.add(base + 2));
+        oracle.add(base + 2);
+        assertSameBlock(oracle, bitmap, base);
+        assertTrue(bitmap.remove(base + 2));
+        oracle.remove(base + 2);
+        assertTrue(bitmap.add(base + 3));
+        oracle.add(base + 3);
+        assertSameBlock(oracle, bitmap, base);
+    }
+
+    @Test
+    void matchesHashSetUnderRandomAddAndRemove() {
+        Random random = new Random(42);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        Set<Long> oracle = new HashSet<>();
+        long base = 3L << 16;
+
+        // 在一个块的小范围内反复增删，元素数在4096上下来回穿越
+        int range = ARRAY_MAX * 2;
+        for (int round = 0; round < 6; round++) {
+            boolean growing = round % 2 == 0;
+            for (int i = 0; i < 20000; i++) {
+                long value = base + random.nextInt(range);
+                boolean add = growing ? random.nextInt(4) != 0 : random.nextInt(4) == 0;
+                if (add) {
+                    assertEquals(oracle.add(value), bitmap.add(value));
+                } else {
+                    assertEquals(oracle.remove(value), bitmap.remove(value));
+                }
+            }
+            assertSameBlock(oracle, bitmap, base);
+        }
+    }
+
+    @Test
+    void removesEmptiedContainers() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        List<Long> values = new ArrayList<>();
+        // 多个块，其中一个为位图块；插入顺序打乱块号，覆盖块索引的中间插入
+        for (long key : new long[]{9, 1, 5, 0, 7}) {
+            int count = key == 5 ? ARRAY_MAX + 10 : 3;
+            for (int i = 0; i < count; i++) {
+                long value = (key << 16) + i;
+                bitmap.add(value);
+                values.add(value);
+            }
+        }
+        assertEquals(values.size(), bitmap.cardinality());
+
+        for (long value : values) {
+            assertTrue(bitmap.remove(value));
+            assertFalse(bitmap.contains(value));
+        }
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+        assertFalse(bitmap.remove(values.get(0)));
+
+        // 块被移除后仍可重新加入
+        assertTrue(bitmap.add(5L << 16));
+        assertTrue(bitmap.contains(5L << 16));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    void keepsBlocksIndependent() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        // 低16位相同、高位不同的值分属不同的块
+        long low = 12345;
+        assertTrue(bitmap.add(low));
+        assertTrue(bitmap.add((1L << 16) + low));
+        assertTrue(bitmap.add(RoaringBitmap.MAX_VALUE - 1));
+        assertFalse(bitmap.add(low));
+        assertFalse(bitmap.contains((2L << 16) + low));
+
+        assertTrue(bitmap.remove(low));
+        assertFalse(bitmap.contains(low));
+        assertTrue(bitmap.contains((1L << 16) + low));
+        assertTrue(bitmap.contains(RoaringBitmap.MAX_VALUE - 1));
+        assertEquals(2, bitmap.cardinality());
+    }
+
+    @Test
+    void rejectsOutOfRangeValues() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(RoaringBitmap.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.contains(-1));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.remove(RoaringBitmap.MAX_VALUE));
+    }
+
+    /**
+     * 逐个检查块内全部65536个值，并核对总数
+     */
+    private static void assertSameBlock(Set<Long> oracle, RoaringBitmap bitmap, long base) {
+        assertEquals(oracle.size(), bitmap.cardinality());
+        for (long value = base; value < base + (1 << 16); value++) {
+            assertEquals(oracle.contains(value), bitmap.contains(value), "值 " + value);
+        }
+    }
+}
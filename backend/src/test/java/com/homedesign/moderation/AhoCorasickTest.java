@@ -0,0 +1,120 @@
+package com.homedesign.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 自动机的重叠命中、失败链和输出链，结果与逐位置暴力匹配对照
+ */
+class AhoCorasickTest {
+
+    @Test
+    void findsOverlappingMatchesThroughFailAndOutputLinks() {
+        List<String> words = Arrays.asList("he", "she", "his", "hers");
+        AhoCorasick automaton = AhoCorasick.build(words);
+
+        // "ushers"：she结束的状态经失败链到he，继续匹配到hers
+        assertEquals(Arrays.asList("she@1", "he@2", "hers@2"), describe(automaton, words, "ushers"));
+        // "ahishers"：his失配后沿失败链回到s，再走出she、he、hers
+        assertEquals(Arrays.asList("his@1", "she@3", "he@4", "hers@4"), describe(automaton, words, "ahishers"));
+        assertTrue(automaton.matches("ushers".toCharArray(), 6));
+        assertFalse(automaton.matches("hi sh".toCharArray(), 5));
+    }
+
+    @Test
+    void reportsSuffixWordsOnlyReachableByOutputLinks() {
+        // 一个位置可能同时结束多个词条（如bca、c、a），较短的词条只能沿输出链回报
+        List<String> words = Arrays.asList("a", "ab", "bab", "bc", "bca", "c", "caa");
+        AhoCorasick automaton = AhoCorasick.build(words);
+        assertEquals(bruteForce(words, "abccab"), describe(automaton, words, "abccab"));
+        assertEquals(bruteForce(words, "bcaab"), describe(automaton, words, "bcaab"));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomInput() {
+        Random random = new Random(2024);
+        for (int round = 0; round < 200; round++) {
+            List<String> words = new ArrayList<>();
+            int count = 1 + random.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                words.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            AhoCorasick automaton = AhoCorasick.build(words);
+            String text = randomText(random, random.nextInt(40));
+            List<String> expected = bruteForce(words, text);
+            assertEquals(expected, describe(automaton, words, text), "词条 " + words + "，文本 " + text);
+            assertEquals(!expected.isEmpty(), automaton.matches(text.toCharArray(), text.length()));
+        }
+    }
+
+    @Test
+    void ignoresEmptyWordsAndReportsFirstOfDuplicates() {
+        List<String> words = Arrays.asList("", "ab", "ab");
+        AhoCorasick automaton = AhoCorasick.build(words);
+        List<AhoCorasick.Match> matches = automaton.findAll("xab".toCharArray(), 3);
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).getWordIndex());
+        assertEquals(1, matches.get(0).getStart());
+        assertEquals(3, matches.get(0).getEnd());
+        assertFalse(AhoCorasick.build(Collections.singletonList("")).matches("abc".toCharArray(), 3));
+    }
+
+    @Test
+    void scansOnlyTheGivenLength() {
+        AhoCorasick automaton = AhoCorasick.build(Collections.singletonList("cd"));
+        char[] buffer = "abcd".toCharArray();
+        assertFalse(automaton.matches(buffer, 3));
+        assertTrue(automaton.findAll(buffer, 3).isEmpty());
+        assertEquals(1, automaton.findAll(buffer, 4).size());
+    }
+
+    // 私有辅助方法
+
+    /**
+     * 命中按结束位置、再按起始位置排序后描述为 词条@起始位置
+     */
+    private static List<String> describe(AhoCorasick automaton, List<String> words, String text) {
+        List<AhoCorasick.Match> matches = new ArrayList<>(automaton.findAll(text.toCharArray(), text.length()));
+        matches.sort((a, b) -> a.getEnd() != b.getEnd() ? Integer.compare(a.getEnd(), b.getEnd()) : Integer.compare(a.getStart(), b.getStart()));
+        List<String> result = new ArrayList<>();
+        for (AhoCorasick.Match match : matches) {
+            String word = words.get(match.getWordIndex());
+            assertEquals(word, text.substring(match.getStart(), match.getEnd()));
+            result.add(word + "@" + match.getStart());
+        }
+        return result;
+    }
+
+    /**
+     * 逐位置比较的暴力匹配，重复词条只计首次出现的下标，排序与describe一致
+     */
+    private static List<String> bruteForce(List<String> words, String text) {
+        List<String> result = new ArrayList<>();
+        for (int end = 1; end <= text.length(); end++) {
+            for (int start = 0; start < end; start++) {
+                String candidate = text.substring(start, end);
+                if (words.contains(candidate)) {
+                    result.add(candidate + "@" + start);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+}
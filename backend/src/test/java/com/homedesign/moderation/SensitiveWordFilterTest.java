@@ -0,0 +1,77 @@
+package com.homedesign.moderation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 敏感词过滤：内置词库加外部词库文件，覆盖干扰字符、全角、繁体和重叠命中时的原文位置映射
+ */
+class SensitiveWordFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SensitiveWordFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path words = tempDir.resolve("words.txt");
+        Files.write(words, Arrays.asList("# 测试词条", "he", "she", "hers", "Spam"), StandardCharsets.UTF_8);
+        filter = new SensitiveWordFilter();
+        ReflectionTestUtils.setField(filter, "wordsFile", words.toString());
+        filter.init();
+    }
+
+    @Test
+    void detectsNoisyFullWidthAndTraditionalVariants() {
+        assertTrue(filter.containsSensitive("这里可以赌博"));
+        assertTrue(filter.containsSensitive("赌 . 博"));
+        assertTrue(filter.containsSensitive("網賭"));
+        assertTrue(filter.containsSensitive("ＳＰＡＭ"));
+        assertTrue(filter.containsSensitive(null, "", "s p-a_m"));
+        assertFalse(filter.containsSensitive("客厅采用北欧风格", null));
+    }
+
+    @Test
+    void findsOverlappingWordsInDictionaryForm() {
+        // 赌博与博彩共用“博”，代开发票与发票代开共用“发票”
+        assertEquals(Arrays.asList("赌博", "博彩"), filter.findWords("赌博彩"));
+        assertEquals(Arrays.asList("代开发票", "发票代开"), filter.findWords("代开发票代开"));
+        assertEquals(Arrays.asList("she", "he", "hers"), filter.findWords("uSHERS"));
+        assertEquals(Arrays.asList("Spam"), filter.findWords("spam", "ＳＰＡＭ"));
+    }
+
+    @Test
+    void masksOriginalPositionsAcrossSkippedCharacters() {
+        // 词中间的干扰字符一并替换，词前后的保持原样
+        assertEquals("不要**！", filter.mask("不要赌博！"));
+        assertEquals("不要***！", filter.mask("不要赌-博！"));
+        assertEquals("[****]", filter.mask("[赌 .博]"));
+        // 全角和繁体按原文字符逐个替换
+        assertEquals("x ****** y", filter.mask("x Ｓ.p Ａm y"));
+        assertEquals("在**玩", filter.mask("在網賭玩"));
+        // 重叠命中合并覆盖
+        assertEquals("u*****", filter.mask("ushers"));
+        assertEquals("***", filter.mask("赌博彩"));
+    }
+
+    @Test
+    void leavesCleanTextUntouched() {
+        String text = "现代简约风格，客厅 ＋ 餐厅一体化设计";
+        assertEquals(text, filter.mask(text));
+        assertEquals(null, filter.mask(null));
+        assertEquals("", filter.mask(""));
+        assertTrue(filter.findWords(text).isEmpty());
+    }
+}